@@ -0,0 +1,95 @@
+package com.redhat.cloudnative;
+
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throwing a domain exception and mapping it to an error response, as for a 404 or a failed validation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorMappingBenchmark {
+
+    private final InventoryNotFoundExceptionMapper notFoundMapper = new InventoryNotFoundExceptionMapper();
+    private final ConstraintViolationExceptionMapper violationMapper = new ConstraintViolationExceptionMapper();
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private ConstraintViolationException violation;
+    private long itemId = 900_000;
+
+    @Setup
+    public void setUp() {
+        notFoundMapper.uriInfo = uriInfo("/api/inventory/999999");
+        violationMapper.uriInfo = uriInfo("/api/inventory/329299/quantity");
+        validatorFactory = Validation.byDefaultProvider()
+                .configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory();
+        validator = validatorFactory.getValidator();
+        violation = new ConstraintViolationException(validator.validate(new QuantityUpdateRequest(-1)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Response notFound() {
+        try {
+            throw new InventoryNotFoundException(itemId++);
+        } catch (InventoryNotFoundException e) {
+            return notFoundMapper.toResponse(e);
+        }
+    }
+
+    @Benchmark
+    public Response constraintViolation() {
+        return violationMapper.toResponse(violation);
+    }
+
+    @Benchmark
+    public Response validateAndMapViolation() {
+        return violationMapper.toResponse(
+                new ConstraintViolationException(validator.validate(new QuantityUpdateRequest(-1))));
+    }
+
+    /**
+     * Only {@code getRequestUri()} is used by the mappers.
+     */
+    private static UriInfo uriInfo(String path) {
+        URI uri = URI.create("http://localhost:8080" + path);
+        return (UriInfo) Proxy.newProxyInstance(UriInfo.class.getClassLoader(), new Class<?>[] { UriInfo.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getRequestUri")) {
+                        return uri;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,84 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.cache.runtime.caffeine.CaffeineCacheImpl;
+import io.quarkus.cache.runtime.caffeine.CaffeineCacheInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit and miss paths of the Quarkus Caffeine cache as {@link InventoryCacheLoader} drives it:
+ * {@code get(key, loader).await()} for reads and {@code getIfPresent} for batch peeks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventoryCacheBenchmark {
+
+    private static final int HOT_KEYS = 1024;
+
+    private CaffeineCache cache;
+    private Inventory loaded;
+    private final AtomicLong nextMiss = new AtomicLong(1_000_000);
+
+    @Setup
+    public void setUp() {
+        // Same expiry as inventory-cache in application.properties; bounded so the miss benchmark does not grow forever
+        CaffeineCacheInfo info = new CaffeineCacheInfo();
+        info.name = InventoryCacheLoader.ITEM_CACHE;
+        info.expireAfterWrite = Duration.ofMinutes(5);
+        info.maximumSize = 100_000L;
+        cache = new CaffeineCacheImpl(info, false);
+
+        loaded = new Inventory();
+        loaded.id = 329299L;
+        loaded.productId = 1002L;
+        loaded.quantity = 35;
+        for (long key = 0; key < HOT_KEYS; key++) {
+            cache.put(key, CompletableFuture.completedFuture(loaded));
+        }
+    }
+
+    @Benchmark
+    public Inventory hit() {
+        return cache.<Long, Inventory>get(key(), k -> loaded).await().indefinitely();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Inventory hitContended() {
+        return cache.<Long, Inventory>get(key(), k -> loaded).await().indefinitely();
+    }
+
+    @Benchmark
+    public Inventory miss() {
+        return cache.<Long, Inventory>get(nextMiss.incrementAndGet(), k -> loaded).await().indefinitely();
+    }
+
+    @Benchmark
+    public Object peekHit() {
+        return cache.getIfPresent(key()).join();
+    }
+
+    private static long key() {
+        return ThreadLocalRandom.current().nextInt(HOT_KEYS);
+    }
+}
@@ -0,0 +1,86 @@
+package com.redhat.cloudnative;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of single items and list pages, encoding a cache entry, and
+ * building the page wrapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventorySerializationBenchmark {
+
+    // Same date handling as the Quarkus-managed ObjectMapper
+    private final ObjectMapper mapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    private Inventory item;
+    private List<Inventory> page;
+    private PaginatedResponse<Inventory> response;
+
+    @Setup
+    public void setUp() {
+        item = inventory(329299L, 1002L, 35);
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(inventory(100000L + i, 1000L + i, i));
+        }
+        response = PaginatedResponse.of(page, 10_000, 3, pageSize);
+    }
+
+    @Benchmark
+    public byte[] serializeInventory() throws Exception {
+        return mapper.writeValueAsBytes(item);
+    }
+
+    // Paid once per cache entry; hits then reuse the bytes
+    @Benchmark
+    public EncodedInventory encodeInventory() {
+        return EncodedInventory.encode(item, mapper);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public PaginatedResponse<Inventory> paginatedResponseOf() {
+        return PaginatedResponse.of(page, 10_000, 3, pageSize);
+    }
+
+    private static Inventory inventory(Long id, Long productId, int quantity) {
+        Inventory inventory = new Inventory();
+        inventory.id = id;
+        inventory.productId = productId;
+        inventory.quantity = quantity;
+        inventory.createdAt = Instant.parse("2026-01-01T00:00:00Z");
+        inventory.updatedAt = Instant.parse("2026-02-01T12:30:00Z");
+        return inventory;
+    }
+}
@@ -0,0 +1,84 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk upserts against one create per request, on the same application.
+ *
+ * Only runs with {@code -Ploadtest}: the ratio depends on the machine, so it
+ * has no place among the functional tests.
+ */
+@QuarkusTest
+@TestProfile(LoadTestProfile.class)
+@Tag("loadtest")
+public class BulkUpsertThroughputTest {
+
+    private static final Logger LOG = Logger.getLogger(BulkUpsertThroughputTest.class);
+
+    // Below the load test's products, which share this application
+    private static final long FIRST_PRODUCT = 1_000_000L;
+    private static final long LAST_PRODUCT = 2_000_000L;
+
+    @AfterEach
+    public void removeRows() {
+        QuarkusTransaction.requiringNew().run(() ->
+                Inventory.delete("productId >= ?1 and productId < ?2", FIRST_PRODUCT, LAST_PRODUCT));
+    }
+
+    @Test
+    public void testBulkUpsertIsAnOrderOfMagnitudeFasterThanSingleCreates() {
+        int singleRows = 200;
+        // Warm up both paths
+        createOneByOne(FIRST_PRODUCT + 500_000, 20);
+        bulkUpsert(FIRST_PRODUCT + 600_000, 1_000);
+
+        long start = System.nanoTime();
+        createOneByOne(FIRST_PRODUCT + 100_000, singleRows);
+        double singleRowsPerSecond = singleRows / ((System.nanoTime() - start) / 1e9);
+
+        int bulkRows = 50_000;
+        start = System.nanoTime();
+        bulkUpsert(FIRST_PRODUCT + 200_000, bulkRows);
+        double bulkRowsPerSecond = bulkRows / ((System.nanoTime() - start) / 1e9);
+
+        LOG.infof("Bulk upsert: %.0f rows/s, single creates: %.0f rows/s", bulkRowsPerSecond, singleRowsPerSecond);
+        assertTrue(bulkRowsPerSecond >= 10 * singleRowsPerSecond,
+                String.format("bulk %.0f rows/s vs single %.0f rows/s", bulkRowsPerSecond, singleRowsPerSecond));
+    }
+
+    private static void createOneByOne(long firstProduct, int rows) {
+        for (int i = 0; i < rows; i++) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body("{\"productId\": " + (firstProduct + i) + ", \"quantity\": 1}")
+                    .when().post("/api/v1/inventory")
+                    .then()
+                    .statusCode(201);
+        }
+    }
+
+    private static void bulkUpsert(long firstProduct, int rows) {
+        StringBuilder body = new StringBuilder(rows * 40);
+        for (int i = 0; i < rows; i++) {
+            body.append("{\"productId\": ").append(firstProduct + i).append(", \"quantity\": 1}\n");
+        }
+        given()
+                .contentType("application/x-ndjson")
+                .body(body.toString())
+                .when().post("/api/v1/inventory/bulk")
+                .then()
+                .statusCode(200)
+                .body("upserted", is(rows));
+    }
+}
@@ -0,0 +1,35 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.time.Duration;
+
+/**
+ * Delays every SQL statement Hibernate prepares by {@code loadtest.db-latency},
+ * standing in for a slow or distant database. The request thread is blocked
+ * for the delay, as it would be waiting on the network.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class DbLatencyInjector implements StatementInspector {
+
+    @ConfigProperty(name = "loadtest.db-latency", defaultValue = "0s")
+    Duration latency;
+
+    @Override
+    public String inspect(String sql) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return sql;
+    }
+}
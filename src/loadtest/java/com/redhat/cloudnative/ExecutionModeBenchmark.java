@@ -0,0 +1,108 @@
+package com.redhat.cloudnative;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.quarkus.test.common.http.TestHTTPResource;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of a database-bound mix with the REST endpoints on platform worker
+ * threads and on virtual threads, at high concurrency and with latency injected
+ * into every SQL statement ({@link DbLatencyInjector}).
+ *
+ * Each mode starts the application with its own profile; both use the same
+ * connection pool and bulkhead sizes, so only the execution model differs. Run with
+ * {@code -Ploadtest -Dloadtest.groups=execution-mode}; results go to
+ * {@code target/execution-mode-<mode>.json} and the second run logs a comparison.
+ */
+abstract class ExecutionModeBenchmark {
+
+    private static final Logger LOG = Logger.getLogger(ExecutionModeBenchmark.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    abstract String mode();
+
+    @Test
+    public void testDatabaseBoundMix() throws Exception {
+        int products = Integer.getInteger("loadtest.products", 1000);
+        int users = Integer.getInteger("loadtest.load", 1000);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+
+        long[] itemIds = InventoryLoadTest.seed(products);
+        Map<String, Object> result = new LoadGenerator()
+                .add("list-page", 50, random -> LoadGenerator
+                        .request(baseUri, "api/v1/inventory?size=20&page=" + random.nextInt(products / 20 + 1))
+                        .GET().build())
+                .add("patch-quantity", 50, random -> LoadGenerator
+                        .request(baseUri, "api/v1/inventory/" + itemIds[random.nextInt(products)] + "/quantity")
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                                "{\"quantity\": " + InventoryLoadTest.STOCK + "}"))
+                        .build())
+                .run(LoadGenerator.Model.CLOSED, users, warmup, duration);
+        result.put("mode", mode());
+        result.put("dbLatency", Profile.dbLatency());
+
+        Path resultFile = resultFile(mode());
+        Files.createDirectories(resultFile.toAbsolutePath().getParent());
+        MAPPER.writeValue(resultFile.toFile(), result);
+        LOG.infof("%s mode: %s", mode(), MAPPER.writeValueAsString(result.get("total")));
+
+        String other = "worker".equals(mode()) ? "virtual" : "worker";
+        if (Files.exists(resultFile(other))) {
+            Map<String, Object> previous = MAPPER.readValue(resultFile(other).toFile(), new TypeReference<>() {
+            });
+            LOG.infof("Throughput %s: %s req/s, %s: %s req/s (p99 %s ms vs %s ms)", mode(),
+                    total(result, "throughput"), other, total(previous, "throughput"),
+                    total(result, "p99Millis"), total(previous, "p99Millis"));
+        }
+        assertTrue(((Number) total(result, "count")).longValue() > 0, "no requests completed");
+    }
+
+    private static Path resultFile(String mode) {
+        return Path.of("target", "execution-mode-" + mode + ".json");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object total(Map<String, Object> result, String key) {
+        return ((Map<String, Object>) result.get("total")).get(key);
+    }
+
+    /**
+     * Same pool, bulkhead and injected latency for both modes.
+     */
+    abstract static class Profile extends LoadTestProfile {
+
+        abstract boolean virtualThreads();
+
+        static String dbLatency() {
+            return System.getProperty("loadtest.db-latency", "PT0.02S");
+        }
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            Map<String, String> overrides = super.getConfigOverrides();
+            overrides.put("quarkus.virtual-threads.enabled", String.valueOf(virtualThreads()));
+            overrides.put("loadtest.db-latency", dbLatency());
+            overrides.put("quarkus.datasource.jdbc.max-size", System.getProperty("loadtest.db-pool-size", "400"));
+            overrides.put("inventory.bulkhead.max-concurrent", System.getProperty("loadtest.bulkhead", "2000"));
+            return overrides;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.redhat.cloudnative;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load run against the application on H2 (PostgreSQL mode), gated on a committed baseline.
+ *
+ * Only runs with {@code -Ploadtest}. Tunables are system properties, e.g.
+ * {@code -Dloadtest.model=open -Dloadtest.load=2000}; see the README.
+ */
+@QuarkusTest
+@TestProfile(LoadTestProfile.class)
+@Tag("loadtest")
+public class InventoryLoadTest {
+
+    private static final Logger LOG = Logger.getLogger(InventoryLoadTest.class);
+
+    static final long FIRST_PRODUCT = 7_000_000L;
+    static final int STOCK = 1_000_000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    @Test
+    public void testMixedLoadStaysWithinBaseline() throws Exception {
+        int products = Integer.getInteger("loadtest.products", 1000);
+        LoadGenerator.Model model = LoadGenerator.Model.valueOf(
+                System.getProperty("loadtest.model", "closed").toUpperCase());
+        int load = Integer.getInteger("loadtest.load", model == LoadGenerator.Model.CLOSED ? 64 : 2000);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+        Path resultFile = Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+        Path baselineFile = Path.of(System.getProperty("loadtest.baseline",
+                "src/loadtest/resources/loadtest-baseline-" + model.name().toLowerCase() + ".json"));
+
+        long[] itemIds = seed(products);
+        Map<String, Object> result = mix(products, itemIds).run(model, load, warmup, duration);
+
+        Files.createDirectories(resultFile.toAbsolutePath().getParent());
+        MAPPER.writeValue(resultFile.toFile(), result);
+        LOG.infof("Load test result written to %s:%n%s", resultFile, MAPPER.writeValueAsString(result.get("total")));
+
+        if (Boolean.getBoolean("loadtest.update-baseline")) {
+            MAPPER.writeValue(baselineFile.toFile(), result);
+            LOG.infof("Baseline updated: %s", baselineFile);
+            return;
+        }
+        // A missing baseline fails the gate rather than skipping it, so it cannot go unnoticed
+        assertTrue(Files.exists(baselineFile),
+                "No baseline at " + baselineFile + "; record one with -Dloadtest.update-baseline=true");
+
+        Map<String, Object> baseline = MAPPER.readValue(baselineFile.toFile(), new TypeReference<>() {
+        });
+        LoadTestGate gate = new LoadTestGate(
+                Double.parseDouble(System.getProperty("loadtest.tolerance", "0.2")),
+                Double.parseDouble(System.getProperty("loadtest.tail-tolerance", "0.5")),
+                Double.parseDouble(System.getProperty("loadtest.latency-slack-ms", "1")));
+        List<String> regressions = gate.regressions(baseline, result);
+        assertTrue(regressions.isEmpty(), "Regressed against " + baselineFile + ":\n" + String.join("\n", regressions));
+    }
+
+    /**
+     * Reads by product (60%), list pages (15%), quantity PATCHes (15%) and two-line checkouts (10%).
+     * Products are picked by Zipfian popularity ({@code loadtest.zipf-exponent}).
+     */
+    private LoadGenerator mix(int products, long[] itemIds) {
+        ProductPopularity popularity = new ProductPopularity(0, products,
+                Double.parseDouble(System.getProperty("loadtest.zipf-exponent", "0.99")));
+        return new LoadGenerator()
+                .add("read-by-product", 60, random -> LoadGenerator
+                        .request(baseUri, "api/v1/inventory/product/" + (FIRST_PRODUCT + skewed(random, popularity)))
+                        .GET().build())
+                .add("list-page", 15, random -> LoadGenerator
+                        .request(baseUri, "api/v1/inventory?size=20&page=" + random.nextInt(products / 20 + 1))
+                        .GET().build())
+                .add("patch-quantity", 15, random -> LoadGenerator
+                        .request(baseUri, "api/v1/inventory/" + itemIds[skewed(random, popularity)] + "/quantity")
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"quantity\": " + STOCK + "}"))
+                        .build())
+                .add("checkout", 10, random -> {
+                    // Distinct products, in order, as a real basket would be after dedup
+                    int first = skewed(random, popularity);
+                    int second = (first + 1 + random.nextInt(products - 1)) % products;
+                    return LoadGenerator.request(baseUri, "api/v1/inventory/reservations")
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"lines\": ["
+                                    + "{\"productId\": " + (FIRST_PRODUCT + Math.min(first, second)) + ", \"quantity\": 1},"
+                                    + "{\"productId\": " + (FIRST_PRODUCT + Math.max(first, second)) + ", \"quantity\": 1}]}"))
+                            .build();
+                });
+    }
+
+    private static int skewed(ThreadLocalRandom random, ProductPopularity popularity) {
+        return (int) popularity.sample(random);
+    }
+
+    /**
+     * Bulk-load {@code products} rows with plenty of stock and return their item IDs by offset.
+     */
+    static long[] seed(int products) {
+        StringBuilder rows = new StringBuilder("[");
+        for (int i = 0; i < products; i++) {
+            rows.append(i == 0 ? "" : ",")
+                    .append("{\"productId\":").append(FIRST_PRODUCT + i)
+                    .append(",\"quantity\":").append(STOCK).append('}');
+        }
+        given()
+                .contentType(ContentType.JSON)
+                .body(rows.append(']').toString())
+                .when().post("/api/v1/inventory/bulk")
+                .then()
+                .statusCode(200);
+
+        long[] itemIds = new long[products];
+        List<Map<String, Object>> items = given()
+                .when().get("/api/v1/inventory/all")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getList("$");
+        for (Map<String, Object> item : items) {
+            long offset = ((Number) item.get("productId")).longValue() - FIRST_PRODUCT;
+            if (offset >= 0 && offset < products) {
+                itemIds[(int) offset] = ((Number) item.get("id")).longValue();
+            }
+        }
+        return itemIds;
+    }
+}
@@ -0,0 +1,201 @@
+package com.redhat.cloudnative;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.jboss.logging.Logger;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * HTTP load generator for the v1 API with a weighted mix of operations.
+ *
+ * In the closed model a fixed number of users send requests back to back, so
+ * throughput is what the service sustains at that concurrency. In the open
+ * model requests arrive at a fixed rate whether or not earlier ones finished,
+ * and latency is measured from each request's scheduled start, so a stalled
+ * server shows up in the percentiles instead of silently lowering the rate
+ * (no coordinated omission).
+ *
+ * Requests run on virtual threads, one per request in the open model and one
+ * per user in the closed model.
+ */
+final class LoadGenerator {
+
+    private static final Logger LOG = Logger.getLogger(LoadGenerator.class);
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    enum Model {
+        CLOSED, OPEN
+    }
+
+    /**
+     * One kind of request in the mix and its latency histogram.
+     */
+    static final class Operation {
+        final String name;
+        final int weight;
+        final Function<ThreadLocalRandom, HttpRequest> request;
+        final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+
+        Operation(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+    }
+
+    private final HttpClient client;
+    private final List<Operation> operations = new ArrayList<>();
+    private int totalWeight;
+    private long measureFrom;
+    private long measureUntil;
+
+    LoadGenerator() {
+        // The client keeps its default executor: blocking sends on the request pool could starve its completions
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    LoadGenerator add(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+        operations.add(new Operation(name, weight, request));
+        totalWeight += weight;
+        return this;
+    }
+
+    /**
+     * Run the mix for {@code warmup} (not recorded) and then {@code duration}.
+     *
+     * @param load concurrent users (closed model) or requests per second (open model)
+     * @return the report, keyed by operation name plus {@code "total"}
+     */
+    Map<String, Object> run(Model model, int load, Duration warmup, Duration duration) throws InterruptedException {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        long start = System.nanoTime();
+        measureFrom = start + warmup.toNanos();
+        measureUntil = measureFrom + duration.toNanos();
+        long end = measureUntil;
+        LOG.infof("Load test: %s model, load %d, warmup %s, duration %s", model, load, warmup, duration);
+
+        if (model == Model.CLOSED) {
+            for (int user = 0; user < load; user++) {
+                executor.execute(() -> {
+                    while (System.nanoTime() < end) {
+                        send(pick(), System.nanoTime());
+                    }
+                });
+            }
+        } else {
+            long interval = TimeUnit.SECONDS.toNanos(1) / load;
+            for (long scheduled = start; scheduled < end; scheduled += interval) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                long intendedStart = scheduled;
+                Operation operation = pick();
+                executor.execute(() -> send(operation, intendedStart));
+            }
+        }
+
+        // Requests still queued or in flight are the slow ones; wait for them rather than drop them
+        executor.shutdown();
+        if (!executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        return report(model, load, duration);
+    }
+
+    private void send(Operation operation, long intendedStart) {
+        boolean failed;
+        try {
+            HttpResponse<Void> response = client.send(operation.request.apply(ThreadLocalRandom.current()),
+                    HttpResponse.BodyHandlers.discarding());
+            failed = response.statusCode() >= 400;
+        } catch (Exception e) {
+            failed = true;
+        }
+        if (intendedStart >= measureFrom && intendedStart < measureUntil) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+            operation.latency.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+            if (failed) {
+                operation.errors.increment();
+            }
+        }
+    }
+
+    private Operation pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            ticket -= operation.weight;
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Empty operation mix");
+    }
+
+    private Map<String, Object> report(Model model, int load, Duration duration) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("model", model.name().toLowerCase());
+        report.put("load", load);
+        report.put("durationSeconds", duration.toSeconds());
+
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        long totalErrors = 0;
+        Map<String, Object> byOperation = new LinkedHashMap<>();
+        for (Operation operation : operations) {
+            Histogram latency = operation.latency.copy();
+            total.add(latency);
+            totalErrors += operation.errors.sum();
+            byOperation.put(operation.name, summary(latency, operation.errors.sum(), duration));
+        }
+        report.put("total", summary(total, totalErrors, duration));
+        report.put("operations", byOperation);
+        return report;
+    }
+
+    private static Map<String, Object> summary(Histogram latency, long errors, Duration duration) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long count = latency.getTotalCount();
+        summary.put("count", count);
+        summary.put("errors", errors);
+        summary.put("throughput", round(count / (double) duration.toSeconds()));
+        summary.put("p50Millis", millis(latency.getValueAtPercentile(50)));
+        summary.put("p99Millis", millis(latency.getValueAtPercentile(99)));
+        summary.put("p999Millis", millis(latency.getValueAtPercentile(99.9)));
+        summary.put("maxMillis", millis(latency.getMaxValue()));
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    static HttpRequest.Builder request(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+    }
+}
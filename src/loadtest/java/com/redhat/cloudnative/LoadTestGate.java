@@ -0,0 +1,87 @@
+package com.redhat.cloudnative;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a load test report against a baseline report.
+ *
+ * Throughput may drop and p50/p99 may rise by {@code tolerance}, p99.9 by
+ * {@code tailTolerance} (tails are noisier). Latency limits also get an
+ * absolute slack, so sub-millisecond baselines do not fail on jitter.
+ */
+final class LoadTestGate {
+
+    private static final double MAX_ADDED_ERROR_RATE = 0.01;
+
+    private final double tolerance;
+    private final double tailTolerance;
+    private final double slackMillis;
+
+    LoadTestGate(double tolerance, double tailTolerance, double slackMillis) {
+        this.tolerance = tolerance;
+        this.tailTolerance = tailTolerance;
+        this.slackMillis = slackMillis;
+    }
+
+    /**
+     * @return one line per regression; empty if the result is within tolerance
+     */
+    @SuppressWarnings("unchecked")
+    List<String> regressions(Map<String, Object> baseline, Map<String, Object> result) {
+        List<String> regressions = new ArrayList<>();
+        if (!baseline.get("model").equals(result.get("model")) || number(baseline, "load") != number(result, "load")) {
+            regressions.add("baseline was recorded with model " + baseline.get("model") + " and load "
+                    + baseline.get("load") + ", not " + result.get("model") + " and " + result.get("load"));
+            return regressions;
+        }
+        compare("total", (Map<String, Object>) baseline.get("total"), (Map<String, Object>) result.get("total"),
+                regressions);
+        Map<String, Object> expected = (Map<String, Object>) baseline.get("operations");
+        Map<String, Object> actual = (Map<String, Object>) result.get("operations");
+        for (Map.Entry<String, Object> operation : expected.entrySet()) {
+            Map<String, Object> measured = (Map<String, Object>) actual.get(operation.getKey());
+            if (measured == null) {
+                regressions.add(operation.getKey() + ": missing from the result");
+            } else {
+                compare(operation.getKey(), (Map<String, Object>) operation.getValue(), measured, regressions);
+            }
+        }
+        return regressions;
+    }
+
+    private void compare(String name, Map<String, Object> baseline, Map<String, Object> result,
+            List<String> regressions) {
+        double minThroughput = number(baseline, "throughput") * (1 - tolerance);
+        if (number(result, "throughput") < minThroughput) {
+            regressions.add(String.format("%s: throughput %.1f/s below %.1f/s", name, number(result, "throughput"),
+                    minThroughput));
+        }
+        latency(name, "p50Millis", tolerance, baseline, result, regressions);
+        latency(name, "p99Millis", tolerance, baseline, result, regressions);
+        latency(name, "p999Millis", tailTolerance, baseline, result, regressions);
+
+        double maxErrorRate = errorRate(baseline) + MAX_ADDED_ERROR_RATE;
+        if (errorRate(result) > maxErrorRate) {
+            regressions.add(String.format("%s: error rate %.4f above %.4f", name, errorRate(result), maxErrorRate));
+        }
+    }
+
+    private void latency(String name, String metric, double allowed, Map<String, Object> baseline,
+            Map<String, Object> result, List<String> regressions) {
+        double limit = number(baseline, metric) * (1 + allowed) + slackMillis;
+        if (number(result, metric) > limit) {
+            regressions.add(String.format("%s: %s %.3f ms above %.3f ms", name, metric, number(result, metric), limit));
+        }
+    }
+
+    private static double errorRate(Map<String, Object> summary) {
+        double count = number(summary, "count");
+        return count == 0 ? 0 : number(summary, "errors") / count;
+    }
+
+    private static double number(Map<String, Object> map, String key) {
+        return ((Number) map.get(key)).doubleValue();
+    }
+}
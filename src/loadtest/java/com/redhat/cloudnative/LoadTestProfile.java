@@ -0,0 +1,26 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test profile for load runs: H2 in PostgreSQL compatibility mode, production
+ * cache timings, and no per-request logging.
+ */
+public class LoadTestProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        Map<String, String> overrides = new HashMap<>();
+        overrides.put("quarkus.datasource.jdbc.url",
+                "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+        overrides.put("quarkus.hibernate-orm.log.sql", "false");
+        overrides.put("quarkus.http.access-log.enabled", "false");
+        overrides.put("quarkus.log.category.\"com.redhat.cloudnative\".level", "INFO");
+        overrides.put("inventory.cache.soft-ttl", "60s");
+        overrides.put("inventory.cache.bus.flush-interval", "50ms");
+        return overrides;
+    }
+}
@@ -0,0 +1,26 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Tag;
+
+/**
+ * {@link ExecutionModeBenchmark} with the endpoints on virtual threads.
+ */
+@QuarkusTest
+@TestProfile(VirtualThreadModeBenchmarkTest.VirtualThreadMode.class)
+@Tag("execution-mode")
+public class VirtualThreadModeBenchmarkTest extends ExecutionModeBenchmark {
+
+    @Override
+    String mode() {
+        return "virtual";
+    }
+
+    public static class VirtualThreadMode extends ExecutionModeBenchmark.Profile {
+        @Override
+        boolean virtualThreads() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Tag;
+
+/**
+ * {@link ExecutionModeBenchmark} with the endpoints on the worker pool.
+ */
+@QuarkusTest
+@TestProfile(WorkerModeBenchmarkTest.WorkerMode.class)
+@Tag("execution-mode")
+public class WorkerModeBenchmarkTest extends ExecutionModeBenchmark {
+
+    @Override
+    String mode() {
+        return "worker";
+    }
+
+    public static class WorkerMode extends ExecutionModeBenchmark.Profile {
+        @Override
+        boolean virtualThreads() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.redhat.cloudnative;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO for looking up inventory of many products in one call.
+ */
+@Schema(description = "Product IDs to look up")
+public class BatchLookupRequest {
+
+    @NotEmpty(message = "At least one product ID is required")
+    @Schema(description = "Product IDs", required = true, example = "[1001, 1002, 1003]")
+    private List<@NotNull Long> productIds;
+
+    public BatchLookupRequest() {
+    }
+
+    public BatchLookupRequest(List<Long> productIds) {
+        this.productIds = productIds;
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+
+    public void setProductIds(List<Long> productIds) {
+        this.productIds = productIds;
+    }
+}
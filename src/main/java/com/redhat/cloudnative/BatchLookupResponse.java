@@ -0,0 +1,43 @@
+package com.redhat.cloudnative;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of looking up many products at once.
+ */
+@Schema(description = "Inventory for several products; unknown products map to null and are listed in notFound")
+public class BatchLookupResponse {
+
+    @Schema(description = "Inventory keyed by product ID, in request order; null for unknown products")
+    private Map<Long, Inventory> items;
+
+    @Schema(description = "Requested product IDs that have no inventory")
+    private List<Long> notFound;
+
+    public BatchLookupResponse() {
+    }
+
+    public BatchLookupResponse(Map<Long, Inventory> items, List<Long> notFound) {
+        this.items = items;
+        this.notFound = notFound;
+    }
+
+    public Map<Long, Inventory> getItems() {
+        return items;
+    }
+
+    public void setItems(Map<Long, Inventory> items) {
+        this.items = items;
+    }
+
+    public List<Long> getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(List<Long> notFound) {
+        this.notFound = notFound;
+    }
+}
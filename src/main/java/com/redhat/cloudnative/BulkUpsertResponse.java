@@ -0,0 +1,64 @@
+package com.redhat.cloudnative;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * Summary of a bulk upsert run.
+ */
+@Schema(description = "Result of a bulk upsert")
+public class BulkUpsertResponse {
+
+    @Schema(description = "Rows read from the request body", example = "100000")
+    private long received;
+
+    @Schema(description = "Rows written after collapsing duplicate product IDs within a batch", example = "100000")
+    private long upserted;
+
+    @Schema(description = "Number of committed batches", example = "100")
+    private int batches;
+
+    @Schema(description = "Wall-clock time spent, in milliseconds", example = "2300")
+    private long durationMillis;
+
+    public BulkUpsertResponse() {
+    }
+
+    public BulkUpsertResponse(long received, long upserted, int batches, long durationMillis) {
+        this.received = received;
+        this.upserted = upserted;
+        this.batches = batches;
+        this.durationMillis = durationMillis;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getUpserted() {
+        return upserted;
+    }
+
+    public void setUpserted(long upserted) {
+        this.upserted = upserted;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public void setBatches(int batches) {
+        this.batches = batches;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
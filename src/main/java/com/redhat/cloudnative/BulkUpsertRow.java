@@ -0,0 +1,41 @@
+package com.redhat.cloudnative;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * One row of a bulk upsert body. Both fields are boxed, so a row that leaves
+ * one out is reported rather than read as zero.
+ */
+@Schema(description = "Inventory row of a bulk upsert, keyed on productId")
+public class BulkUpsertRow {
+
+    @Schema(description = "Product ID", required = true, example = "1001")
+    private Long productId;
+
+    @Schema(description = "Quantity to store", required = true, example = "50")
+    private Integer quantity;
+
+    public BulkUpsertRow() {
+    }
+
+    public BulkUpsertRow(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,29 @@
+package com.redhat.cloudnative;
+
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+
+/**
+ * An endpoint already runs as many requests as its bulkhead allows: answer 503
+ * right away instead of queuing for a database connection.
+ */
+@Provider
+public class BulkheadExceptionMapper implements ExceptionMapper<BulkheadException> {
+
+    @Context
+    UriInfo uriInfo;
+
+    @Override
+    public Response toResponse(BulkheadException exception) {
+        return Response.fromResponse(ErrorResponseTemplate.SERVICE_UNAVAILABLE.toResponse(
+                        "Too many concurrent requests, retry later", uriInfo.getRequestUri().getPath()))
+                .header(HttpHeaders.RETRY_AFTER, 1)
+                .build();
+    }
+}
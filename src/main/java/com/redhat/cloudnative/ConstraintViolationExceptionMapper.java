@@ -27,16 +27,6 @@ public class ConstraintViolationExceptionMapper implements ExceptionMapper<Const
                 .map(ConstraintViolation::getMessage)
                 .collect(Collectors.joining(", "));
 
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .status(Response.Status.BAD_REQUEST.getStatusCode())
-                .error("Validation Failed")
-                .message(violations)
-                .path(uriInfo.getRequestUri().getPath())
-                .build();
-
-        return Response.status(Response.Status.BAD_REQUEST)
-                .entity(errorResponse)
-                .type(jakarta.ws.rs.core.MediaType.APPLICATION_JSON)
-                .build();
+        return ErrorResponseTemplate.VALIDATION_FAILED.toResponse(violations, uriInfo.getRequestUri().getPath());
     }
 }
\ No newline at end of file
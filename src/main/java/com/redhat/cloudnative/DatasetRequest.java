@@ -0,0 +1,112 @@
+package com.redhat.cloudnative;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * DTO for generating a synthetic inventory dataset.
+ */
+@Schema(description = "Request to generate synthetic inventory rows over a contiguous product ID range")
+public class DatasetRequest {
+
+    @NotNull(message = "Rows is required")
+    @Min(value = 1, message = "Rows must be at least 1")
+    @Max(value = 100_000_000, message = "Rows cannot exceed 100000000")
+    @Schema(description = "Number of rows (products) to generate", required = true, example = "10000000")
+    private Long rows;
+
+    @Min(value = 1, message = "First product ID must be at least 1")
+    @Schema(description = "First product ID of the range; the range must not hold any inventory yet", example = "10000000")
+    private Long firstProductId = 10_000_000L;
+
+    @DecimalMin(value = "0", message = "Popularity exponent cannot be negative")
+    @DecimalMax(value = "3", message = "Popularity exponent cannot exceed 3")
+    @Schema(description = "Zipf exponent of product popularity; 0 is uniform", example = "0.99")
+    private Double popularityExponent = 0.99;
+
+    @Min(value = 0, message = "Quantity median cannot be negative")
+    @Schema(description = "Median quantity of a product of average popularity", example = "50")
+    private Integer quantityMedian = 50;
+
+    @DecimalMin(value = "0", message = "Quantity spread cannot be negative")
+    @DecimalMax(value = "5", message = "Quantity spread cannot exceed 5")
+    @Schema(description = "Log-normal sigma of quantities around the popularity-scaled median", example = "1.0")
+    private Double quantitySpread = 1.0;
+
+    @DecimalMin(value = "0", message = "Out-of-stock ratio cannot be negative")
+    @DecimalMax(value = "1", message = "Out-of-stock ratio cannot exceed 1")
+    @Schema(description = "Share of products generated with zero quantity", example = "0.05")
+    private Double outOfStockRatio = 0.05;
+
+    @Schema(description = "Random seed; the same request always generates the same rows", example = "42")
+    private Long seed = 42L;
+
+    public DatasetRequest() {
+    }
+
+    public DatasetRequest(Long rows, Long firstProductId) {
+        this.rows = rows;
+        this.firstProductId = firstProductId;
+    }
+
+    public Long getRows() {
+        return rows;
+    }
+
+    public void setRows(Long rows) {
+        this.rows = rows;
+    }
+
+    public Long getFirstProductId() {
+        return firstProductId;
+    }
+
+    public void setFirstProductId(Long firstProductId) {
+        this.firstProductId = firstProductId;
+    }
+
+    public Double getPopularityExponent() {
+        return popularityExponent;
+    }
+
+    public void setPopularityExponent(Double popularityExponent) {
+        this.popularityExponent = popularityExponent;
+    }
+
+    public Integer getQuantityMedian() {
+        return quantityMedian;
+    }
+
+    public void setQuantityMedian(Integer quantityMedian) {
+        this.quantityMedian = quantityMedian;
+    }
+
+    public Double getQuantitySpread() {
+        return quantitySpread;
+    }
+
+    public void setQuantitySpread(Double quantitySpread) {
+        this.quantitySpread = quantitySpread;
+    }
+
+    public Double getOutOfStockRatio() {
+        return outOfStockRatio;
+    }
+
+    public void setOutOfStockRatio(Double outOfStockRatio) {
+        this.outOfStockRatio = outOfStockRatio;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+}
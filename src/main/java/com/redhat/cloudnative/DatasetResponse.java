@@ -0,0 +1,76 @@
+package com.redhat.cloudnative;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * Summary of a synthetic dataset run.
+ */
+@Schema(description = "Result of generating or deleting a synthetic dataset")
+public class DatasetResponse {
+
+    @Schema(description = "Rows written or deleted", example = "10000000")
+    private long rows;
+
+    @Schema(description = "First product ID of the range", example = "10000000")
+    private long firstProductId;
+
+    @Schema(description = "Last product ID of the range", example = "19999999")
+    private long lastProductId;
+
+    @Schema(description = "Number of committed batches", example = "1000")
+    private int batches;
+
+    @Schema(description = "Wall-clock time spent, in milliseconds", example = "95000")
+    private long durationMillis;
+
+    public DatasetResponse() {
+    }
+
+    public DatasetResponse(long rows, long firstProductId, long lastProductId, int batches, long durationMillis) {
+        this.rows = rows;
+        this.firstProductId = firstProductId;
+        this.lastProductId = lastProductId;
+        this.batches = batches;
+        this.durationMillis = durationMillis;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getFirstProductId() {
+        return firstProductId;
+    }
+
+    public void setFirstProductId(long firstProductId) {
+        this.firstProductId = firstProductId;
+    }
+
+    public long getLastProductId() {
+        return lastProductId;
+    }
+
+    public void setLastProductId(long lastProductId) {
+        this.lastProductId = lastProductId;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public void setBatches(int batches) {
+        this.batches = batches;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
@@ -0,0 +1,98 @@
+package com.redhat.cloudnative;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The JSON representation of one inventory item, encoded once and kept next to
+ * the item in the caches.
+ *
+ * A cache hit returns this instead of the {@link Inventory}, so the item is not
+ * run through Jackson again: {@link EncodedInventoryWriter} writes the bytes
+ * as they are, and the validators are ready for {@link InventoryETagFilter}.
+ * The gzip form is only built the first time a client accepts it.
+ */
+public final class EncodedInventory {
+
+    // IMF-fixdate (RFC 9110); RFC_1123_DATE_TIME would drop the leading zero of the day
+    private static final DateTimeFormatter HTTP_DATE =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.ENGLISH);
+
+    private final byte[] json;
+    private final String etag;
+    private final Instant lastModified;
+    private final String lastModifiedHeader;
+    private volatile byte[] gzip;
+
+    private EncodedInventory(byte[] json, String etag, Instant lastModified) {
+        this.json = json;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.lastModifiedHeader = lastModified == null
+                ? null
+                : HTTP_DATE.format(lastModified.atOffset(ZoneOffset.UTC));
+    }
+
+    /**
+     * Encode the item with the same mapper the REST layer uses, so the bytes are
+     * exactly what serializing the entity would have produced.
+     */
+    public static EncodedInventory encode(Inventory inventory, ObjectMapper objectMapper) {
+        try {
+            return new EncodedInventory(objectMapper.writeValueAsBytes(inventory), InventoryETag.of(inventory),
+                    inventory.updatedAt);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode inventory item " + inventory.id, e);
+        }
+    }
+
+    public byte[] json() {
+        return json;
+    }
+
+    /**
+     * The JSON gzip-compressed, built on first use. Concurrent first uses may
+     * each compress once; they produce the same bytes.
+     */
+    public byte[] gzip() {
+        byte[] compressed = gzip;
+        if (compressed == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+            try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+                zip.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            compressed = out.toByteArray();
+            gzip = compressed;
+        }
+        return compressed;
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    /**
+     * @return the item's updatedAt, or {@code null} if it has none
+     */
+    public Instant lastModified() {
+        return lastModified;
+    }
+
+    /**
+     * {@link #lastModified()} as an HTTP date.
+     */
+    public String lastModifiedHeader() {
+        return lastModifiedHeader;
+    }
+}
@@ -0,0 +1,81 @@
+package com.redhat.cloudnative;
+
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveResourceInfo;
+import org.jboss.resteasy.reactive.server.spi.ServerHttpResponse;
+import org.jboss.resteasy.reactive.server.spi.ServerMessageBodyWriter;
+import org.jboss.resteasy.reactive.server.spi.ServerRequestContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Writes an {@link EncodedInventory} straight into the HTTP response, gzipped
+ * when the client accepts it and the body is at least
+ * {@code inventory.cache.gzip-min-bytes} long. {@link InventoryETagFilter}
+ * makes the same choice to pick the ETag and sends {@code Vary}.
+ */
+@Provider
+@Produces(MediaType.APPLICATION_JSON)
+public class EncodedInventoryWriter implements ServerMessageBodyWriter<EncodedInventory> {
+
+    // Zero disables gzip
+    @ConfigProperty(name = "inventory.cache.gzip-min-bytes", defaultValue = "1024")
+    int gzipMinBytes;
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, ResteasyReactiveResourceInfo target, MediaType mediaType) {
+        return EncodedInventory.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return EncodedInventory.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void writeResponse(EncodedInventory encoded, Type genericType, ServerRequestContext context) {
+        ServerHttpResponse response = context.serverResponse();
+        if (gzips(encoded, gzipMinBytes, context.getRequestHeaders().getHeaderString(HttpHeaders.ACCEPT_ENCODING))) {
+            response.setResponseHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.end(encoded.gzip());
+            return;
+        }
+        response.end(encoded.json());
+    }
+
+    /**
+     * Whether the body goes out gzipped for a request with this Accept-Encoding.
+     */
+    static boolean gzips(EncodedInventory encoded, int gzipMinBytes, String acceptEncoding) {
+        return gzipMinBytes > 0 && encoded.json().length >= gzipMinBytes && acceptsGzip(acceptEncoding);
+    }
+
+    @Override
+    public void writeTo(EncodedInventory encoded, Class<?> type, Type genericType, Annotation[] annotations,
+            MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+            throws IOException {
+        entityStream.write(encoded.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,167 @@
+package com.redhat.cloudnative;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Pre-serialized JSON error bodies in the {@link ErrorResponse} shape.
+ *
+ * Error responses differ only in message and path, so the constant parts are
+ * encoded once and each response is written straight into one exactly-sized
+ * byte array, without building an {@link ErrorResponse} or going through
+ * Jackson. The timestamp is rendered once per second and shared.
+ */
+public final class ErrorResponseTemplate {
+
+    public static final ErrorResponseTemplate NOT_FOUND = new ErrorResponseTemplate(Response.Status.NOT_FOUND, "Not Found");
+    public static final ErrorResponseTemplate BAD_REQUEST = new ErrorResponseTemplate(Response.Status.BAD_REQUEST, "Bad Request");
+    public static final ErrorResponseTemplate VALIDATION_FAILED = new ErrorResponseTemplate(Response.Status.BAD_REQUEST, "Validation Failed");
+    public static final ErrorResponseTemplate CONFLICT = new ErrorResponseTemplate(Response.Status.CONFLICT, "Conflict");
+    public static final ErrorResponseTemplate PRECONDITION_FAILED = new ErrorResponseTemplate(Response.Status.PRECONDITION_FAILED, "Precondition Failed");
+    public static final ErrorResponseTemplate SERVICE_UNAVAILABLE = new ErrorResponseTemplate(Response.Status.SERVICE_UNAVAILABLE, "Service Unavailable");
+
+    private static final byte[] PATH = ascii("\",\"path\":\"");
+    private static final byte[] TIMESTAMP = ascii("\",\"timestamp\":\"");
+    private static final byte[] END = ascii("\"}");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private static volatile Second second = new Second(0);
+
+    private final Response.Status status;
+    private final byte[] head;
+
+    private ErrorResponseTemplate(Response.Status status, String error) {
+        this.status = status;
+        this.head = ascii("{\"status\":" + status.getStatusCode() + ",\"error\":\"" + error + "\",\"message\":\"");
+    }
+
+    public Response toResponse(String message, String path) {
+        return Response.status(status)
+                .entity(render(message, path))
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .build();
+    }
+
+    /**
+     * The JSON body for one error.
+     */
+    public byte[] render(String message, String path) {
+        byte[] timestamp = timestamp();
+        byte[] body = new byte[head.length + jsonLength(message) + PATH.length + jsonLength(path) + TIMESTAMP.length
+                + timestamp.length + END.length];
+        int at = copy(head, body, 0);
+        at = writeJson(message, body, at);
+        at = copy(PATH, body, at);
+        at = writeJson(path, body, at);
+        at = copy(TIMESTAMP, body, at);
+        at = copy(timestamp, body, at);
+        copy(END, body, at);
+        return body;
+    }
+
+    private static byte[] timestamp() {
+        long now = System.currentTimeMillis() / 1000;
+        Second current = second;
+        if (current.epochSecond != now) {
+            current = new Second(now);
+            second = current;
+        }
+        return current.text;
+    }
+
+    /**
+     * Encoded length of {@code value} as the contents of a JSON string.
+     */
+    private static int jsonLength(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                length += 2;
+            } else if (c < 0x20) {
+                length += 6;
+            } else if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Write {@code value} as the contents of a JSON string in UTF-8; mirrors {@link #jsonLength}.
+     */
+    private static int writeJson(String value, byte[] out, int at) {
+        if (value == null) {
+            return at;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out[at++] = '\\';
+                out[at++] = (byte) c;
+            } else if (c < 0x20) {
+                out[at++] = '\\';
+                out[at++] = 'u';
+                out[at++] = '0';
+                out[at++] = '0';
+                out[at++] = HEX[c >> 4];
+                out[at++] = HEX[c & 0xF];
+            } else if (c < 0x80) {
+                out[at++] = (byte) c;
+            } else if (c < 0x800) {
+                out[at++] = (byte) (0xC0 | (c >> 6));
+                out[at++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out[at++] = (byte) (0xF0 | (codePoint >> 18));
+                out[at++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                out[at++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                out[at++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate: not encodable as UTF-8
+                out[at++] = '?';
+            } else {
+                out[at++] = (byte) (0xE0 | (c >> 12));
+                out[at++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[at++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return at;
+    }
+
+    private static int copy(byte[] source, byte[] target, int at) {
+        System.arraycopy(source, 0, target, at, source.length);
+        return at + source.length;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class Second {
+        private final long epochSecond;
+        private final byte[] text;
+
+        private Second(long epochSecond) {
+            this.epochSecond = epochSecond;
+            this.text = ascii(Instant.ofEpochSecond(epochSecond).toString());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.redhat.cloudnative;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * DTO for placing a time-limited stock hold.
+ */
+@Schema(description = "Request to hold stock for a limited time")
+public class HoldRequest {
+
+    @NotNull(message = "Product ID is required")
+    @Schema(description = "Product ID", required = true, example = "1002")
+    private Long productId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Schema(description = "Quantity to hold", required = true, example = "2")
+    private Integer quantity;
+
+    @Min(value = 1, message = "TTL must be at least 1 second")
+    @Max(value = 86400, message = "TTL cannot exceed one day")
+    @Schema(description = "Hold duration in seconds (defaults to inventory.holds.default-ttl)", example = "900")
+    private Integer ttlSeconds;
+
+    public HoldRequest() {
+    }
+
+    public HoldRequest(Long productId, Integer quantity, Integer ttlSeconds) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Integer getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Integer ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
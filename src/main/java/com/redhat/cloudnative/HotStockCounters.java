@@ -0,0 +1,607 @@
+package com.redhat.cloudnative;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory stock counters for the few items that get most of the adjustments
+ * (opt-in with {@code inventory.hot.enabled}).
+ *
+ * An item whose v1 adjustments, by item or by product ID, exceed
+ * {@code promote-rate} per second is promoted: up to {@code lease-size} units
+ * are moved out of its row into a {@link StripedBudget} and recorded as this
+ * pod's {@link InventoryLease}, in one transaction. Adjustments of the item are
+ * then applied to the budget without touching the database; only when the
+ * budget runs dry is another lease taken from the row. Every
+ * {@code flush-interval} budget beyond one lease is handed back to the row and
+ * the lease is updated with what is left. Items falling below
+ * {@code demote-rate}, items about to be set or deleted, and all items at
+ * shutdown are demoted: the whole budget goes back to the row and the lease is
+ * deleted. A return that fails is retried on every tick and before a set or
+ * delete of the item, and the item is not promoted again until it succeeds.
+ *
+ * Stock never goes negative: neither the stripes nor the row guard allow it,
+ * and leased stock has already left the row. Leases only take stock that is not
+ * under an active hold, so sales from the budget never touch held units. A pod
+ * that dies loses what it held; its lease stops being flushed and after
+ * {@code lease-timeout} another pod deletes it and counts its amount as
+ * {@code inventory.hot.stranded}. That amount is an upper bound of the units
+ * that are missing from the row: they are written off rather than returned,
+ * since some of them may have been sold after the last flush. A crash can
+ * therefore understate stock by up to one lease per hot item, but never
+ * oversell it.
+ *
+ * Reads of a hot item on the pod holding it include its budget; elsewhere they
+ * show the row, without the leased units. The ledger follows the row as well:
+ * leases and returns are {@code LEASE} movements, so a sale from the budget is
+ * accounted for when the units it came from are not returned.
+ */
+@ApplicationScoped
+public class HotStockCounters {
+
+    private static final Logger LOG = Logger.getLogger(HotStockCounters.class);
+
+    /**
+     * A promoted item. The budget and lease are changed under the item's monitor,
+     * except for the lock-free takes and adds of the fast path.
+     */
+    private static final class HotItem {
+        private final Long itemId;
+        private final StripedBudget budget;
+        // The row after the last lease, return or flush; null while being promoted
+        private volatile Inventory row;
+        // Row quantity plus budget at the last promotion or flush
+        private long flushedTotal;
+        private boolean closed;
+        // Budget of a demote whose return to the row failed, still to be returned
+        private long unreturned;
+
+        private HotItem(Long itemId, int stripes) {
+            this.itemId = itemId;
+            this.budget = new StripedBudget(stripes);
+        }
+    }
+
+    @Inject
+    InventoryCacheCoordinator cacheCoordinator;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "inventory.hot.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "inventory.hot.stripes", defaultValue = "8")
+    int stripes;
+
+    @ConfigProperty(name = "inventory.hot.lease-size", defaultValue = "100")
+    int leaseSize;
+
+    @ConfigProperty(name = "inventory.hot.promote-rate", defaultValue = "200")
+    double promoteRate;
+
+    @ConfigProperty(name = "inventory.hot.demote-rate", defaultValue = "20")
+    double demoteRate;
+
+    @ConfigProperty(name = "inventory.hot.max-items", defaultValue = "16")
+    int maxItems;
+
+    @ConfigProperty(name = "inventory.hot.flush-interval", defaultValue = "1s")
+    Duration flushInterval;
+
+    @ConfigProperty(name = "inventory.hot.lease-timeout", defaultValue = "30s")
+    Duration leaseTimeout;
+
+    private final String owner = UUID.randomUUID().toString();
+    private final Map<Long, HotItem> hot = new ConcurrentHashMap<>();
+    // Demoted items whose budget is still to be returned; retried on every tick
+    private final Map<Long, HotItem> unreturned = new ConcurrentHashMap<>();
+    private final AtomicReference<Map<Long, LongAdder>> writes = new AtomicReference<>(new ConcurrentHashMap<>());
+    private long windowStart = System.nanoTime();
+    private ScheduledExecutorService ticker;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        reclaimAbandoned();
+        meterRegistry.gaugeMapSize("inventory.hot.items", Tags.empty(), hot);
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-hot-stock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = flushInterval.toMillis();
+        ticker.scheduleWithFixedDelay(this::tickQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        LOG.infof("Hot-item counters enabled as owner %s: %d stripes, leases of %d units, flushed every %s",
+                owner, stripes, leaseSize, flushInterval);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            releaseAll();
+        }
+    }
+
+    /**
+     * Apply a delta to a hot item in memory, and count the write towards promotion.
+     *
+     * @return the item after the adjustment, or {@code null} if the item is not hot
+     *         on this pod and the caller has to write the row itself
+     * @throws InsufficientStockException if neither the budget nor the row can cover the delta,
+     *                                     or the stock would overflow
+     */
+    public Inventory tryAdjust(Long itemId, int delta) {
+        if (!enabled) {
+            return null;
+        }
+        writes.get().computeIfAbsent(itemId, id -> new LongAdder()).increment();
+        HotItem item = hot.get(itemId);
+        if (item == null || item.row == null) {
+            return null;
+        }
+        if (delta > 0 && item.row.quantity + item.budget.sum() + delta > Integer.MAX_VALUE) {
+            // The flush would not fit the sum into the row
+            throw InsufficientStockException.overflow(itemId, delta);
+        }
+        int stripe = item.budget.stripe();
+        boolean applied = delta >= 0
+                ? item.budget.tryAdd(stripe, delta)
+                : item.budget.tryTake(stripe, -delta) || refill(item, stripe, -delta);
+        if (!applied) {
+            return null;
+        }
+        Inventory adjusted = snapshot(item);
+        // Only this pod shows the budget, so reads, ETags and streams here must not wait for the flush
+        cacheCoordinator.evictHere(adjusted);
+        return adjusted;
+    }
+
+    /**
+     * The item as this pod sees it: for a hot item the row plus the budget held here.
+     */
+    public Inventory overlay(Inventory inventory) {
+        HotItem item = inventory == null ? null : hot.get(inventory.id);
+        if (item == null || item.row == null) {
+            return inventory;
+        }
+        int held = (int) item.budget.sum();
+        Inventory overlaid = copy(inventory);
+        overlaid.quantity += held;
+        overlaid.budget = held;
+        if (overlaid.availableToSell != null) {
+            overlaid.availableToSell += held;
+        }
+        return overlaid;
+    }
+
+    public boolean isHot(Long itemId) {
+        return hot.containsKey(itemId);
+    }
+
+    /**
+     * Lease stock of an item to this pod and serve its adjustments from memory.
+     *
+     * @return {@code false} if the mode is disabled, the item is already hot or does not exist
+     */
+    public boolean promote(Long itemId) {
+        if (!enabled || unreturned.containsKey(itemId)) {
+            return false;
+        }
+        HotItem item = new HotItem(itemId, stripes);
+        if (hot.putIfAbsent(itemId, item) != null) {
+            return false;
+        }
+        synchronized (item) {
+            int[] leased = new int[1];
+            Inventory row;
+            try {
+                row = QuarkusTransaction.requiringNew().call(() -> {
+                    Inventory locked = Inventory.findById(itemId, LockModeType.PESSIMISTIC_WRITE);
+                    if (locked == null) {
+                        return null;
+                    }
+                    leased[0] = Math.min(unheld(locked), leaseSize);
+                    locked.quantity -= leased[0];
+                    InventoryLease lease = new InventoryLease();
+                    lease.itemId = itemId;
+                    lease.owner = owner;
+                    lease.amount = leased[0];
+                    lease.flushedAt = Instant.now();
+                    lease.persist();
+                    Inventory.flush();
+                    if (leased[0] > 0) {
+                        InventoryMovement.record(InventoryMovement.of(locked, InventoryMovement.Kind.LEASE, -leased[0]));
+                        InventoryOutboxEvent.enqueue(locked, InventoryOutboxEvent.Type.UPDATED);
+                    }
+                    return copy(locked);
+                });
+            } catch (RuntimeException e) {
+                item.closed = true;
+                hot.remove(itemId, item);
+                throw e;
+            }
+            if (row == null) {
+                item.closed = true;
+                hot.remove(itemId, item);
+                return false;
+            }
+            deposit(item.budget, leased[0]);
+            item.row = row;
+            item.flushedTotal = row.quantity + leased[0];
+            cacheCoordinator.evict(itemId, row.productId);
+            meterRegistry.counter("inventory.hot.promotions").increment();
+            LOG.infof("Promoted inventory %d to a hot item with %d leased units", itemId, leased[0]);
+            return true;
+        }
+    }
+
+    /**
+     * Hand a hot item's budget back to its row and stop counting it in memory.
+     * Writes that set the quantity or delete the item call this first, so
+     * they apply to the whole stock. Does nothing for items that are not hot.
+     *
+     * Returning the budget is a write of its own and bumps the row version, which
+     * the caller's If-Match could not have known about. If the row was still at
+     * {@code expectedVersion} before the return, the version after it is handed
+     * back for the caller's conditional write instead.
+     *
+     * @param expectedVersion the version the caller's write requires, or {@code null}
+     * @return the version the caller's write has to require now
+     */
+    public Long release(Long itemId, Long expectedVersion) {
+        HotItem pending = unreturned.get(itemId);
+        if (pending != null) {
+            // A set or delete must not be followed by units from before it
+            expectedVersion = returnUnreturned(pending, expectedVersion);
+        }
+        HotItem item = hot.get(itemId);
+        return item != null ? demote(item, expectedVersion) : expectedVersion;
+    }
+
+    /**
+     * {@link #release(Long, Long)} every hot item, e.g. before a bulk load or at shutdown.
+     */
+    public void releaseAll() {
+        unreturned.values().forEach(item -> returnUnreturned(item, null));
+        hot.values().forEach(item -> demote(item, null));
+    }
+
+    /**
+     * Reconcile every hot item with its row: budget beyond one lease goes back to
+     * the row, and the lease records what is left.
+     *
+     * @return the number of items whose quantity changed since the last flush
+     */
+    public int flush() {
+        int changed = 0;
+        for (HotItem item : hot.values()) {
+            try {
+                if (flush(item)) {
+                    changed++;
+                }
+            } catch (RuntimeException e) {
+                LOG.warnf(e, "Failed to flush hot inventory %d; retrying on the next flush", item.itemId);
+            }
+        }
+        return changed;
+    }
+
+    private boolean flush(HotItem item) {
+        synchronized (item) {
+            if (item.closed || item.row == null) {
+                return false;
+            }
+            long held = item.budget.sum();
+            int excess = (int) (held > leaseSize ? item.budget.withdraw(held - leaseSize) : 0);
+            int remaining = (int) item.budget.sum();
+            Inventory before = item.row;
+            boolean changed = before.quantity + excess + remaining != item.flushedTotal;
+            Inventory row;
+            try {
+                row = QuarkusTransaction.requiringNew().call(() -> {
+                    Instant now = Instant.now();
+                    InventoryLease.update("amount = ?1, flushedAt = ?2 where itemId = ?3 and owner = ?4",
+                            remaining, now, item.itemId, owner);
+                    if (!changed) {
+                        return before;
+                    }
+                    Inventory locked = Inventory.findById(item.itemId, LockModeType.PESSIMISTIC_WRITE);
+                    if (locked == null) {
+                        return null;
+                    }
+                    // Bumps the version even when only the budget moved, so ETags follow the quantity
+                    locked.quantity += excess;
+                    locked.updatedAt = now;
+                    Inventory.flush();
+                    if (excess > 0) {
+                        InventoryMovement.record(InventoryMovement.of(locked, InventoryMovement.Kind.LEASE, excess));
+                    }
+                    InventoryOutboxEvent.enqueue(locked, InventoryOutboxEvent.Type.UPDATED);
+                    return copy(locked);
+                });
+            } catch (RuntimeException e) {
+                deposit(item.budget, excess);
+                throw e;
+            }
+            if (row == null) {
+                // Deleted by another pod: the budget goes with it
+                item.closed = true;
+                item.budget.close();
+                hot.remove(item.itemId, item);
+                return false;
+            }
+            item.row = row;
+            item.flushedTotal = row.quantity + remaining;
+            if (changed) {
+                cacheCoordinator.evict(item.itemId, row.productId);
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * @return {@code expectedVersion}, or the version after the return if the row was at it before
+     */
+    private Long demote(HotItem item, Long expectedVersion) {
+        synchronized (item) {
+            if (item.closed) {
+                return expectedVersion;
+            }
+            item.closed = true;
+            hot.remove(item.itemId, item);
+            long remaining = item.budget.close();
+            if (item.row == null) {
+                return expectedVersion;
+            }
+            try {
+                return giveBack(item, remaining, expectedVersion);
+            } catch (RuntimeException e) {
+                // This pod still knows the exact amount, so it keeps retrying rather than leaving the lease to time out
+                item.unreturned = remaining;
+                unreturned.put(item.itemId, item);
+                LOG.errorf(e, "Failed to return %d units of hot inventory %d to its row; retrying on the next tick",
+                        remaining, item.itemId);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Retry the return of a failed demote.
+     *
+     * @return like {@link #demote(HotItem, Long)}
+     */
+    private Long returnUnreturned(HotItem item, Long expectedVersion) {
+        synchronized (item) {
+            if (unreturned.get(item.itemId) != item) {
+                return expectedVersion;
+            }
+            Long version = giveBack(item, item.unreturned, expectedVersion);
+            unreturned.remove(item.itemId, item);
+            return version;
+        }
+    }
+
+    /**
+     * Add {@code remaining} units back to the row and delete the lease, in one transaction.
+     * A lease that another pod has meanwhile reclaimed was written off there, so
+     * its units are not returned a second time.
+     */
+    private Long giveBack(HotItem item, long remaining, Long expectedVersion) {
+        Long[] expected = {expectedVersion};
+        boolean[] returned = new boolean[1];
+        QuarkusTransaction.requiringNew().run(() -> {
+            Inventory locked = Inventory.findById(item.itemId, LockModeType.PESSIMISTIC_WRITE);
+            boolean leased = InventoryLease.delete("itemId = ?1 and owner = ?2", item.itemId, owner) > 0;
+            // An empty budget leaves the row, and so its version, untouched
+            if (locked != null && leased && remaining > 0) {
+                boolean current = expectedVersion != null && locked.version == expectedVersion;
+                locked.quantity += (int) remaining;
+                locked.updatedAt = Instant.now();
+                Inventory.flush();
+                if (current) {
+                    expected[0] = locked.version;
+                }
+                InventoryMovement.record(InventoryMovement.of(locked, InventoryMovement.Kind.LEASE,
+                        (int) remaining));
+                InventoryOutboxEvent.enqueue(locked, InventoryOutboxEvent.Type.UPDATED);
+                returned[0] = true;
+            }
+        });
+        cacheCoordinator.evict(item.itemId, item.row.productId);
+        meterRegistry.counter("inventory.hot.demotions").increment();
+        LOG.infof("Demoted hot inventory %d and returned %d units to its row", item.itemId,
+                returned[0] ? remaining : 0);
+        return expected[0];
+    }
+
+    /**
+     * Slow path of a take: pool the stripes and lease more stock until the take
+     * fits or the row runs out.
+     *
+     * @return {@code false} if the item was demoted meanwhile
+     */
+    private boolean refill(HotItem item, int stripe, int amount) {
+        synchronized (item) {
+            if (item.closed) {
+                return false;
+            }
+            while (!item.budget.tryTake(stripe, amount)) {
+                long pooled = item.budget.consolidate(stripe);
+                if (pooled >= amount) {
+                    continue;
+                }
+                int leased = lease(item, (int) (amount - pooled));
+                if (leased == 0) {
+                    throw new InsufficientStockException(item.itemId, -amount);
+                }
+                item.budget.tryAdd(stripe, leased);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Move at least {@code need} units (a whole lease if the row has it) from the
+     * row to this pod's lease.
+     *
+     * @return the units leased, or 0 if the row holds fewer than {@code need}
+     */
+    private int lease(HotItem item, int need) {
+        int[] leased = new int[1];
+        Inventory row = QuarkusTransaction.requiringNew().call(() -> {
+            Inventory locked = Inventory.findById(item.itemId, LockModeType.PESSIMISTIC_WRITE);
+            if (locked == null) {
+                throw new InventoryNotFoundException(item.itemId);
+            }
+            int unheld = unheld(locked);
+            if (unheld < need) {
+                return null;
+            }
+            leased[0] = Math.min(unheld, Math.max(need, leaseSize));
+            locked.quantity -= leased[0];
+            InventoryLease.update("amount = amount + ?1, flushedAt = ?2 where itemId = ?3 and owner = ?4",
+                    leased[0], Instant.now(), item.itemId, owner);
+            Inventory.flush();
+            InventoryMovement.record(InventoryMovement.of(locked, InventoryMovement.Kind.LEASE, -leased[0]));
+            InventoryOutboxEvent.enqueue(locked, InventoryOutboxEvent.Type.UPDATED);
+            return copy(locked);
+        });
+        if (row != null) {
+            item.row = row;
+            meterRegistry.counter("inventory.hot.leases").increment();
+        }
+        return leased[0];
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the ticker
+            LOG.error("Hot-item counter tick failed", e);
+        }
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        double seconds = Math.max(0.001, (now - windowStart) / 1e9);
+        windowStart = now;
+        Map<Long, LongAdder> window = writes.getAndSet(new ConcurrentHashMap<>());
+        for (HotItem item : hot.values()) {
+            LongAdder count = window.get(item.itemId);
+            if ((count == null ? 0 : count.sum()) / seconds < demoteRate) {
+                try {
+                    demote(item, null);
+                } catch (RuntimeException e) {
+                    // Already logged; retried below from the next tick on
+                }
+            }
+        }
+        for (HotItem item : unreturned.values()) {
+            try {
+                returnUnreturned(item, null);
+            } catch (RuntimeException e) {
+                LOG.warnf(e, "Failed to return the budget of hot inventory %d; retrying on the next tick", item.itemId);
+            }
+        }
+        flush();
+        window.entrySet().stream()
+                .filter(entry -> !hot.containsKey(entry.getKey()) && !unreturned.containsKey(entry.getKey())
+                        && entry.getValue().sum() / seconds >= promoteRate)
+                .sorted(Comparator.comparingLong((Map.Entry<Long, LongAdder> entry) -> entry.getValue().sum()).reversed())
+                .limit(Math.max(0, maxItems - hot.size()))
+                .forEach(entry -> {
+                    try {
+                        promote(entry.getKey());
+                    } catch (RuntimeException e) {
+                        LOG.warnf(e, "Failed to promote inventory %d", entry.getKey());
+                    }
+                });
+        reclaimAbandoned();
+    }
+
+    /**
+     * Delete the leases of pods that stopped flushing them, writing off what they held.
+     *
+     * @return the number of leases reclaimed
+     */
+    int reclaimAbandoned() {
+        Instant cutoff = Instant.now().minus(leaseTimeout);
+        return QuarkusTransaction.requiringNew().call(() -> {
+            int reclaimed = 0;
+            for (InventoryLease lease : InventoryLease.abandoned(owner, cutoff)) {
+                // Another pod may reclaim the same lease; only the one that deletes it reports it
+                if (InventoryLease.delete("itemId = ?1 and owner = ?2 and flushedAt < ?3",
+                        lease.itemId, lease.owner, cutoff) > 0) {
+                    reclaimed++;
+                    meterRegistry.counter("inventory.hot.stranded").increment(lease.amount);
+                    LOG.warnf("Reclaimed abandoned lease of pod %s on inventory %d: up to %d units are missing"
+                            + " from the row; recount the item to restore them", lease.owner, lease.itemId, lease.amount);
+                }
+            }
+            return reclaimed;
+        });
+    }
+
+    /**
+     * Stock of a locked row that is not under an active hold, the most a lease may take.
+     */
+    private static int unheld(Inventory locked) {
+        return Math.max(0, locked.quantity - InventoryHold.activeQuantity(locked.productId, Instant.now()));
+    }
+
+    private Inventory snapshot(HotItem item) {
+        Inventory inventory = copy(item.row);
+        inventory.budget = (int) item.budget.sum();
+        inventory.quantity += inventory.budget;
+        return inventory;
+    }
+
+    /**
+     * Spread {@code amount} evenly over the stripes.
+     */
+    private static void deposit(StripedBudget budget, long amount) {
+        long share = amount / budget.stripes();
+        for (int i = 0; i < budget.stripes(); i++) {
+            budget.tryAdd(i, i == 0 ? share + amount % budget.stripes() : share);
+        }
+    }
+
+    private static Inventory copy(Inventory source) {
+        Inventory inventory = new Inventory();
+        inventory.id = source.id;
+        inventory.productId = source.productId;
+        inventory.quantity = source.quantity;
+        inventory.createdAt = source.createdAt;
+        inventory.updatedAt = source.updatedAt;
+        inventory.version = source.version;
+        inventory.availableToSell = source.availableToSell;
+        return inventory;
+    }
+}
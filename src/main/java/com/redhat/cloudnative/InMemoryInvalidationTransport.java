@@ -0,0 +1,40 @@
+package com.redhat.cloudnative;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Stand-in for LISTEN/NOTIFY on databases without it (H2 in dev and tests).
+ * Every started transport in the JVM receives every message, synchronously on
+ * the sending thread.
+ */
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+
+    private static final List<Consumer<String>> RECEIVERS = new CopyOnWriteArrayList<>();
+
+    private Consumer<String> receiver;
+
+    @Override
+    public void start(Consumer<String> receiver, Runnable onGap) {
+        this.receiver = receiver;
+        RECEIVERS.add(receiver);
+    }
+
+    @Override
+    public void send(String payload) {
+        for (Consumer<String> target : RECEIVERS) {
+            target.accept(payload);
+        }
+    }
+
+    @Override
+    public void stop() {
+        RECEIVERS.remove(receiver);
+    }
+
+    @Override
+    public String toString() {
+        return "in-memory channel";
+    }
+}
@@ -0,0 +1,45 @@
+package com.redhat.cloudnative;
+
+/**
+ * Raised when an adjustment would take stock below zero, or above what the
+ * quantity column can hold; mapped to 409.
+ * Carries no stack trace, as it reports a business conflict rather than a bug.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long key;
+    private final int delta;
+
+    public InsufficientStockException(Long key, int delta) {
+        this("Insufficient stock for inventory " + key + " to apply adjustment of " + delta, key, delta);
+    }
+
+    public InsufficientStockException(String message, Long key, int delta) {
+        super(message, null, false, false);
+        this.key = key;
+        this.delta = delta;
+    }
+
+    /**
+     * The adjustment would take the quantity past {@link Integer#MAX_VALUE}.
+     */
+    public static InsufficientStockException overflow(Long key, int delta) {
+        return new InsufficientStockException("Adjustment of " + delta + " would take inventory " + key
+                + " above the maximum quantity of " + Integer.MAX_VALUE, key, delta);
+    }
+
+    /**
+     * The rejection of {@code delta} on an existing item: stock would go negative or overflow.
+     */
+    public static InsufficientStockException rejected(Long key, int delta) {
+        return delta > 0 ? overflow(key, delta) : new InsufficientStockException(key, delta);
+    }
+
+    public Long getKey() {
+        return key;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+}
@@ -0,0 +1,19 @@
+package com.redhat.cloudnative;
+
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+@Provider
+public class InsufficientStockExceptionMapper implements ExceptionMapper<InsufficientStockException> {
+
+    @Context
+    UriInfo uriInfo;
+
+    @Override
+    public Response toResponse(InsufficientStockException exception) {
+        return ErrorResponseTemplate.CONFLICT.toResponse(exception.getMessage(), uriInfo.getRequestUri().getPath());
+    }
+}
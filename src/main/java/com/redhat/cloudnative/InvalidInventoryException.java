@@ -1,8 +1,12 @@
 package com.redhat.cloudnative;
 
+/**
+ * Raised for requests that fail business validation; mapped to 400.
+ * Carries no stack trace, as it reports bad input rather than a bug.
+ */
 public class InvalidInventoryException extends RuntimeException {
 
     public InvalidInventoryException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
-}
\ No newline at end of file
+}
@@ -14,16 +14,6 @@ public class InvalidInventoryExceptionMapper implements ExceptionMapper<InvalidI
 
     @Override
     public Response toResponse(InvalidInventoryException exception) {
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .status(Response.Status.BAD_REQUEST.getStatusCode())
-                .error("Bad Request")
-                .message(exception.getMessage())
-                .path(uriInfo.getRequestUri().getPath())
-                .build();
-
-        return Response.status(Response.Status.BAD_REQUEST)
-                .entity(errorResponse)
-                .type(jakarta.ws.rs.core.MediaType.APPLICATION_JSON)
-                .build();
+        return ErrorResponseTemplate.BAD_REQUEST.toResponse(exception.getMessage(), uriInfo.getRequestUri().getPath());
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.redhat.cloudnative;
+
+import java.util.function.Consumer;
+
+/**
+ * Channel that carries encoded cache invalidation messages between replicas.
+ *
+ * @see InventoryInvalidationBus
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Start delivering messages to {@code receiver}.
+     *
+     * @param onGap called when messages may have been missed, e.g. after a reconnect
+     */
+    void start(Consumer<String> receiver, Runnable onGap);
+
+    /**
+     * Send one message to every replica, including this one.
+     */
+    void send(String payload);
+
+    void stop();
+}
@@ -2,16 +2,28 @@ package com.redhat.cloudnative;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import jakarta.persistence.Column;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.panache.common.Sort;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 @Entity
 @Table(name = "INVENTORY")
@@ -36,6 +48,31 @@ public class Inventory extends PanacheEntity {
     @Schema(description = "Last update timestamp", readOnly = true)
     public Instant updatedAt;
 
+    /**
+     * Incremented by every write, including the native UPDATE statements;
+     * served as the item's ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Row version, incremented by every write; also sent as the ETag", readOnly = true, example = "3")
+    public long version;
+
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Quantity minus active stock holds (only on read endpoints)", readOnly = true, example = "48")
+    public Integer availableToSell;
+
+    /**
+     * Units of a hot item's in-memory budget included in {@link #quantity} on
+     * this pod, see {@link HotStockCounters#overlay(Inventory)}. Not a column and
+     * not serialized, but part of the ETag.
+     */
+    @Transient
+    @JsonIgnore
+    public int budget;
+
     @PrePersist
     protected void onCreate() {
         createdAt = Instant.now();
@@ -49,7 +86,7 @@ public class Inventory extends PanacheEntity {
 
     @Override
     public String toString() {
-        return "Inventory [Id='" + id + '\'' + ", productId=" + productId + ", quantity=" + quantity +
+        return "Inventory [Id='" + id + '\'' + ", productId=" + productId + ", quantity=" + quantity + ", version=" + version +
                 ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + ']';
     }
 
@@ -68,10 +105,55 @@ public class Inventory extends PanacheEntity {
         return find("productId", productId).firstResult();
     }
 
+    /**
+     * ID of the product's inventory item, or {@code null}; reads the product ID index only
+     */
+    public static Long findIdByProductId(Long productId) {
+        return getEntityManager()
+                .createQuery("select i.id from Inventory i where i.productId = ?1", Long.class)
+                .setParameter(1, productId)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
     /**
      * Check if inventory exists for a product
      */
     public static boolean existsByProductId(Long productId) {
         return count("productId", productId) > 0;
     }
+
+    /**
+     * Keyset page: up to {@code limit} rows strictly after {@code after} in
+     * {@code sortKey} order. Seeks on the index instead of skipping an OFFSET,
+     * so the cost is the same for the first and the millionth page.
+     */
+    public static List<Inventory> findAfter(InventoryCursor.SortKey sortKey, Long after, int limit) {
+        Sort sort = Sort.ascending(sortKey.field());
+        PanacheQuery<Inventory> query = after == null
+                ? findAll(sort)
+                : find(sortKey.field() + " > ?1", sort, after);
+        return query.range(0, limit - 1).list();
+    }
+
+    /**
+     * Offset page with a stable order: up to {@code limit} rows starting at {@code offset}.
+     */
+    public static List<Inventory> findRange(InventoryCursor.SortKey sortKey, int offset, int limit) {
+        return Inventory.<Inventory>findAll(Sort.ascending(sortKey.field()))
+                .range(offset, offset + limit - 1)
+                .list();
+    }
+
+    /**
+     * Lock the rows of the given products for update, in ascending product ID order.
+     * Every caller acquiring locks in the same order is what keeps concurrent
+     * multi-row reservations from deadlocking each other.
+     */
+    public static List<Inventory> lockByProductIds(Collection<Long> productIds) {
+        return Inventory.<Inventory>find("productId in ?1", Sort.ascending("productId"), productIds)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .list();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.redhat.cloudnative;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-get of inventory by product ID.
+ *
+ * Hits are served from {@code inventory-product-cache} (the same entries the
+ * single-product GET uses); products known to be missing are skipped, and all
+ * other misses are loaded with one {@code WHERE product_id IN (...)} query and
+ * written back to the cache.
+ */
+@ApplicationScoped
+public class InventoryBatchService {
+
+    private static final Logger LOG = Logger.getLogger(InventoryBatchService.class);
+
+    @Inject
+    InventoryCacheLoader cacheLoader;
+
+    @Inject
+    StockHoldService holdService;
+
+    @ConfigProperty(name = "inventory.batch.max-ids", defaultValue = "500")
+    int maxIds;
+
+    public BatchLookupResponse lookupByProductIds(Collection<Long> requested) {
+        Set<Long> productIds = new LinkedHashSet<>(requested);
+        if (productIds.size() > maxIds) {
+            throw new InvalidInventoryException("At most " + maxIds + " product IDs can be looked up at once");
+        }
+        Map<Long, Inventory> found = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long productId : productIds) {
+            Inventory cached = cacheLoader.peekByProductId(productId);
+            if (cached != null) {
+                found.put(productId, cached);
+            } else if (!cacheLoader.isKnownMissing(productId)) {
+                misses.add(productId);
+            }
+        }
+        int hits = found.size();
+
+        if (!misses.isEmpty()) {
+            List<Inventory> loaded = holdService.applyAvailability(Inventory.<Inventory>list("productId in ?1", misses));
+            for (Inventory inventory : loaded) {
+                found.put(inventory.productId, inventory);
+                cacheLoader.putByProductId(inventory);
+            }
+        }
+        LOG.debugf("Batch lookup of %d products: %d cache hits, %d queried, %d loaded", productIds.size(), hits,
+                misses.size(), found.size() - hits);
+
+        // Keep request order and mark unknown products explicitly
+        Map<Long, Inventory> items = new LinkedHashMap<>();
+        List<Long> notFound = new ArrayList<>();
+        for (Long productId : productIds) {
+            Inventory inventory = found.get(productId);
+            items.put(productId, inventory);
+            if (inventory == null) {
+                notFound.add(productId);
+            }
+        }
+        return new BatchLookupResponse(items, notFound);
+    }
+
+    /**
+     * Product IDs from repeated and/or comma-separated query values.
+     *
+     * @throws InvalidInventoryException if a value is not a number or there is none
+     */
+    static List<Long> parseProductIds(List<String> values) {
+        List<Long> ids = new ArrayList<>();
+        for (String value : values) {
+            for (String part : value.split(",")) {
+                if (!part.isBlank()) {
+                    try {
+                        ids.add(Long.valueOf(part.trim()));
+                    } catch (NumberFormatException e) {
+                        throw new InvalidInventoryException("Invalid product ID: " + part);
+                    }
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new InvalidInventoryException("At least one product ID is required");
+        }
+        return ids;
+    }
+}
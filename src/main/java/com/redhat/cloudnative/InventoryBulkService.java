@@ -0,0 +1,214 @@
+package com.redhat.cloudnative;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.query.NativeQuery;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bulk upsert of inventory rows keyed on product ID, for catalog syncs.
+ *
+ * The body is parsed incrementally (a JSON array or NDJSON), rows are grouped
+ * into batches, and each batch is written as one JDBC batch of
+ * {@code INSERT ... ON CONFLICT} (PostgreSQL) or {@code MERGE} (H2) statements in
+ * its own transaction. IDs come from the entity's pooled sequence generator, so
+ * the sequence is only hit once per allocation block, and caches are invalidated
+ * once per batch for exactly the keys that batch touched. The quantities a batch
+ * replaces are read under lock first, so its ledger movements are appended with
+ * one more INSERT.
+ */
+@ApplicationScoped
+public class InventoryBulkService {
+
+    private static final Logger LOG = Logger.getLogger(InventoryBulkService.class);
+
+    private static final String POSTGRES_UPSERT = "INSERT INTO INVENTORY (id, product_id, quantity, created_at, updated_at)"
+            + " VALUES (?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)"
+            + " ON CONFLICT (product_id) DO UPDATE SET quantity = EXCLUDED.quantity, updated_at = EXCLUDED.updated_at,"
+            + " version = INVENTORY.version + 1";
+
+    private static final String H2_UPSERT = "MERGE INTO INVENTORY t"
+            + " USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS INTEGER))) s (id, product_id, quantity)"
+            + " ON t.product_id = s.product_id"
+            + " WHEN MATCHED THEN UPDATE SET quantity = s.quantity, updated_at = CURRENT_TIMESTAMP, version = t.version + 1"
+            + " WHEN NOT MATCHED THEN INSERT (id, product_id, quantity, created_at, updated_at)"
+            + " VALUES (s.id, s.product_id, s.quantity, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    InventoryCacheCoordinator cacheCoordinator;
+
+    @Inject
+    HotStockCounters hotStock;
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    @ConfigProperty(name = "inventory.bulk.batch-size", defaultValue = "1000")
+    int batchSize;
+
+    /**
+     * Upsert every row of a JSON array or NDJSON body.
+     * Batches are committed as they fill up, so rows before a malformed one stay applied.
+     *
+     * @throws InvalidInventoryException if a row is malformed or invalid
+     */
+    public BulkUpsertResponse upsert(InputStream body) throws IOException {
+        long start = System.nanoTime();
+        // Upserts set quantities outright, so no stock may be leased out meanwhile
+        hotStock.releaseAll();
+        long received = 0;
+        long upserted = 0;
+        int batches = 0;
+        // Last write wins for a product repeated within one batch; a single
+        // ON CONFLICT statement may not touch the same row twice. Sorted, so the
+        // upsert takes row locks in product ID order like every other multi-row write
+        Map<Long, Integer> batch = new TreeMap<>();
+        try (MappingIterator<BulkUpsertRow> rows = objectMapper.readerFor(BulkUpsertRow.class).readValues(body)) {
+            while (rows.hasNextValue()) {
+                BulkUpsertRow row = rows.nextValue();
+                validate(row, received);
+                received++;
+                batch.put(row.getProductId(), row.getQuantity());
+                if (batch.size() >= batchSize) {
+                    upserted += write(batch);
+                    batches++;
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidInventoryException("Malformed bulk payload after row " + received + ": "
+                    + e.getOriginalMessage());
+        }
+        if (!batch.isEmpty()) {
+            upserted += write(batch);
+            batches++;
+        }
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        LOG.infof("Bulk upserted %d rows in %d batches (%d ms)", upserted, batches, durationMillis);
+        return new BulkUpsertResponse(received, upserted, batches, durationMillis);
+    }
+
+    private static void validate(BulkUpsertRow row, long index) {
+        if (row == null || row.getProductId() == null) {
+            throw new InvalidInventoryException("Row " + index + ": Product ID is required");
+        }
+        if (row.getQuantity() == null) {
+            throw new InvalidInventoryException("Row " + index + ": Quantity is required");
+        }
+        if (row.getQuantity() < 0) {
+            throw new InvalidInventoryException("Row " + index + ": Quantity cannot be negative");
+        }
+    }
+
+    private int write(Map<Long, Integer> batch) {
+        List<Object[]> touched = QuarkusTransaction.requiringNew().call(() -> {
+            Map<Long, Integer> before = new HashMap<>();
+            for (Object[] item : quantities(batch, true)) {
+                before.put((Long) item[1], (Integer) item[2]);
+            }
+            upsertBatch(batch);
+            List<Object[]> after = quantities(batch, false);
+            List<InventoryMovement> movements = new ArrayList<>(after.size());
+            List<Inventory> created = new ArrayList<>();
+            List<Inventory> updated = new ArrayList<>();
+            for (Object[] item : after) {
+                Integer previous = before.get((Long) item[1]);
+                int delta = (Integer) item[2] - (previous == null ? 0 : previous);
+                // Catalog syncs mostly repeat what is stored; unchanged rows are not movements
+                if (previous == null || delta != 0) {
+                    movements.add(InventoryMovement.of((Long) item[0], (Long) item[1], previous == null
+                            ? InventoryMovement.Kind.CREATE : InventoryMovement.Kind.BULK, delta));
+                    (previous == null ? created : updated).add(toInventory(item));
+                }
+            }
+            InventoryMovement.record(movements);
+            InventoryOutboxEvent.enqueue(created, InventoryOutboxEvent.Type.CREATED);
+            InventoryOutboxEvent.enqueue(updated, InventoryOutboxEvent.Type.UPDATED);
+            return after;
+        });
+        for (Object[] item : touched) {
+            cacheCoordinator.evict((Long) item[0], (Long) item[1]);
+        }
+        return batch.size();
+    }
+
+    /**
+     * @return id, product ID, quantity and version of the batch's existing rows, locked
+     *         in ascending product ID order if asked to, like {@link Inventory#lockByProductIds}
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object[]> quantities(Map<Long, Integer> batch, boolean lock) {
+        return entityManager
+                .createNativeQuery("SELECT id, product_id, quantity, version FROM INVENTORY WHERE product_id IN (?1)"
+                        + " ORDER BY product_id" + (lock ? " FOR UPDATE" : ""))
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("product_id", Long.class)
+                .addScalar("quantity", Integer.class)
+                .addScalar("version", Long.class)
+                .setParameterList(1, batch.keySet())
+                .getResultList();
+    }
+
+    private void upsertBatch(Map<Long, Integer> batch) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        // The pooled sequence generator runs before the insert, as for persist()
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Inventory.class)
+                .getGenerator();
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            ids.add((Long) generator.generate(session, null, null, EventType.INSERT));
+        }
+        String sql = dbKind.startsWith("postgres") ? POSTGRES_UPSERT : H2_UPSERT;
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int i = 0;
+                for (Map.Entry<Long, Integer> row : batch.entrySet()) {
+                    statement.setLong(1, ids.get(i++));
+                    statement.setLong(2, row.getKey());
+                    statement.setInt(3, row.getValue());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private static Inventory toInventory(Object[] row) {
+        Inventory inventory = new Inventory();
+        inventory.id = (Long) row[0];
+        inventory.productId = (Long) row[1];
+        inventory.quantity = (Integer) row[2];
+        inventory.version = (Long) row[3];
+        return inventory;
+    }
+}
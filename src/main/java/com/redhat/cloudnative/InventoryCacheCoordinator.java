@@ -0,0 +1,191 @@
+package com.redhat.cloudnative;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.Map;
+
+/**
+ * Single place that keeps {@code inventory-cache} (keyed by item ID) and
+ * {@code inventory-product-cache} (keyed by product ID) in step with writes.
+ *
+ * Writes evict only the two entries of the item they touched instead of
+ * invalidating whole caches. To find the other key when a caller only knows one
+ * side, the coordinator remembers the itemId / productId pairs it has seen;
+ * the pair of an item never changes, so a remembered pair can only be missing,
+ * never wrong in a way that skips an eviction. Evictions are also handed to the
+ * {@link InventoryInvalidationBus} so the other replicas drop the same entries,
+ * and every eviction, local or remote, tells the {@link StockStreamHub} that the
+ * product changed.
+ */
+@ApplicationScoped
+public class InventoryCacheCoordinator {
+
+    private static final Logger LOG = Logger.getLogger(InventoryCacheCoordinator.class);
+
+    @Inject
+    @CacheName("inventory-cache")
+    Cache inventoryCache;
+
+    @Inject
+    @CacheName("inventory-product-cache")
+    Cache inventoryProductCache;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @Inject
+    InventoryInvalidationBus invalidationBus;
+
+    @Inject
+    ProductIdFilter productFilter;
+
+    @Inject
+    StockStreamHub streamHub;
+
+    @ConfigProperty(name = "inventory.cache.key-mapping-size", defaultValue = "200000")
+    long mappingSize;
+
+    private Map<Long, Long> itemByProduct;
+    private Map<Long, Long> productByItem;
+
+    @PostConstruct
+    void init() {
+        this.itemByProduct = Caffeine.newBuilder().maximumSize(mappingSize).<Long, Long>build().asMap();
+        this.productByItem = Caffeine.newBuilder().maximumSize(mappingSize).<Long, Long>build().asMap();
+    }
+
+    /**
+     * Record the key pair of an item that is about to be cached.
+     */
+    public Inventory track(Inventory inventory) {
+        if (inventory != null && inventory.id != null && inventory.productId != null) {
+            itemByProduct.put(inventory.productId, inventory.id);
+            productByItem.put(inventory.id, inventory.productId);
+        }
+        return inventory;
+    }
+
+    /**
+     * Evict both cache entries of an item now, here and on the other replicas.
+     * Either key may be {@code null}; it is then resolved from the known pairs.
+     */
+    public void evict(Long itemId, Long productId) {
+        Long item = itemId != null ? itemId : itemOf(productId);
+        Long product = productId != null ? productId : productOf(itemId);
+        // The write may have created the product; make it visible before dropping any "not found" entry
+        productFilter.add(product);
+        evictEntries(item, product);
+        streamHub.changed(product);
+        invalidationBus.publish(item, product);
+    }
+
+    public void evict(Inventory inventory) {
+        evict(inventory.id, inventory.productId);
+    }
+
+    /**
+     * Evict both cache entries of an item once the current transaction commits,
+     * so a concurrent read cannot re-cache the pre-commit state. Without an active
+     * transaction the entries are evicted immediately; after a rollback nothing changed
+     * and nothing is evicted.
+     */
+    public void evictAfterCommit(Long itemId, Long productId) {
+        if (transactionRegistry.getTransactionKey() == null) {
+            evict(itemId, productId);
+            return;
+        }
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    evict(itemId, productId);
+                }
+            }
+        });
+    }
+
+    public void evictAfterCommit(Inventory inventory) {
+        evictAfterCommit(inventory.id, inventory.productId);
+    }
+
+    /**
+     * Drop every entry of both caches and rebuild the product filter, here and
+     * on the other replicas (administrative use and bulk data loads only).
+     */
+    public void evictAll() {
+        resync();
+        invalidationBus.publishAll();
+    }
+
+    /**
+     * Evict both cache entries of an item on this replica only, for a change the
+     * other replicas do not see, such as the budget of a hot item held here.
+     */
+    public void evictHere(Inventory inventory) {
+        evictLocal(inventory.id, inventory.productId);
+    }
+
+    /**
+     * Apply an eviction received from another replica.
+     */
+    void evictLocal(Long itemId, Long productId) {
+        Long product = productId != null ? productId : productOf(itemId);
+        productFilter.add(product);
+        evictEntries(itemId != null ? itemId : itemOf(productId), product);
+        streamHub.changed(product);
+    }
+
+    void evictAllLocal() {
+        inventoryCache.invalidateAll().await().indefinitely();
+        inventoryProductCache.invalidateAll().await().indefinitely();
+    }
+
+    /**
+     * Recover from invalidations that may never have arrived: drop every cached
+     * entry and stop trusting the product filter until it has been rebuilt.
+     */
+    void resync() {
+        productFilter.reset();
+        evictAllLocal();
+        streamHub.changedAll();
+    }
+
+    private void evictEntries(Long itemId, Long productId) {
+        // Caffeine invalidates on subscription, so this is done on return without
+        // awaiting, which the reactive API relies on to evict from event-loop threads
+        if (itemId != null) {
+            inventoryCache.invalidate(itemId).subscribe().with(ignored -> {
+            });
+        }
+        if (productId != null) {
+            inventoryProductCache.invalidate(productId).subscribe().with(ignored -> {
+            });
+        }
+        LOG.tracef("Evicted cache entries for item %s / product %s", itemId, productId);
+    }
+
+    private Long itemOf(Long productId) {
+        return productId == null ? null : itemByProduct.get(productId);
+    }
+
+    private Long productOf(Long itemId) {
+        return itemId == null ? null : productByItem.get(itemId);
+    }
+}
@@ -0,0 +1,387 @@
+package com.redhat.cloudnative;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Read-through access to {@code inventory-cache} and {@code inventory-product-cache}.
+ *
+ * Loads are single-flight: the first caller for a missing key runs the query
+ * and every concurrent caller for that key waits on the same result, so an
+ * expired hot entry costs one query, not one per request (or per retry).
+ * Entries older than {@code inventory.cache.soft-ttl} are still served, while
+ * one background refresh per key reloads them; only entries past the hard
+ * {@code expire-after-write} TTL make callers wait.
+ *
+ * "Not found" is cached too, for the much shorter
+ * {@code inventory.cache.negative-ttl}, and product IDs rejected by the
+ * {@link ProductIdFilter} get their 404 without touching the cache or the database.
+ *
+ * The {@code Async} variants share the same entries and rules but take a
+ * non-blocking loader and never block the caller, for the reactive v2 API.
+ * Background refreshes always use the blocking loaders on their own threads.
+ *
+ * The {@code Encoded} variants return the item as the JSON it is served as,
+ * encoded once per entry, so GET endpoints skip Jackson on every cache hit.
+ */
+@ApplicationScoped
+public class InventoryCacheLoader {
+
+    private static final Logger LOG = Logger.getLogger(InventoryCacheLoader.class);
+
+    static final String ITEM_CACHE = "inventory-cache";
+    static final String PRODUCT_CACHE = "inventory-product-cache";
+
+    /**
+     * Cached value plus the time it was loaded, for the soft TTL.
+     * A {@code null} inventory records that the key was not found.
+     */
+    private static final class Entry {
+        private final Inventory inventory;
+        private final long loadedAt = System.nanoTime();
+        private volatile EncodedInventory encoded;
+
+        private Entry(Inventory inventory) {
+            this.inventory = inventory;
+        }
+
+        /**
+         * The item's JSON, encoded by the first request that needs it and
+         * shared by every later hit on this entry.
+         */
+        private EncodedInventory encoded(ObjectMapper objectMapper) {
+            EncodedInventory result = encoded;
+            if (result == null) {
+                result = EncodedInventory.encode(inventory, objectMapper);
+                encoded = result;
+            }
+            return result;
+        }
+    }
+
+    @Inject
+    @CacheName(ITEM_CACHE)
+    Cache inventoryCache;
+
+    @Inject
+    @CacheName(PRODUCT_CACHE)
+    Cache inventoryProductCache;
+
+    @Inject
+    InventoryCacheCoordinator cacheCoordinator;
+
+    @Inject
+    StockHoldService holdService;
+
+    @Inject
+    ProductIdFilter productFilter;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    HotStockCounters hotStock;
+
+    // Zero disables stale-while-revalidate; entries then live until the hard TTL
+    @ConfigProperty(name = "inventory.cache.soft-ttl", defaultValue = "60s")
+    Duration softTtl;
+
+    // Zero disables negative caching
+    @ConfigProperty(name = "inventory.cache.negative-ttl", defaultValue = "10s")
+    Duration negativeTtl;
+
+    @ConfigProperty(name = "inventory.cache.refresh-threads", defaultValue = "2")
+    int refreshThreads;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private ExecutorService refresher;
+
+    void onStart(@Observes StartupEvent event) {
+        AtomicInteger threads = new AtomicInteger();
+        refresher = Executors.newFixedThreadPool(refreshThreads, runnable -> {
+            Thread thread = new Thread(runnable, "inventory-cache-refresh-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * @throws InventoryNotFoundException if no such item exists
+     */
+    public Inventory getById(Long itemId) {
+        return get(inventoryCache, ITEM_CACHE, itemId, this::loadById).inventory;
+    }
+
+    /**
+     * {@link #getById(Long)} as the JSON it is served as.
+     *
+     * @throws InventoryNotFoundException if no such item exists
+     */
+    public EncodedInventory getEncodedById(Long itemId) {
+        return get(inventoryCache, ITEM_CACHE, itemId, this::loadById).encoded(objectMapper);
+    }
+
+    /**
+     * @throws InventoryNotFoundException if the product has no inventory
+     */
+    public Inventory getByProductId(Long productId) {
+        return getEntryByProductId(productId).inventory;
+    }
+
+    /**
+     * {@link #getByProductId(Long)} as the JSON it is served as.
+     *
+     * @throws InventoryNotFoundException if the product has no inventory
+     */
+    public EncodedInventory getEncodedByProductId(Long productId) {
+        return getEntryByProductId(productId).encoded(objectMapper);
+    }
+
+    /**
+     * Non-blocking {@link #getEncodedById(Long)}; fails with {@link InventoryNotFoundException}.
+     *
+     * @param loader emits the item with its availability, or {@code null} if it does not exist
+     */
+    public Uni<EncodedInventory> getEncodedByIdAsync(Long itemId, Function<Long, Uni<Inventory>> loader) {
+        return getAsync(inventoryCache, ITEM_CACHE, itemId, loader, this::loadById)
+                .map(entry -> entry.encoded(objectMapper));
+    }
+
+    /**
+     * Non-blocking {@link #getEncodedByProductId(Long)}; fails with {@link InventoryNotFoundException}.
+     *
+     * @param loader emits the product's inventory with its availability, or {@code null} if it has none
+     */
+    public Uni<EncodedInventory> getEncodedByProductIdAsync(Long productId, Function<Long, Uni<Inventory>> loader) {
+        return getEntryByProductIdAsync(productId, loader).map(entry -> entry.encoded(objectMapper));
+    }
+
+    /**
+     * Cached inventory of a product without loading it, or {@code null}. Entries
+     * still being loaded by another request are treated as misses rather than waited on.
+     */
+    public Inventory peekByProductId(Long productId) {
+        Entry entry = peek(inventoryProductCache, productId);
+        return entry == null ? null : entry.inventory;
+    }
+
+    /**
+     * Whether a product is known to have no inventory, from the product filter
+     * or a "not found" entry that is still fresh.
+     */
+    public boolean isKnownMissing(Long productId) {
+        if (!productFilter.mightContain(productId)) {
+            return true;
+        }
+        Entry entry = peek(inventoryProductCache, productId);
+        return entry != null && entry.inventory == null && !isOlderThan(entry, negativeTtl);
+    }
+
+    /**
+     * Cache inventory that was loaded elsewhere, e.g. by a batch query.
+     */
+    public void putByProductId(Inventory inventory) {
+        cacheCoordinator.track(inventory);
+        inventoryProductCache.as(CaffeineCache.class)
+                .put(inventory.productId, CompletableFuture.completedFuture(entry(inventory)));
+    }
+
+    private Entry getEntryByProductId(Long productId) {
+        if (!productFilter.mightContain(productId)) {
+            meterRegistry.counter("inventory.cache.filter.rejected", "cache", PRODUCT_CACHE).increment();
+            throw new InventoryNotFoundException(productId);
+        }
+        return get(inventoryProductCache, PRODUCT_CACHE, productId, this::loadByProductId);
+    }
+
+    private Uni<Entry> getEntryByProductIdAsync(Long productId, Function<Long, Uni<Inventory>> loader) {
+        if (!productFilter.mightContain(productId)) {
+            meterRegistry.counter("inventory.cache.filter.rejected", "cache", PRODUCT_CACHE).increment();
+            return Uni.createFrom().failure(new InventoryNotFoundException(productId));
+        }
+        return getAsync(inventoryProductCache, PRODUCT_CACHE, productId, loader, this::loadByProductId);
+    }
+
+    private Entry get(Cache cache, String cacheName, Long key, Function<Long, Inventory> loader) {
+        CompletableFuture<Object> before = cache.as(CaffeineCache.class).getIfPresent(key);
+        boolean[] loaded = new boolean[1];
+        Entry entry = cache.<Long, Entry>get(key, k -> {
+            loaded[0] = true;
+            meterRegistry.counter("inventory.cache.loads", "cache", cacheName).increment();
+            Inventory inventory = loader.apply(k);
+            if (inventory == null && negativeTtl.isZero()) {
+                throw new InventoryNotFoundException(k);
+            }
+            return entry(inventory);
+        }).await().indefinitely();
+        if (!loaded[0] && (before == null || !before.isDone())) {
+            // Another request was already loading this key and we waited for its result
+            meterRegistry.counter("inventory.cache.loads.coalesced", "cache", cacheName).increment();
+        }
+        if (entry.inventory == null) {
+            if (!loaded[0] && isOlderThan(entry, negativeTtl)) {
+                // Drop the expired "not found" (unless someone already replaced it) and load again
+                if (peek(cache, key) == entry) {
+                    cache.invalidate(key).await().indefinitely();
+                }
+                return get(cache, cacheName, key, loader);
+            }
+            if (!loaded[0]) {
+                meterRegistry.counter("inventory.cache.negative.hits", "cache", cacheName).increment();
+            }
+            throw new InventoryNotFoundException(key);
+        }
+        if (!softTtl.isZero() && isOlderThan(entry, softTtl)) {
+            meterRegistry.counter("inventory.cache.stale.served", "cache", cacheName).increment();
+            refresh(cache, cacheName, key, entry, loader);
+        }
+        return entry;
+    }
+
+    private Uni<Entry> getAsync(Cache cache, String cacheName, Long key, Function<Long, Uni<Inventory>> loader,
+            Function<Long, Inventory> refreshLoader) {
+        CompletableFuture<Object> before = cache.as(CaffeineCache.class).getIfPresent(key);
+        boolean[] loaded = new boolean[1];
+        return cache.<Long, Entry>getAsync(key, k -> {
+            loaded[0] = true;
+            meterRegistry.counter("inventory.cache.loads", "cache", cacheName).increment();
+            return loader.apply(k).map(inventory -> {
+                if (inventory == null) {
+                    LOG.warnf("Inventory not found in %s for key: %d", cacheName, k);
+                    if (negativeTtl.isZero()) {
+                        throw new InventoryNotFoundException(k);
+                    }
+                }
+                return entry(cacheCoordinator.track(inventory));
+            });
+        }).flatMap(entry -> {
+            if (!loaded[0] && (before == null || !before.isDone())) {
+                meterRegistry.counter("inventory.cache.loads.coalesced", "cache", cacheName).increment();
+            }
+            if (entry.inventory == null) {
+                if (!loaded[0] && isOlderThan(entry, negativeTtl)) {
+                    Uni<Void> drop = peek(cache, key) == entry ? cache.invalidate(key) : Uni.createFrom().voidItem();
+                    return drop.flatMap(ignored -> getAsync(cache, cacheName, key, loader, refreshLoader));
+                }
+                if (!loaded[0]) {
+                    meterRegistry.counter("inventory.cache.negative.hits", "cache", cacheName).increment();
+                }
+                return Uni.createFrom().failure(new InventoryNotFoundException(key));
+            }
+            if (!softTtl.isZero() && isOlderThan(entry, softTtl)) {
+                meterRegistry.counter("inventory.cache.stale.served", "cache", cacheName).increment();
+                refresh(cache, cacheName, key, entry, refreshLoader);
+            }
+            return Uni.createFrom().item(entry);
+        });
+    }
+
+    private void refresh(Cache cache, String cacheName, Long key, Entry stale, Function<Long, Inventory> loader) {
+        String refreshKey = cacheName + ":" + key;
+        if (refresher == null || !refreshing.add(refreshKey)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    Inventory inventory = QuarkusTransaction.requiringNew().call(() -> loader.apply(key));
+                    // A write may have evicted the stale entry meanwhile; never resurrect it
+                    if (peek(cache, key) == stale) {
+                        if (inventory == null) {
+                            cache.invalidate(key).await().indefinitely();
+                        } else {
+                            cache.as(CaffeineCache.class).put(key, CompletableFuture.completedFuture(entry(inventory)));
+                        }
+                    }
+                    meterRegistry.counter("inventory.cache.refreshes", "cache", cacheName).increment();
+                } catch (RuntimeException e) {
+                    meterRegistry.counter("inventory.cache.refresh.failures", "cache", cacheName).increment();
+                    LOG.warnf(e, "Failed to refresh %s entry %d; serving the cached value until it expires", cacheName,
+                            key);
+                } finally {
+                    refreshing.remove(refreshKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(refreshKey);
+        }
+    }
+
+    /**
+     * @return the item, or {@code null} if it does not exist
+     */
+    private Inventory loadById(Long itemId) {
+        Inventory inventory = Inventory.findById(itemId);
+        if (inventory == null) {
+            LOG.warnf("Inventory item not found with ID: %d", itemId);
+            return null;
+        }
+        return cacheCoordinator.track(holdService.applyAvailability(inventory));
+    }
+
+    /**
+     * @return the product's inventory, or {@code null} if it has none
+     */
+    private Inventory loadByProductId(Long productId) {
+        Inventory inventory = Inventory.findByProductId(productId);
+        if (inventory == null) {
+            LOG.warnf("Inventory not found for product ID: %d", productId);
+            return null;
+        }
+        return cacheCoordinator.track(holdService.applyAvailability(inventory));
+    }
+
+    /**
+     * A cache entry for a loaded item; a hot item includes the stock this pod holds in memory.
+     */
+    private Entry entry(Inventory inventory) {
+        return new Entry(hotStock.overlay(inventory));
+    }
+
+    private static boolean isOlderThan(Entry entry, Duration age) {
+        return System.nanoTime() - entry.loadedAt > age.toNanos();
+    }
+
+    private static Entry peek(Cache cache, Long key) {
+        CompletableFuture<Object> future = cache.as(CaffeineCache.class).getIfPresent(key);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        Object value = future.join();
+        return value instanceof Entry ? (Entry) value : null;
+    }
+}
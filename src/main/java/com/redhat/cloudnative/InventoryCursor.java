@@ -0,0 +1,101 @@
+package com.redhat.cloudnative;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Opaque keyset pagination cursor.
+ * Encodes the sort key and the last value returned so the next page can seek
+ * on an index instead of scanning past an OFFSET.
+ */
+public final class InventoryCursor {
+
+    /**
+     * Sort keys that are backed by a unique index and can therefore be used for seeking.
+     */
+    public enum SortKey {
+        ID("id"),
+        PRODUCT_ID("productId");
+
+        private final String field;
+
+        SortKey(String field) {
+            this.field = field;
+        }
+
+        public String field() {
+            return field;
+        }
+
+        long valueOf(Inventory inventory) {
+            return this == ID ? inventory.id : inventory.productId;
+        }
+
+        public static SortKey fromParam(String value) {
+            if (value == null || value.isBlank()) {
+                return ID;
+            }
+            for (SortKey key : values()) {
+                if (key.field.equalsIgnoreCase(value) || key.name().equalsIgnoreCase(value)) {
+                    return key;
+                }
+            }
+            throw new InvalidInventoryException("Unsupported sort key: " + value + " (use 'id' or 'productId')");
+        }
+    }
+
+    private static final char SEPARATOR = ':';
+
+    private final SortKey sortKey;
+    private final long lastValue;
+
+    public InventoryCursor(SortKey sortKey, long lastValue) {
+        this.sortKey = sortKey;
+        this.lastValue = lastValue;
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public long getLastValue() {
+        return lastValue;
+    }
+
+    /**
+     * Cursor pointing just past the given item.
+     */
+    public static InventoryCursor after(SortKey sortKey, Inventory last) {
+        return new InventoryCursor(sortKey, sortKey.valueOf(last));
+    }
+
+    public String encode() {
+        String raw = sortKey.name().toLowerCase(Locale.ROOT) + SEPARATOR + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decode a token previously produced by {@link #encode()}.
+     *
+     * @throws InvalidInventoryException if the token is malformed
+     */
+    public static InventoryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int idx = raw.indexOf(SEPARATOR);
+            if (idx <= 0) {
+                throw new InvalidInventoryException("Invalid cursor");
+            }
+            SortKey key = SortKey.valueOf(raw.substring(0, idx).toUpperCase(Locale.ROOT));
+            return new InventoryCursor(key, Long.parseLong(raw.substring(idx + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInventoryException("Invalid cursor");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryCursor [sortKey=" + sortKey + ", lastValue=" + lastValue + ']';
+    }
+}
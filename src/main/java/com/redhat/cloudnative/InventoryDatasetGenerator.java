@@ -0,0 +1,208 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.jboss.logging.Logger;
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.SplittableRandom;
+
+/**
+ * Loads large synthetic inventory datasets for performance work, e.g. ten
+ * million rows to check that paging, caches and the product filter still
+ * behave at production scale.
+ *
+ * Rows cover a contiguous, previously empty product ID range. Products get a
+ * Zipfian popularity ({@link ProductPopularity}) and stock that follows it:
+ * each product's median quantity scales with its expected share of demand,
+ * with log-normal noise around it and a fixed share of products out of stock.
+ * The same request always yields the same rows. Rows are written in batches,
+ * one transaction each, with {@code COPY} on PostgreSQL and JDBC batch inserts
+ * elsewhere; IDs come from the entity's pooled sequence generator as in
+ * {@link InventoryBulkService}, so later ORM inserts never collide with them.
+ * Generated rows start their ledger history with a baseline snapshot instead of
+ * one movement each; deleting them appends their DELETE movements in bulk.
+ */
+@ApplicationScoped
+public class InventoryDatasetGenerator {
+
+    private static final Logger LOG = Logger.getLogger(InventoryDatasetGenerator.class);
+
+    private static final int MAX_QUANTITY = 10_000_000;
+
+    private static final String POSTGRES_COPY = "COPY INVENTORY (id, product_id, quantity) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT = "INSERT INTO INVENTORY (id, product_id, quantity, created_at, updated_at)"
+            + " VALUES (?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    private static final String BASELINE = "INSERT INTO INVENTORY_SNAPSHOT (item_id, movement_id, quantity, as_of)"
+            + " SELECT id, 0, quantity, CURRENT_TIMESTAMP FROM INVENTORY WHERE product_id BETWEEN ?1 AND ?2";
+
+    private static final String DELETED = "INSERT INTO INVENTORY_MOVEMENT (item_id, product_id, kind, delta, occurred_at)"
+            + " SELECT id, product_id, 'DELETE', -quantity, CURRENT_TIMESTAMP FROM INVENTORY"
+            + " WHERE product_id BETWEEN ?1 AND ?2";
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    InventoryCacheCoordinator cacheCoordinator;
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    @ConfigProperty(name = "inventory.dataset.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "inventory.dataset.batch-size", defaultValue = "10000")
+    int batchSize;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Generate {@code request.rows} products starting at {@code request.firstProductId}.
+     * Batches are committed as they fill up; caches are cleared once at the end.
+     *
+     * @throws InvalidInventoryException if the product ID range already holds inventory
+     */
+    public DatasetResponse generate(DatasetRequest request) {
+        long start = System.nanoTime();
+        long rows = request.getRows();
+        long first = request.getFirstProductId();
+        long last = first + rows - 1;
+        long existing = QuarkusTransaction.requiringNew()
+                .call(() -> Inventory.count("productId between ?1 and ?2", first, last));
+        if (existing > 0) {
+            throw new InvalidInventoryException("Product ID range " + first + ".." + last + " already holds "
+                    + existing + " inventory items");
+        }
+
+        ProductPopularity popularity = new ProductPopularity(first, rows, request.getPopularityExponent());
+        SplittableRandom random = new SplittableRandom(request.getSeed());
+        // Median quantity of a product with share p is median * rows * p: average popularity gets the median itself
+        double scale = (double) request.getQuantityMedian() * rows;
+        double sigma = request.getQuantitySpread();
+        double outOfStock = request.getOutOfStockRatio();
+        boolean postgres = dbKind.startsWith("postgres");
+
+        int batches = 0;
+        long written = 0;
+        long[] productIds = new long[(int) Math.min(batchSize, rows)];
+        int[] quantities = new int[productIds.length];
+        try {
+            for (long productId = first; productId <= last; ) {
+                int size = (int) Math.min(productIds.length, last - productId + 1);
+                for (int i = 0; i < size; i++, productId++) {
+                    productIds[i] = productId;
+                    quantities[i] = random.nextDouble() < outOfStock ? 0
+                            : quantity(scale * popularity.share(productId), sigma, random);
+                }
+                int count = size;
+                QuarkusTransaction.requiringNew().run(() -> insertBatch(productIds, quantities, count, postgres));
+                written += size;
+                batches++;
+                if (batches % 100 == 0) {
+                    LOG.infof("Generated %d of %d inventory rows", written, rows);
+                }
+            }
+        } finally {
+            // Replicas rebuild their product filters from the table
+            cacheCoordinator.evictAll();
+        }
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        LOG.infof("Generated %d inventory rows for products %d..%d in %d batches (%d ms)", written, first, last,
+                batches, durationMillis);
+        return new DatasetResponse(written, first, last, batches, durationMillis);
+    }
+
+    /**
+     * Delete every inventory row in {@code firstProductId .. firstProductId + rows - 1},
+     * one batch of product IDs per transaction.
+     */
+    public DatasetResponse delete(long firstProductId, long rows) {
+        long start = System.nanoTime();
+        long last = firstProductId + rows - 1;
+        long deleted = 0;
+        int batches = 0;
+        try {
+            for (long from = firstProductId; from <= last; from += batchSize) {
+                long to = Math.min(last, from + batchSize - 1);
+                long lower = from;
+                deleted += QuarkusTransaction.requiringNew().call(() -> {
+                    entityManager.createNativeQuery(DELETED).setParameter(1, lower).setParameter(2, to).executeUpdate();
+                    return Inventory.delete("productId between ?1 and ?2", lower, to);
+                });
+                batches++;
+            }
+        } finally {
+            cacheCoordinator.evictAll();
+        }
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        LOG.infof("Deleted %d inventory rows for products %d..%d (%d ms)", deleted, firstProductId, last,
+                durationMillis);
+        return new DatasetResponse(deleted, firstProductId, last, batches, durationMillis);
+    }
+
+    /**
+     * A log-normal quantity around {@code median}, clamped to {@code 0..MAX_QUANTITY}.
+     */
+    private static int quantity(double median, double sigma, SplittableRandom random) {
+        double value = median * Math.exp(sigma * random.nextGaussian());
+        return (int) Math.min(MAX_QUANTITY, Math.max(0, Math.round(value)));
+    }
+
+    private void insertBatch(long[] productIds, int[] quantities, int size, boolean postgres) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Inventory.class)
+                .getGenerator();
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = (Long) generator.generate(session, null, null, EventType.INSERT);
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            if (postgres) {
+                // created_at / updated_at take their column defaults
+                StringBuilder csv = new StringBuilder(size * 24);
+                for (int i = 0; i < size; i++) {
+                    csv.append(ids[i]).append(',').append(productIds[i]).append(',').append(quantities[i]).append('\n');
+                }
+                try {
+                    connection.unwrap(PGConnection.class).getCopyAPI()
+                            .copyIn(POSTGRES_COPY, new StringReader(csv.toString()));
+                } catch (IOException e) {
+                    throw new SQLException("COPY into INVENTORY failed", e);
+                }
+                return;
+            }
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                for (int i = 0; i < size; i++) {
+                    statement.setLong(1, ids[i]);
+                    statement.setLong(2, productIds[i]);
+                    statement.setInt(3, quantities[i]);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        entityManager.createNativeQuery(BASELINE)
+                .setParameter(1, productIds[0])
+                .setParameter(2, productIds[size - 1])
+                .executeUpdate();
+    }
+}
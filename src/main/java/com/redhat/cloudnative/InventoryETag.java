@@ -0,0 +1,159 @@
+package com.redhat.cloudnative;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Strong entity tags of inventory items and listings.
+ *
+ * An item's tag is its {@link Inventory#version}, which changes with every
+ * write to the row. Available-to-sell is computed from stock holds instead, so
+ * when holds are active the held quantity is appended ({@code "3.5"}), and a
+ * hot item read on the pod holding its budget also carries the budget
+ * ({@code "3.5.40"}): two responses with the same tag always have the same
+ * body. Write preconditions only look at the version part.
+ */
+public final class InventoryETag {
+
+    /**
+     * Stands for a weak tag in an If-Match header: If-Match uses the strong
+     * comparison, under which a weak tag never matches, and no row has this version.
+     */
+    private static final long NEVER_MATCHES = -1;
+
+    // Marks the tag of a gzip-encoded body, which differs from the identity body byte for byte
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private InventoryETag() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Tag of the item as it is about to be sent, including its available-to-sell
+     * if known and its budget if it is hot here.
+     */
+    public static String of(Inventory inventory) {
+        int held = inventory.availableToSell == null ? 0 : inventory.quantity - inventory.availableToSell;
+        if (inventory.budget != 0) {
+            return "\"" + inventory.version + "." + held + "." + inventory.budget + "\"";
+        }
+        return held == 0 ? of(inventory.version) : "\"" + inventory.version + "." + held + "\"";
+    }
+
+    /**
+     * Tag of the gzip-encoded body of a representation tagged {@code etag}, e.g.
+     * {@code "3.5-gzip"}. Preconditions and If-None-Match ignore the suffix.
+     */
+    public static String gzip(String etag) {
+        return etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+
+    /**
+     * Tag of a listing page, from the rows it was built from: ID, version and
+     * available-to-sell of each, including the look-ahead row that decides
+     * whether there is a next page, plus the total if the page reports one.
+     * The values are hashed, so the tag is opaque and of fixed length.
+     */
+    public static String ofPage(List<Inventory> items, Long total) {
+        long hash = mix(FNV_OFFSET, total == null ? -1 : total);
+        for (Inventory inventory : items) {
+            hash = mix(hash, inventory.id);
+            hash = mix(hash, inventory.version);
+            hash = mix(hash, inventory.availableToSell == null ? inventory.quantity : inventory.availableToSell);
+        }
+        return "\"c" + Long.toHexString(hash) + "\"";
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * The version an {@code If-Match} header requires, or {@code null} if the
+     * header is absent or {@code *} (any current version).
+     *
+     * @throws InvalidInventoryException if the header is not a single entity tag
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        boolean weak = tag.startsWith("W/");
+        if (weak) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.indexOf('"', 1) != tag.length() - 1) {
+            throw new InvalidInventoryException("If-Match must be a single entity tag, e.g. \"3\"");
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        if (value.endsWith(GZIP_SUFFIX)) {
+            value = value.substring(0, value.length() - GZIP_SUFFIX.length());
+        }
+        int held = value.indexOf('.');
+        long version;
+        try {
+            version = Long.parseLong(held < 0 ? value : value.substring(0, held));
+        } catch (NumberFormatException e) {
+            // Not a tag this service ever issued
+            return NEVER_MATCHES;
+        }
+        return weak || version < 0 ? NEVER_MATCHES : version;
+    }
+
+    /**
+     * Whether a GET may be answered with 304 Not Modified (RFC 9110, section 13.2.2).
+     * {@code If-None-Match} uses the weak comparison and, when present, makes
+     * {@code If-Modified-Since} irrelevant. An unparseable date is ignored.
+     *
+     * @param lastModified the representation's Last-Modified, or {@code null} if it has none
+     */
+    public static boolean notModified(String ifNoneMatch, String ifModifiedSince, String etag, Instant lastModified) {
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || opaque(tag).equals(opaque(etag))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (ifModifiedSince == null || lastModified == null) {
+            return false;
+        }
+        try {
+            Instant since = ZonedDateTime.parse(ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            // HTTP dates have whole seconds
+            return lastModified.getEpochSecond() <= since.getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The tag without weakness indicator and gzip suffix: both encodings of an
+     * item are the same representation for a conditional GET.
+     */
+    private static String opaque(String tag) {
+        String opaque = tag.startsWith("W/") ? tag.substring(2) : tag;
+        String gzipped = GZIP_SUFFIX + "\"";
+        return opaque.endsWith(gzipped)
+                ? opaque.substring(0, opaque.length() - gzipped.length()) + "\""
+                : opaque;
+    }
+}
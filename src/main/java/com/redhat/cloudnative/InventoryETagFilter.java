@@ -0,0 +1,71 @@
+package com.redhat.cloudnative;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Adds the {@link InventoryETag} and Last-Modified to every successful response
+ * whose body is a single inventory item, on all API versions. Items served from
+ * the caches arrive as {@link EncodedInventory} with both already rendered.
+ *
+ * A GET whose validators still match the item is turned into a 304 here, before
+ * the body is serialized. Last-Modified only tracks writes to the row, so a
+ * client that also sends If-None-Match (which takes precedence) sees changes
+ * to available-to-sell as well.
+ *
+ * A cached item may go out gzipped, see {@link EncodedInventoryWriter}, under
+ * its own tag. Every item response therefore carries
+ * {@code Vary: Accept-Encoding}, whatever its size.
+ */
+@Provider
+public class InventoryETagFilter implements ContainerResponseFilter {
+
+    @ConfigProperty(name = "inventory.cache.gzip-min-bytes", defaultValue = "1024")
+    int gzipMinBytes;
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        if (response.getStatus() >= 300 || response.getHeaders().containsKey(HttpHeaders.ETAG)) {
+            return;
+        }
+        String etag;
+        Instant lastModified;
+        if (response.getEntity() instanceof EncodedInventory encoded) {
+            etag = encoded.etag();
+            if (EncodedInventoryWriter.gzips(encoded, gzipMinBytes, request.getHeaderString(HttpHeaders.ACCEPT_ENCODING))) {
+                etag = InventoryETag.gzip(etag);
+            }
+            lastModified = encoded.lastModified();
+            if (lastModified != null) {
+                response.getHeaders().putSingle(HttpHeaders.LAST_MODIFIED, encoded.lastModifiedHeader());
+            }
+        } else if (response.getEntity() instanceof Inventory inventory) {
+            etag = InventoryETag.of(inventory);
+            lastModified = inventory.updatedAt;
+            if (lastModified != null) {
+                response.getHeaders().putSingle(HttpHeaders.LAST_MODIFIED, Date.from(lastModified));
+            }
+        } else {
+            return;
+        }
+        response.getHeaders().putSingle(HttpHeaders.ETAG, etag);
+        response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String method = request.getMethod();
+        if ((HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method))
+                && InventoryETag.notModified(request.getHeaderString(HttpHeaders.IF_NONE_MATCH),
+                        request.getHeaderString(HttpHeaders.IF_MODIFIED_SINCE), etag, lastModified)) {
+            response.setStatus(Response.Status.NOT_MODIFIED.getStatusCode());
+            response.setEntity(null);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.redhat.cloudnative;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Streams the whole inventory table to an HTTP response in constant memory.
+ *
+ * Rows are read through a forward-only cursor on a {@link StatelessSession}, so
+ * nothing is kept in a persistence context, and each row is serialized straight
+ * to the response. Writes block while the client is slow to read, which is what
+ * throttles the database cursor.
+ */
+@ApplicationScoped
+public class InventoryExporter {
+
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON_TYPE = MediaType.valueOf(APPLICATION_NDJSON);
+
+    private static final Logger LOG = Logger.getLogger(InventoryExporter.class);
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "inventory.export.fetch-size", defaultValue = "500")
+    int fetchSize;
+
+    @ConfigProperty(name = "inventory.export.transaction-timeout", defaultValue = "600")
+    int transactionTimeout;
+
+    /**
+     * Pick the export format from the client's Accept header, preferring NDJSON.
+     */
+    public MediaType negotiate(List<MediaType> acceptable) {
+        for (MediaType type : acceptable) {
+            if (type.isCompatible(APPLICATION_NDJSON_TYPE) && !type.isWildcardType()) {
+                return APPLICATION_NDJSON_TYPE;
+            }
+            if (type.isCompatible(MediaType.APPLICATION_JSON_TYPE) && !type.isWildcardType()) {
+                return MediaType.APPLICATION_JSON_TYPE;
+            }
+        }
+        return APPLICATION_NDJSON_TYPE;
+    }
+
+    /**
+     * Body that writes every inventory row, ordered by id, either as one JSON
+     * object per line or as a single chunked JSON array.
+     */
+    public StreamingOutput export(MediaType format) {
+        boolean ndjson = APPLICATION_NDJSON_TYPE.isCompatible(format);
+        return output -> QuarkusTransaction.requiringNew()
+                .timeout(transactionTimeout)
+                .run(() -> write(output, ndjson));
+    }
+
+    private void write(OutputStream output, boolean ndjson) {
+        long rows = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession();
+                ScrollableResults<Inventory> results = session
+                        .createQuery("from Inventory order by id", Inventory.class)
+                        .setFetchSize(fetchSize)
+                        .scroll(ScrollMode.FORWARD_ONLY);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            while (results.next()) {
+                generator.writeObject(results.get());
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+                if (++rows % fetchSize == 0) {
+                    // Hand the chunk to the client before pulling the next batch
+                    generator.flush();
+                }
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        LOG.debugf("Exported %d inventory rows as %s", rows, ndjson ? APPLICATION_NDJSON : MediaType.APPLICATION_JSON);
+    }
+}
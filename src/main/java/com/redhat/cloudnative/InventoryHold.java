@@ -0,0 +1,90 @@
+package com.redhat.cloudnative;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time-limited soft reservation of stock for a product.
+ * A hold counts against available-to-sell until it is released, confirmed or expires.
+ */
+@Entity
+@Table(name = "INVENTORY_HOLD")
+public class InventoryHold extends PanacheEntity {
+
+    @Column(name = "product_id", nullable = false)
+    @Schema(description = "Held product ID", example = "1002")
+    public Long productId;
+
+    @Column(name = "quantity", nullable = false)
+    @Schema(description = "Held quantity", example = "2")
+    public int quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    @Schema(description = "When the hold is released automatically")
+    public Instant expiresAt;
+
+    @Column(name = "created_at", updatable = false)
+    @Schema(description = "Creation timestamp", readOnly = true)
+    public Instant createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryHold [Id='" + id + '\'' + ", productId=" + productId + ", quantity=" + quantity +
+                ", expiresAt=" + expiresAt + ']';
+    }
+
+    @Schema(description = "Hold ID (auto-generated, read-only)", readOnly = true)
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Sum of the holds on a product that have not expired yet.
+     */
+    public static int activeQuantity(Long productId, Instant now) {
+        Long held = getEntityManager()
+                .createQuery("select coalesce(sum(h.quantity), 0) from InventoryHold h"
+                        + " where h.productId = ?1 and h.expiresAt > ?2", Long.class)
+                .setParameter(1, productId)
+                .setParameter(2, now)
+                .getSingleResult();
+        return held.intValue();
+    }
+
+    /**
+     * Sums of the holds that have not expired yet, for several products in one query.
+     * Products without active holds are absent from the result.
+     */
+    public static Map<Long, Integer> activeQuantities(Collection<Long> productIds, Instant now) {
+        Map<Long, Integer> held = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return held;
+        }
+        List<Object[]> rows = getEntityManager()
+                .createQuery("select h.productId, sum(h.quantity) from InventoryHold h"
+                        + " where h.productId in ?1 and h.expiresAt > ?2 group by h.productId", Object[].class)
+                .setParameter(1, productIds)
+                .setParameter(2, now)
+                .getResultList();
+        for (Object[] row : rows) {
+            held.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return held;
+    }
+}
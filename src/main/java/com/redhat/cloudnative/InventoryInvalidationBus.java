@@ -0,0 +1,200 @@
+package com.redhat.cloudnative;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carries cache evictions to the other replicas, so that an item changed on one
+ * pod drops out of every pod's caches within one flush interval instead of
+ * staying stale until its entries expire.
+ *
+ * Evictions are queued as {@code itemId:productId} pairs and sent every
+ * {@code inventory.cache.bus.flush-interval}. Repeated writes to the same item
+ * within an interval collapse into one pair, and one message carries as many
+ * pairs as fit into a NOTIFY payload: {@code <node> <item>:<product>,...}, with
+ * {@code *} meaning "clear everything and rebuild the product filter". A pod ignores its own messages, since
+ * it already evicted locally. On PostgreSQL messages travel over LISTEN/NOTIFY;
+ * on other databases an {@link InMemoryInvalidationTransport} stands in.
+ */
+@ApplicationScoped
+public class InventoryInvalidationBus {
+
+    private static final Logger LOG = Logger.getLogger(InventoryInvalidationBus.class);
+
+    static final String ALL = "*";
+
+    // PostgreSQL rejects NOTIFY payloads of 8000 bytes or more
+    private static final int MAX_PAYLOAD = 7900;
+
+    @Inject
+    InventoryCacheCoordinator cacheCoordinator;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    @ConfigProperty(name = "inventory.cache.bus.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "inventory.cache.bus.channel", defaultValue = "inventory_cache")
+    String channel;
+
+    @ConfigProperty(name = "inventory.cache.bus.flush-interval", defaultValue = "50ms")
+    Duration flushInterval;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private InvalidationTransport transport;
+    private ScheduledExecutorService flusher;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            LOG.info("Cache invalidation bus is disabled; other replicas rely on cache expiry");
+            return;
+        }
+        transport = dbKind.startsWith("postgres")
+                ? new PostgresInvalidationTransport(dataSource, channel)
+                : new InMemoryInvalidationTransport();
+        transport.start(this::receive, this::onGap);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-cache-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        LOG.infof("Cache invalidation bus started on %s as node %s", transport, nodeId);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flushQuietly();
+            transport.stop();
+        }
+    }
+
+    /**
+     * Queue the eviction of one item for the other replicas.
+     */
+    public void publish(Long itemId, Long productId) {
+        if (enabled) {
+            pending.add(format(itemId) + ":" + format(productId));
+        }
+    }
+
+    /**
+     * Queue a full cache clear for the other replicas.
+     */
+    public void publishAll() {
+        if (enabled) {
+            pending.add(ALL);
+        }
+    }
+
+    /**
+     * Send everything queued so far. Keys of a message that could not be sent
+     * are queued again.
+     *
+     * @return the number of messages sent
+     */
+    public synchronized int flush() {
+        if (transport == null || pending.isEmpty()) {
+            return 0;
+        }
+        int messages = 0;
+        List<String> keys = new ArrayList<>();
+        int length = nodeId.length();
+        Iterator<String> queued = pending.iterator();
+        while (queued.hasNext()) {
+            String key = queued.next();
+            queued.remove();
+            if (!keys.isEmpty() && length + 1 + key.length() > MAX_PAYLOAD) {
+                send(keys);
+                messages++;
+                keys.clear();
+                length = nodeId.length();
+            }
+            keys.add(key);
+            length += 1 + key.length();
+        }
+        if (!keys.isEmpty()) {
+            send(keys);
+            messages++;
+        }
+        return messages;
+    }
+
+    private void send(List<String> keys) {
+        try {
+            transport.send(nodeId + " " + String.join(",", keys));
+        } catch (RuntimeException e) {
+            pending.addAll(keys);
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Keep the flusher alive; the keys stay queued for the next attempt
+            LOG.warn("Failed to publish cache invalidations", e);
+        }
+    }
+
+    private void receive(String payload) {
+        int separator = payload.indexOf(' ');
+        if (separator < 0 || payload.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        String[] keys = payload.substring(separator + 1).split(",");
+        try {
+            for (String key : keys) {
+                if (ALL.equals(key)) {
+                    cacheCoordinator.resync();
+                    continue;
+                }
+                int colon = key.indexOf(':');
+                cacheCoordinator.evictLocal(parse(key.substring(0, colon)), parse(key.substring(colon + 1)));
+            }
+        } catch (RuntimeException e) {
+            LOG.warnf(e, "Ignoring malformed cache invalidation message: %s", payload);
+        }
+        LOG.debugf("Applied %d cache invalidations from node %s", keys.length, payload.substring(0, separator));
+    }
+
+    private void onGap() {
+        LOG.info("Cache invalidation messages may have been missed; clearing local caches");
+        cacheCoordinator.resync();
+    }
+
+    private static String format(Long key) {
+        return key == null ? "" : key.toString();
+    }
+
+    private static Long parse(String key) {
+        return key.isEmpty() ? null : Long.valueOf(key);
+    }
+}
@@ -0,0 +1,70 @@
+package com.redhat.cloudnative;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Stock of one item leased out of {@link Inventory#quantity} to the in-memory
+ * counters of one pod. See {@link HotStockCounters}.
+ *
+ * {@code amount} is what the pod still held at its last flush, so it is an upper
+ * bound for what it holds now; a lease whose {@code flushedAt} stops moving
+ * belongs to a pod that died.
+ */
+@Entity
+@Table(name = "INVENTORY_LEASE")
+@IdClass(InventoryLease.Key.class)
+public class InventoryLease extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "item_id")
+    public Long itemId;
+
+    @Id
+    @Column(name = "owner", length = 64)
+    public String owner;
+
+    @Column(name = "amount", nullable = false)
+    public int amount;
+
+    @Column(name = "flushed_at", nullable = false)
+    public Instant flushedAt;
+
+    public static class Key implements Serializable {
+        public Long itemId;
+        public String owner;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(itemId, key.itemId) && Objects.equals(owner, key.owner);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(itemId, owner);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryLease [itemId=" + itemId + ", owner='" + owner + '\'' + ", amount=" + amount +
+                ", flushedAt=" + flushedAt + ']';
+    }
+
+    /**
+     * Leases of other pods that have not been flushed since {@code cutoff}.
+     */
+    public static List<InventoryLease> abandoned(String owner, Instant cutoff) {
+        return list("owner <> ?1 and flushedAt < ?2", owner, cutoff);
+    }
+}
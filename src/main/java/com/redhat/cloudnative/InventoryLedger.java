@@ -0,0 +1,197 @@
+package com.redhat.cloudnative;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads of the stock movement ledger, and the job that snapshots it.
+ *
+ * Every {@code snapshot-interval} the job looks at the items that had
+ * movements since its last run, and snapshots each one with at least
+ * {@code snapshot-every} movements since its latest snapshot. Movements younger
+ * than {@code snapshot-lag} are left for the next run: their IDs are taken at
+ * insert, so a transaction still in flight may commit a smaller ID than one
+ * that is already visible, and a snapshot must not skip it.
+ *
+ * Stock as of a point in time is then the nearest snapshot at or before it plus
+ * the movements between that snapshot and the next one, so no query replays
+ * more than about {@code snapshot-every} movements of one item. Pods racing for
+ * the same window conflict on the snapshot's key; the loser retries on its next run.
+ */
+@ApplicationScoped
+public class InventoryLedger {
+
+    private static final Logger LOG = Logger.getLogger(InventoryLedger.class);
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "inventory.ledger.snapshot-interval", defaultValue = "1m")
+    Duration snapshotInterval;
+
+    @ConfigProperty(name = "inventory.ledger.snapshot-every", defaultValue = "500")
+    long snapshotEvery;
+
+    @ConfigProperty(name = "inventory.ledger.snapshot-lag", defaultValue = "30s")
+    Duration snapshotLag;
+
+    // Highest movement ID the job has looked at; -1 until the first run
+    private long boundary = -1;
+    private ScheduledExecutorService ticker;
+
+    void onStart(@Observes StartupEvent event) {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-ledger-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = snapshotInterval.toMillis();
+        ticker.scheduleWithFixedDelay(this::snapshotQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        LOG.infof("Ledger snapshots every %s for items with %d new movements", snapshotInterval, snapshotEvery);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Quantity of an item after every movement made up to {@code asOf}.
+     *
+     * @throws InventoryNotFoundException if the item had no history by then
+     */
+    @Transactional
+    public int quantityAsOf(Long itemId, Instant asOf) {
+        InventorySnapshot base = InventorySnapshot
+                .<InventorySnapshot>find("itemId = ?1 and asOf <= ?2 order by movementId desc", itemId, asOf)
+                .firstResult();
+        long from = base == null ? 0 : base.movementId;
+        // Movements past the next snapshot are covered by it, so the tail never exceeds one snapshot's worth
+        Long until = entityManager
+                .createQuery("select min(s.movementId) from InventorySnapshot s where s.itemId = ?1 and s.movementId > ?2",
+                        Long.class)
+                .setParameter(1, itemId)
+                .setParameter(2, from)
+                .getSingleResult();
+        Object[] tail = entityManager
+                .createQuery("select count(m), coalesce(sum(m.delta), 0) from InventoryMovement m"
+                        + " where m.itemId = ?1 and m.id > ?2 and m.id <= ?3 and m.occurredAt <= ?4", Object[].class)
+                .setParameter(1, itemId)
+                .setParameter(2, from)
+                .setParameter(3, until == null ? Long.MAX_VALUE : until)
+                .setParameter(4, asOf)
+                .getSingleResult();
+        if (base == null && (Long) tail[0] == 0) {
+            throw new InventoryNotFoundException(itemId);
+        }
+        return (base == null ? 0 : base.quantity) + ((Number) tail[1]).intValue();
+    }
+
+    /**
+     * Movements of an item, newest first.
+     *
+     * @param before only movements with a smaller ID, or {@code null} for the newest
+     */
+    @Transactional
+    public List<InventoryMovement> movements(Long itemId, Long before, int limit) {
+        return InventoryMovement.history(itemId, before, limit);
+    }
+
+    /**
+     * Snapshot every item with at least {@code snapshot-every} movements since
+     * its latest snapshot, among those that had movements since the last run.
+     *
+     * @return the number of snapshots written
+     */
+    public synchronized int snapshot() {
+        Instant cutoff = Instant.now().minus(snapshotLag);
+        return QuarkusTransaction.requiringNew().call(() -> {
+            if (boundary < 0) {
+                Long latest = entityManager
+                        .createQuery("select max(s.movementId) from InventorySnapshot s", Long.class)
+                        .getSingleResult();
+                boundary = latest == null ? 0 : latest;
+            }
+            Long last = entityManager
+                    .createQuery("select max(m.id) from InventoryMovement m where m.id > ?1 and m.occurredAt < ?2",
+                            Long.class)
+                    .setParameter(1, boundary)
+                    .setParameter(2, cutoff)
+                    .getSingleResult();
+            if (last == null) {
+                return 0;
+            }
+            List<Object[]> tails = entityManager
+                    .createQuery("select m.itemId, max(m.id), sum(m.delta), max(m.occurredAt) from InventoryMovement m"
+                            + " where m.id <= ?2"
+                            + " and m.itemId in (select w.itemId from InventoryMovement w where w.id > ?1 and w.id <= ?2)"
+                            + " and m.id > coalesce((select max(s.movementId) from InventorySnapshot s"
+                            + " where s.itemId = m.itemId), 0)"
+                            + " group by m.itemId having count(m) >= ?3", Object[].class)
+                    .setParameter(1, boundary)
+                    .setParameter(2, last)
+                    .setParameter(3, snapshotEvery)
+                    .getResultList();
+            Map<Long, Integer> previous = new HashMap<>();
+            if (!tails.isEmpty()) {
+                List<Long> itemIds = new ArrayList<>(tails.size());
+                tails.forEach(tail -> itemIds.add((Long) tail[0]));
+                for (InventorySnapshot latest : InventorySnapshot.<InventorySnapshot>list(
+                        "from InventorySnapshot s where s.itemId in ?1 and s.movementId ="
+                                + " (select max(t.movementId) from InventorySnapshot t where t.itemId = s.itemId)",
+                        itemIds)) {
+                    previous.put(latest.itemId, latest.quantity);
+                }
+            }
+            for (Object[] tail : tails) {
+                InventorySnapshot snapshot = new InventorySnapshot();
+                snapshot.itemId = (Long) tail[0];
+                snapshot.movementId = (Long) tail[1];
+                snapshot.quantity = previous.getOrDefault(snapshot.itemId, 0) + ((Number) tail[2]).intValue();
+                // Covers the latest of its movements, whatever order their IDs were taken in
+                snapshot.asOf = (Instant) tail[3];
+                snapshot.persist();
+            }
+            boundary = last;
+            if (!tails.isEmpty()) {
+                meterRegistry.counter("inventory.ledger.snapshots").increment(tails.size());
+                LOG.debugf("Snapshotted %d inventory items up to movement %d", tails.size(), last);
+            }
+            return tails.size();
+        });
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the ticker
+            LOG.warn("Ledger snapshot failed; retrying on the next run", e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.redhat.cloudnative;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Query;
+import jakarta.persistence.Table;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One change of an item's stock, appended to the ledger in the transaction of
+ * the write that made it. Movements are never updated or deleted, so
+ * {@link Inventory#quantity} is the sum of an item's movements and can be
+ * recomputed for any point in time; see {@link InventoryLedger}.
+ */
+@Entity
+@Table(name = "INVENTORY_MOVEMENT")
+public class InventoryMovement extends PanacheEntityBase {
+
+    public enum Kind {
+        /** Item created with its initial quantity */
+        CREATE,
+        /** Quantity set to an absolute value */
+        SET,
+        /** Signed adjustment, including confirmed holds */
+        ADJUST,
+        /** One line of a multi-item reservation */
+        RESERVE,
+        /** Item deleted; the delta takes its stock to zero */
+        DELETE,
+        /** Quantity written by a bulk upsert */
+        BULK,
+        /** Stock leased to (negative) or returned from (positive) a pod's {@link HotStockCounters} */
+        LEASE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "Movement ID; increases with commit order per item", readOnly = true)
+    public Long id;
+
+    @Column(name = "item_id", nullable = false)
+    @Schema(description = "Inventory item ID", example = "329299")
+    public Long itemId;
+
+    @Column(name = "product_id", nullable = false)
+    @Schema(description = "Product ID of the item", example = "1001")
+    public Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 16)
+    @Schema(description = "What made the change", example = "ADJUST")
+    public Kind kind;
+
+    @Column(name = "delta", nullable = false)
+    @Schema(description = "Signed change of the quantity", example = "-2")
+    public int delta;
+
+    @Column(name = "occurred_at", nullable = false)
+    @Schema(description = "When the change was made")
+    public Instant occurredAt;
+
+    @Override
+    public String toString() {
+        return "InventoryMovement [Id='" + id + '\'' + ", itemId=" + itemId + ", kind=" + kind + ", delta=" + delta +
+                ", occurredAt=" + occurredAt + ']';
+    }
+
+    public static InventoryMovement of(Inventory item, Kind kind, int delta) {
+        return of(item.id, item.productId, kind, delta);
+    }
+
+    public static InventoryMovement of(Long itemId, Long productId, Kind kind, int delta) {
+        InventoryMovement movement = new InventoryMovement();
+        movement.itemId = itemId;
+        movement.productId = productId;
+        movement.kind = kind;
+        movement.delta = delta;
+        movement.occurredAt = Instant.now();
+        return movement;
+    }
+
+    /**
+     * Append movements with one multi-row INSERT. Must run in the transaction
+     * of the write they describe.
+     */
+    public static void record(List<InventoryMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO INVENTORY_MOVEMENT (item_id, product_id, kind, delta, occurred_at) VALUES ");
+        for (int i = 0; i < movements.size(); i++) {
+            int p = i * 5;
+            sql.append(i == 0 ? "" : ", ")
+                    .append("(?").append(p + 1).append(", ?").append(p + 2).append(", ?").append(p + 3)
+                    .append(", ?").append(p + 4).append(", ?").append(p + 5).append(')');
+        }
+        Query insert = getEntityManager().createNativeQuery(sql.toString());
+        for (int i = 0; i < movements.size(); i++) {
+            InventoryMovement movement = movements.get(i);
+            int p = i * 5;
+            insert.setParameter(p + 1, movement.itemId);
+            insert.setParameter(p + 2, movement.productId);
+            insert.setParameter(p + 3, movement.kind.name());
+            insert.setParameter(p + 4, movement.delta);
+            insert.setParameter(p + 5, movement.occurredAt);
+        }
+        insert.executeUpdate();
+    }
+
+    public static void record(InventoryMovement movement) {
+        record(List.of(movement));
+    }
+
+    /**
+     * Movements of an item, newest first.
+     *
+     * @param before only movements with a smaller ID, or {@code null} for the newest
+     */
+    public static List<InventoryMovement> history(Long itemId, Long before, int limit) {
+        return before == null
+                ? find("itemId = ?1 order by id desc", itemId).page(0, limit).list()
+                : find("itemId = ?1 and id < ?2 order by id desc", itemId, before).page(0, limit).list();
+    }
+}
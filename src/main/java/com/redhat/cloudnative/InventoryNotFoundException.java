@@ -1,15 +1,32 @@
 package com.redhat.cloudnative;
 
+/**
+ * Raised for unknown inventory items and products; mapped to 404.
+ *
+ * Not-found is an expected outcome rather than a bug, so the exception skips
+ * the stack trace and builds its message only when it is read.
+ */
 public class InventoryNotFoundException extends RuntimeException {
 
+    private final String messagePrefix;
     private final Long itemId;
 
     public InventoryNotFoundException(Long itemId) {
-        super("Inventory item not found with id: " + itemId);
+        this("Inventory item not found with id: ", itemId);
+    }
+
+    protected InventoryNotFoundException(String messagePrefix, Long itemId) {
+        super(null, null, false, false);
+        this.messagePrefix = messagePrefix;
         this.itemId = itemId;
     }
 
+    @Override
+    public String getMessage() {
+        return messagePrefix + itemId;
+    }
+
     public Long getItemId() {
         return itemId;
     }
-}
\ No newline at end of file
+}
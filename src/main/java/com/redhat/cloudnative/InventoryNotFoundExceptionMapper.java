@@ -14,16 +14,6 @@ public class InventoryNotFoundExceptionMapper implements ExceptionMapper<Invento
 
     @Override
     public Response toResponse(InventoryNotFoundException exception) {
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .status(Response.Status.NOT_FOUND.getStatusCode())
-                .error("Not Found")
-                .message(exception.getMessage())
-                .path(uriInfo.getRequestUri().getPath())
-                .build();
-
-        return Response.status(Response.Status.NOT_FOUND)
-                .entity(errorResponse)
-                .type(jakarta.ws.rs.core.MediaType.APPLICATION_JSON)
-                .build();
+        return ErrorResponseTemplate.NOT_FOUND.toResponse(exception.getMessage(), uriInfo.getRequestUri().getPath());
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.redhat.cloudnative;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Query;
+import jakarta.persistence.Table;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A stock change waiting to be published, written in the transaction of the
+ * change itself so that an event goes out if and only if the change commits.
+ * {@link InventoryOutboxRelay} delivers and deletes it.
+ */
+@Entity
+@Table(name = "INVENTORY_OUTBOX")
+public class InventoryOutboxEvent extends PanacheEntityBase {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED;
+
+        /**
+         * The CloudEvents {@code type} attribute.
+         */
+        public String eventType() {
+            return "com.redhat.cloudnative.inventory." + name().toLowerCase();
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    public Type type;
+
+    @Column(name = "item_id", nullable = false)
+    public Long itemId;
+
+    @Column(name = "product_id", nullable = false)
+    public Long productId;
+
+    // Quantity after the change; 0 for a deleted item
+    @Column(name = "quantity", nullable = false)
+    public int quantity;
+
+    @Column(name = "version", nullable = false)
+    public long version;
+
+    @Column(name = "occurred_at", nullable = false)
+    public Instant occurredAt;
+
+    @Column(name = "attempts", nullable = false)
+    public int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    public Instant nextAttemptAt;
+
+    @Override
+    public String toString() {
+        return "InventoryOutboxEvent [Id='" + id + '\'' + ", type=" + type + ", itemId=" + itemId +
+                ", version=" + version + ", attempts=" + attempts + ']';
+    }
+
+    /**
+     * Enqueue one event per item, as the items are now stored, with one
+     * multi-row INSERT. Must run in the transaction of the change.
+     */
+    public static void enqueue(List<Inventory> items, Type type) {
+        if (items.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO INVENTORY_OUTBOX"
+                + " (type, item_id, product_id, quantity, version, occurred_at, attempts, next_attempt_at) VALUES ");
+        for (int i = 0; i < items.size(); i++) {
+            int p = i * 6;
+            sql.append(i == 0 ? "" : ", ")
+                    .append("(?").append(p + 1).append(", ?").append(p + 2).append(", ?").append(p + 3)
+                    .append(", ?").append(p + 4).append(", ?").append(p + 5).append(", ?").append(p + 6)
+                    .append(", 0, ?").append(p + 6).append(')');
+        }
+        Instant now = Instant.now();
+        Query insert = getEntityManager().createNativeQuery(sql.toString());
+        for (int i = 0; i < items.size(); i++) {
+            Inventory item = items.get(i);
+            int p = i * 6;
+            insert.setParameter(p + 1, type.name());
+            insert.setParameter(p + 2, item.id);
+            insert.setParameter(p + 3, item.productId);
+            insert.setParameter(p + 4, type == Type.DELETED ? 0 : item.quantity);
+            insert.setParameter(p + 5, item.version);
+            insert.setParameter(p + 6, now);
+        }
+        insert.executeUpdate();
+    }
+
+    public static void enqueue(Inventory item, Type type) {
+        enqueue(List.of(item), type);
+    }
+}
@@ -0,0 +1,219 @@
+package com.redhat.cloudnative;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the {@link InventoryOutboxEvent outbox} as CloudEvents to the
+ * Knative broker (kubernetes/kbroker.yaml), so consumers learn about stock
+ * changes without polling {@code /all}.
+ *
+ * Every {@code poll-interval} the relay claims up to {@code batch-size} due
+ * events with {@code SELECT ... FOR UPDATE SKIP LOCKED}, POSTs them to the
+ * sink concurrently in binary content mode, and in the same transaction deletes
+ * the delivered ones and reschedules the rest with exponential backoff. Replicas
+ * skip each other's claimed rows, so they share the work without coordination.
+ *
+ * Delivery is at least once: a relay that dies after the POST but before the
+ * commit sends the event again. Events of one item may also arrive out of order
+ * when replicas deliver them in parallel; the {@code version} in the body lets
+ * consumers drop stale ones.
+ */
+@ApplicationScoped
+public class InventoryOutboxRelay {
+
+    private static final Logger LOG = Logger.getLogger(InventoryOutboxRelay.class);
+
+    private static final String CLAIM = "SELECT * FROM INVENTORY_OUTBOX WHERE next_attempt_at <= ?1"
+            + " ORDER BY id LIMIT ?2 FOR UPDATE SKIP LOCKED";
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "inventory.outbox.relay.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "inventory.outbox.sink-url",
+            defaultValue = "http://broker-ingress.knative-eventing.svc.cluster.local/coolstore/default")
+    String sinkUrl;
+
+    @ConfigProperty(name = "inventory.outbox.source", defaultValue = "/coolstore/inventory")
+    String source;
+
+    @ConfigProperty(name = "inventory.outbox.batch-size", defaultValue = "100")
+    int batchSize;
+
+    @ConfigProperty(name = "inventory.outbox.poll-interval", defaultValue = "500ms")
+    Duration pollInterval;
+
+    @ConfigProperty(name = "inventory.outbox.delivery-timeout", defaultValue = "5s")
+    Duration deliveryTimeout;
+
+    @ConfigProperty(name = "inventory.outbox.max-backoff", defaultValue = "5m")
+    Duration maxBackoff;
+
+    private HttpClient client;
+    private ScheduledExecutorService ticker;
+
+    void onStart(@Observes StartupEvent event) {
+        client = HttpClient.newBuilder().connectTimeout(deliveryTimeout).build();
+        if (!enabled) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = pollInterval.toMillis();
+        ticker.scheduleWithFixedDelay(this::drainQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        LOG.infof("Outbox relay publishing to %s every %s, up to %d events per batch", sinkUrl, pollInterval,
+                batchSize);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Deliver due events, batch by batch, until a batch comes back short or
+     * has failures.
+     *
+     * @return the number of events delivered
+     */
+    public int drain() {
+        int delivered = 0;
+        while (true) {
+            int[] outcome = QuarkusTransaction.requiringNew().call(this::relayBatch);
+            delivered += outcome[0];
+            if (outcome[0] + outcome[1] < batchSize || outcome[1] > 0) {
+                return delivered;
+            }
+        }
+    }
+
+    /**
+     * @return events delivered and failed
+     */
+    @SuppressWarnings("unchecked")
+    private int[] relayBatch() {
+        Instant now = Instant.now();
+        List<InventoryOutboxEvent> events = entityManager.createNativeQuery(CLAIM, InventoryOutboxEvent.class)
+                .setParameter(1, now)
+                .setParameter(2, batchSize)
+                .getResultList();
+        if (events.isEmpty()) {
+            return new int[] { 0, 0 };
+        }
+        List<CompletableFuture<Boolean>> sends = new ArrayList<>(events.size());
+        for (InventoryOutboxEvent event : events) {
+            sends.add(send(event));
+        }
+        List<Long> delivered = new ArrayList<>(events.size());
+        int failed = 0;
+        for (int i = 0; i < events.size(); i++) {
+            InventoryOutboxEvent event = events.get(i);
+            if (sends.get(i).join()) {
+                delivered.add(event.id);
+            } else {
+                event.attempts++;
+                event.nextAttemptAt = now.plus(backoff(event.attempts));
+                failed++;
+            }
+        }
+        if (!delivered.isEmpty()) {
+            InventoryOutboxEvent.delete("id in ?1", delivered);
+        }
+        meterRegistry.counter("inventory.outbox.delivered").increment(delivered.size());
+        if (failed > 0) {
+            meterRegistry.counter("inventory.outbox.failed").increment(failed);
+            LOG.warnf("Failed to deliver %d of %d stock events to %s; retrying with backoff", failed, events.size(),
+                    sinkUrl);
+        }
+        return new int[] { delivered.size(), failed };
+    }
+
+    /**
+     * POST one event in CloudEvents binary content mode.
+     *
+     * @return completes with whether the sink accepted the event; never exceptionally
+     */
+    private CompletableFuture<Boolean> send(InventoryOutboxEvent event) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(sinkUrl))
+                    .timeout(deliveryTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("ce-specversion", "1.0")
+                    .header("ce-id", String.valueOf(event.id))
+                    .header("ce-source", source)
+                    .header("ce-type", event.type.eventType())
+                    .header("ce-subject", String.valueOf(event.itemId))
+                    .header("ce-time", event.occurredAt.toString())
+                    // Extension attribute, so triggers can filter on the product
+                    .header("ce-productid", String.valueOf(event.productId))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(new StockChangeEvent(
+                            event.itemId, event.productId, event.quantity, event.version, event.occurredAt))))
+                    .build();
+        } catch (JsonProcessingException e) {
+            LOG.errorf(e, "Failed to encode stock event %d", event.id);
+            return CompletableFuture.completedFuture(false);
+        }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    if (failure != null) {
+                        LOG.debugf(failure, "Delivery of stock event %d failed", event.id);
+                        return false;
+                    }
+                    return response.statusCode() / 100 == 2;
+                });
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = pollInterval.multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the ticker
+            LOG.warn("Outbox relay failed; retrying on the next poll", e);
+        }
+    }
+}
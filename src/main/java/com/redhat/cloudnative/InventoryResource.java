@@ -10,6 +10,7 @@ import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.PATCH;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
@@ -17,15 +18,14 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
-import io.quarkus.cache.Cache;
-import io.quarkus.cache.CacheInvalidate;
-import io.quarkus.cache.CacheInvalidateAll;
-import io.quarkus.cache.CacheName;
-import io.quarkus.cache.CacheResult;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
@@ -44,36 +44,82 @@ import java.util.List;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Tag(name = "Inventory", description = "Inventory management operations")
+@RunOnVirtualThread
+@Bulkhead
 public class InventoryResource {
 
     private static final Logger LOG = Logger.getLogger(InventoryResource.class);
 
     @Inject
-    @CacheName("inventory-cache")
-    Cache inventoryCache;
+    InventoryCacheCoordinator cacheCoordinator;
+
+    @Inject
+    InventoryCacheLoader cacheLoader;
+
+    @Inject
+    InventoryExporter exporter;
+
+    @Inject
+    StockHoldService holdService;
+
+    @Inject
+    InventoryBatchService batchService;
+
+    @Inject
+    InventoryStockService stockService;
+
+    @Inject
+    InventoryWriteCoalescer writeCoalescer;
+
+    @Inject
+    HotStockCounters hotStock;
 
     @GET
-    @Operation(summary = "List all inventory items", description = "Returns a paginated list of inventory items with metadata")
+    @Operation(summary = "List all inventory items", description = "Returns a paginated list of inventory items with metadata. Pass the returned nextCursor as 'cursor' for keyset paging that stays fast at any depth")
     @APIResponses(value = {
-            @APIResponse(responseCode = "200", description = "Paginated list of inventory items", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = PaginatedResponse.class)))
+            @APIResponse(responseCode = "200", description = "Paginated list of inventory items", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = PaginatedResponse.class))),
+            @APIResponse(responseCode = "304", description = "Not modified since the listing tagged with If-None-Match"),
+            @APIResponse(responseCode = "400", description = "Negative or out-of-range page, invalid cursor or sort key", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public PaginatedResponse<Inventory> listAll(
-            @Parameter(description = "Page number (0-based)") @QueryParam("page") @DefaultValue("0") int page,
-            @Parameter(description = "Page size (max 100)") @QueryParam("size") @DefaultValue("20") int size) {
-        LOG.debugf("Listing inventory items - page: %d, size: %d", page, size);
+    public Response listAll(
+            @Parameter(description = "Page number (0-based, ignored when a cursor is given)") @QueryParam("page") @DefaultValue("0") int page,
+            @Parameter(description = "Page size (max 100)") @QueryParam("size") @DefaultValue("20") int size,
+            @Parameter(description = "Opaque cursor from a previous response's nextCursor; seeks on the index instead of using an offset") @QueryParam("cursor") String cursor,
+            @Parameter(description = "Sort key backed by a unique index: id (default) or productId") @QueryParam("sort") String sort,
+            @Parameter(description = "Whether to compute the total count (defaults to true for page mode, false for cursor mode)") @QueryParam("includeTotal") Boolean includeTotal,
+            @Parameter(description = "ETag of a previous listing; answered with 304 if no item or hold on this page has changed since") @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        LOG.debugf("Listing inventory items - page: %d, size: %d, cursor: %s", page, size, cursor);
         // Limit page size to prevent performance issues
-        int effectiveSize = Math.min(size, 100);
-        List<Inventory> items = Inventory.findAll()
-                .page(page, effectiveSize)
-                .list();
-        long total = Inventory.count();
-        LOG.debugf("Found %d items out of %d total", items.size(), total);
-        return PaginatedResponse.of(items, total, page, effectiveSize);
+        int effectiveSize = Math.max(1, Math.min(size, 100));
+        List<Inventory> items;
+        InventoryCursor.SortKey sortKey;
+        boolean keyset = cursor != null && !cursor.isBlank();
+        if (keyset) {
+            InventoryCursor decoded = InventoryCursor.decode(cursor);
+            sortKey = decoded.getSortKey();
+            items = Inventory.findAfter(sortKey, decoded.getLastValue(), effectiveSize + 1);
+        } else {
+            sortKey = InventoryCursor.SortKey.fromParam(sort);
+            items = Inventory.findRange(sortKey, PaginatedResponse.offset(page, effectiveSize), effectiveSize + 1);
+        }
+        holdService.applyAvailability(items);
+        Long total = (includeTotal != null ? includeTotal : !keyset) ? Inventory.count() : null;
+        LOG.debugf("Found %d items (total: %s)", items.size(), total);
+        // Tagged from the rows of this page only, so a 304 costs no more than the page itself
+        String etag = InventoryETag.ofPage(items, total);
+        if (InventoryETag.notModified(ifNoneMatch, null, etag, null)) {
+            return Response.notModified().header(HttpHeaders.ETAG, etag).build();
+        }
+        final InventoryCursor.SortKey key = sortKey;
+        return Response.ok(PaginatedResponse.ofLookAhead(items, total, keyset ? 0 : page, effectiveSize,
+                keyset || page > 0, last -> InventoryCursor.after(key, last).encode()))
+                .header(HttpHeaders.ETAG, etag)
+                .build();
     }
 
     @GET
     @Path("/all")
-    @Operation(summary = "List all inventory items without pagination", description = "Returns a simple list of all inventory items (use with caution for large datasets)")
+    @Operation(summary = "List all inventory items without pagination", description = "Returns a simple list of all inventory items (use with caution for large datasets; prefer /all/stream)")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "List of all inventory items", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class)))
     })
@@ -82,6 +128,21 @@ public class InventoryResource {
         return Inventory.listAll();
     }
 
+    @GET
+    @Path("/all/stream")
+    @Produces({ InventoryExporter.APPLICATION_NDJSON, MediaType.APPLICATION_JSON })
+    @Operation(summary = "Stream all inventory items", description = "Streams every inventory item in constant server memory, as NDJSON (default) or as a chunked JSON array when only application/json is accepted")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Stream of all inventory items", content = {
+                    @Content(mediaType = InventoryExporter.APPLICATION_NDJSON, schema = @Schema(implementation = Inventory.class)),
+                    @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class)) })
+    })
+    public Response streamAll(@Context HttpHeaders headers) {
+        MediaType format = exporter.negotiate(headers.getAcceptableMediaTypes());
+        LOG.debugf("Streaming all inventory items as %s", format);
+        return Response.ok(exporter.export(format), format).build();
+    }
+
     @GET
     @Path("/count")
     @Produces(MediaType.TEXT_PLAIN)
@@ -100,16 +161,10 @@ public class InventoryResource {
             @APIResponse(responseCode = "200", description = "Inventory item found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
             @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
     })
-    @CacheResult(cacheName = "inventory-cache")
-    public Inventory getAvailability(
+    public EncodedInventory getAvailability(
             @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId) {
         LOG.debugf("Getting inventory by ID: %d", itemId);
-        Inventory inventory = Inventory.findById(itemId);
-        if (inventory == null) {
-            LOG.warnf("Inventory item not found with ID: %d", itemId);
-            throw new InventoryNotFoundException(itemId);
-        }
-        return inventory;
+        return cacheLoader.getEncodedById(itemId);
     }
 
     @GET
@@ -119,16 +174,34 @@ public class InventoryResource {
             @APIResponse(responseCode = "200", description = "Inventory item found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
             @APIResponse(responseCode = "404", description = "Inventory item not found for the product", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
     })
-    @CacheResult(cacheName = "inventory-product-cache")
-    public Inventory getByProductId(
+    public EncodedInventory getByProductId(
             @Parameter(description = "Product ID", required = true) @PathParam("productId") Long productId) {
         LOG.debugf("Getting inventory by product ID: %d", productId);
-        Inventory inventory = Inventory.findByProductId(productId);
-        if (inventory == null) {
-            LOG.warnf("Inventory not found for product ID: %d", productId);
-            throw new InventoryNotFoundException(productId);
-        }
-        return inventory;
+        return cacheLoader.getEncodedByProductId(productId);
+    }
+
+    @GET
+    @Path("/batch")
+    @Operation(summary = "Get inventory for many products", description = "Returns inventory for up to 500 product IDs (repeated or comma-separated), served from the product cache where possible and loading all misses with one query")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Inventory keyed by product ID", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = BatchLookupResponse.class))),
+            @APIResponse(responseCode = "400", description = "Missing or too many product IDs", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public BatchLookupResponse getBatch(
+            @Parameter(description = "Product IDs, e.g. productIds=1001,1002 or productIds=1001&productIds=1002", required = true) @QueryParam("productIds") List<String> productIds) {
+        return batchService.lookupByProductIds(InventoryBatchService.parseProductIds(productIds));
+    }
+
+    @POST
+    @Path("/batch")
+    @Operation(summary = "Get inventory for many products", description = "Same as GET /batch, with the product IDs in the request body")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Inventory keyed by product ID", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = BatchLookupResponse.class))),
+            @APIResponse(responseCode = "400", description = "Missing or too many product IDs", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public BatchLookupResponse postBatch(
+            @RequestBody(description = "Product IDs to look up", required = true, content = @Content(schema = @Schema(implementation = BatchLookupRequest.class))) @Valid BatchLookupRequest request) {
+        return batchService.lookupByProductIds(request.getProductIds());
     }
 
     @POST
@@ -140,8 +213,6 @@ public class InventoryResource {
             @APIResponse(responseCode = "401", description = "Unauthorized"),
             @APIResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
     })
-    @CacheInvalidateAll(cacheName = "inventory-cache")
-    @CacheInvalidateAll(cacheName = "inventory-product-cache")
     public Response create(
             @RequestBody(description = "Inventory item to create", required = true, content = @Content(schema = @Schema(implementation = Inventory.class))) @Valid Inventory inventory) {
         LOG.infof("Creating inventory item for product ID: %d with quantity: %d", inventory.productId,
@@ -149,6 +220,9 @@ public class InventoryResource {
         // Clear any provided ID to let the database auto-generate it
         inventory.id = null;
         inventory.persist();
+        InventoryMovement.record(InventoryMovement.of(inventory, InventoryMovement.Kind.CREATE, inventory.quantity));
+        InventoryOutboxEvent.enqueue(inventory, InventoryOutboxEvent.Type.CREATED);
+        cacheCoordinator.evictAfterCommit(inventory);
         LOG.infof("Created inventory item with ID: %d", inventory.id);
         return Response.created(URI.create("/api/inventory/" + inventory.id))
                 .entity(inventory)
@@ -157,81 +231,67 @@ public class InventoryResource {
 
     @PUT
     @Path("/{itemId}")
-    @Transactional
     @Operation(summary = "Update inventory item", description = "Updates an existing inventory item completely")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "Inventory item updated", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
             @APIResponse(responseCode = "400", description = "Invalid inventory data", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
             @APIResponse(responseCode = "401", description = "Unauthorized"),
             @APIResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
-            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "412", description = "If-Match does not match the current ETag", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
     })
-    @CacheInvalidate(cacheName = "inventory-cache")
-    @CacheInvalidateAll(cacheName = "inventory-product-cache")
     public Inventory update(
             @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId,
+            @Parameter(description = "ETag of the version being replaced; the update fails with 412 if the item has changed since") @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
             @RequestBody(description = "Updated inventory data", required = true, content = @Content(schema = @Schema(implementation = Inventory.class))) @Valid Inventory updatedInventory) {
         LOG.infof("Updating inventory item ID: %d with quantity: %d", itemId, updatedInventory.quantity);
-        Inventory inventory = Inventory.findById(itemId);
-        if (inventory == null) {
-            LOG.warnf("Inventory item not found for update with ID: %d", itemId);
-            throw new InventoryNotFoundException(itemId);
-        }
-        inventory.quantity = updatedInventory.quantity;
-        inventory.persist();
+        Long expectedVersion = hotStock.release(itemId, InventoryETag.expectedVersion(ifMatch));
+        Inventory inventory = stockService.setQuantity(itemId, updatedInventory.quantity, expectedVersion);
+        cacheCoordinator.evict(inventory);
         LOG.infof("Updated inventory item ID: %d", itemId);
         return inventory;
     }
 
     @PATCH
     @Path("/{itemId}/quantity")
-    @Transactional
     @Operation(summary = "Update inventory quantity", description = "Updates only the quantity of an inventory item")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "Quantity updated", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
             @APIResponse(responseCode = "400", description = "Invalid quantity value", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
             @APIResponse(responseCode = "401", description = "Unauthorized"),
             @APIResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
-            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "412", description = "If-Match does not match the current ETag", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
     })
-    @CacheInvalidate(cacheName = "inventory-cache")
-    @CacheInvalidateAll(cacheName = "inventory-product-cache")
     public Inventory updateQuantity(
             @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId,
+            @Parameter(description = "ETag of the version being changed; the update fails with 412 if the item has changed since") @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
             @RequestBody(description = "New quantity value", required = true, content = @Content(schema = @Schema(implementation = QuantityUpdateRequest.class))) @Valid QuantityUpdateRequest request) {
         LOG.infof("Updating quantity for inventory ID: %d to %d", itemId, request.getQuantity());
-        Inventory inventory = Inventory.findById(itemId);
-        if (inventory == null) {
-            LOG.warnf("Inventory item not found for quantity update with ID: %d", itemId);
-            throw new InventoryNotFoundException(itemId);
-        }
-        inventory.quantity = request.getQuantity();
-        inventory.persist();
+        Long expectedVersion = hotStock.release(itemId, InventoryETag.expectedVersion(ifMatch));
+        Inventory inventory = writeCoalescer.setQuantity(itemId, request.getQuantity(), expectedVersion);
+        cacheCoordinator.evict(inventory);
         LOG.infof("Updated quantity for inventory ID: %d", itemId);
         return inventory;
     }
 
     @DELETE
     @Path("/{itemId}")
-    @Transactional
     @Operation(summary = "Delete inventory item", description = "Deletes an inventory item by its ID")
     @APIResponses(value = {
             @APIResponse(responseCode = "204", description = "Inventory item deleted"),
             @APIResponse(responseCode = "401", description = "Unauthorized"),
             @APIResponse(responseCode = "403", description = "Forbidden - Admin role required"),
-            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "412", description = "If-Match does not match the current ETag", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
     })
-    @CacheInvalidate(cacheName = "inventory-cache")
-    @CacheInvalidateAll(cacheName = "inventory-product-cache")
     public Response delete(
-            @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId) {
+            @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId,
+            @Parameter(description = "ETag of the version being deleted; the delete fails with 412 if the item has changed since") @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
         LOG.infof("Deleting inventory item ID: %d", itemId);
-        Inventory inventory = Inventory.findById(itemId);
-        if (inventory == null) {
-            LOG.warnf("Inventory item not found for deletion with ID: %d", itemId);
-            throw new InventoryNotFoundException(itemId);
-        }
-        inventory.delete();
+        Long expectedVersion = hotStock.release(itemId, InventoryETag.expectedVersion(ifMatch));
+        Inventory inventory = stockService.delete(itemId, expectedVersion);
+        cacheCoordinator.evict(inventory);
         LOG.infof("Deleted inventory item ID: %d", itemId);
         return Response.noContent().build();
     }
@@ -247,10 +307,9 @@ public class InventoryResource {
             @APIResponse(responseCode = "401", description = "Unauthorized"),
             @APIResponse(responseCode = "403", description = "Forbidden - Admin role required")
     })
-    @CacheInvalidateAll(cacheName = "inventory-cache")
-    @CacheInvalidateAll(cacheName = "inventory-product-cache")
     public Response clearCaches() {
         LOG.info("Clearing all inventory caches");
+        cacheCoordinator.evictAll();
         return Response.noContent().build();
     }
 
@@ -8,6 +8,8 @@ import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.PATCH;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
@@ -15,22 +17,22 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
-import io.quarkus.cache.Cache;
-import io.quarkus.cache.CacheInvalidate;
-import io.quarkus.cache.CacheInvalidateAll;
-import io.quarkus.cache.CacheName;
-import io.quarkus.cache.CacheResult;
 
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
 import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
 import org.eclipse.microprofile.faulttolerance.Timeout;
 import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
 
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
@@ -42,26 +44,66 @@ import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.logging.Logger;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 /**
  * Inventory API v1 - Versioned endpoint with metrics and resilience patterns
  * 
  * API Versioning Strategy: URI Path versioning (/api/v1/inventory)
+ *
+ * Execution: endpoints run on virtual threads when quarkus.virtual-threads.enabled
+ * is set and on the worker pool otherwise. Each endpoint has a bulkhead
+ * (Bulkhead/value) so concurrency stays bounded once threads no longer bound it.
  */
 @Path("/api/v1/inventory")
 @ApplicationScoped
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Tag(name = "Inventory v1", description = "Inventory management operations (v1)")
+@RunOnVirtualThread
+@Bulkhead
 public class InventoryResourceV1 {
 
     private static final Logger LOG = Logger.getLogger(InventoryResourceV1.class);
 
     @Inject
-    @CacheName("inventory-cache")
-    Cache inventoryCache;
+    InventoryCacheCoordinator cacheCoordinator;
+
+    @Inject
+    InventoryCacheLoader cacheLoader;
+
+    @Inject
+    InventoryExporter exporter;
+
+    @Inject
+    StockHoldService holdService;
+
+    @Inject
+    InventoryBatchService batchService;
+
+    @Inject
+    InventoryBulkService bulkService;
+
+    @Inject
+    InventoryStockService stockService;
+
+    @Inject
+    InventoryWriteCoalescer writeCoalescer;
+
+    @Inject
+    HotStockCounters hotStock;
+
+    @Inject
+    InventoryDatasetGenerator datasetGenerator;
+
+    @Inject
+    InventoryLedger ledger;
 
     @Inject
     MeterRegistry meterRegistry;
@@ -71,28 +113,55 @@ public class InventoryResourceV1 {
 
     @GET
     @Timeout(5000)
-    @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5, delay = 5000, successThreshold = 3)
+    @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5, delay = 5000, successThreshold = 3, skipOn = BulkheadException.class)
     @Counted(value = "inventory.list.count", description = "How many times inventory list has been requested")
     @Timed(value = "inventory.list.timer", description = "Time taken to list inventory items", percentiles = { 0.5,
             0.95, 0.99 })
-    @Operation(summary = "List all inventory items (v1)", description = "Returns a paginated list of inventory items with metadata")
+    @Operation(summary = "List all inventory items (v1)", description = "Returns a paginated list of inventory items with metadata. Pass the returned nextCursor as 'cursor' for keyset paging that stays fast at any depth")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "Paginated list of inventory items", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = PaginatedResponse.class))),
+            @APIResponse(responseCode = "304", description = "Not modified since the listing tagged with If-None-Match"),
+            @APIResponse(responseCode = "400", description = "Negative or out-of-range page, invalid cursor or sort key", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
             @APIResponse(responseCode = "503", description = "Service unavailable - Circuit breaker open")
     })
-    public PaginatedResponse<Inventory> listAll(
-            @Parameter(description = "Page number (0-based)") @QueryParam("page") @DefaultValue("0") int page,
-            @Parameter(description = "Page size (max 100)") @QueryParam("size") @DefaultValue("20") int size) {
-        LOG.debugf("Listing inventory items - page: %d, size: %d", page, size);
-        int effectiveSize = Math.min(size, 100);
-        List<Inventory> items = Inventory.findAll()
-                .page(page, effectiveSize)
-                .list();
-        long total = Inventory.count();
-        // Record gauge metric
-        meterRegistry.gauge("inventory.total.items", total);
-        LOG.debugf("Found %d items out of %d total", items.size(), total);
-        return PaginatedResponse.of(items, total, page, effectiveSize);
+    public Response listAll(
+            @Parameter(description = "Page number (0-based, ignored when a cursor is given)") @QueryParam("page") @DefaultValue("0") int page,
+            @Parameter(description = "Page size (max 100)") @QueryParam("size") @DefaultValue("20") int size,
+            @Parameter(description = "Opaque cursor from a previous response's nextCursor; seeks on the index instead of using an offset") @QueryParam("cursor") String cursor,
+            @Parameter(description = "Sort key backed by a unique index: id (default) or productId") @QueryParam("sort") String sort,
+            @Parameter(description = "Whether to compute the total count (defaults to true for page mode, false for cursor mode)") @QueryParam("includeTotal") Boolean includeTotal,
+            @Parameter(description = "ETag of a previous listing; answered with 304 if no item or hold on this page has changed since") @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        LOG.debugf("Listing inventory items - page: %d, size: %d, cursor: %s", page, size, cursor);
+        // Limit page size to prevent performance issues
+        int effectiveSize = Math.max(1, Math.min(size, 100));
+        List<Inventory> items;
+        InventoryCursor.SortKey sortKey;
+        boolean keyset = cursor != null && !cursor.isBlank();
+        if (keyset) {
+            InventoryCursor decoded = InventoryCursor.decode(cursor);
+            sortKey = decoded.getSortKey();
+            items = Inventory.findAfter(sortKey, decoded.getLastValue(), effectiveSize + 1);
+        } else {
+            sortKey = InventoryCursor.SortKey.fromParam(sort);
+            items = Inventory.findRange(sortKey, PaginatedResponse.offset(page, effectiveSize), effectiveSize + 1);
+        }
+        holdService.applyAvailability(items);
+        Long total = (includeTotal != null ? includeTotal : !keyset) ? Inventory.count() : null;
+        if (total != null) {
+            // Record gauge metric
+            meterRegistry.gauge("inventory.total.items", total);
+        }
+        LOG.debugf("Found %d items (total: %s)", items.size(), total);
+        // Tagged from the rows of this page only, so a 304 costs no more than the page itself
+        String etag = InventoryETag.ofPage(items, total);
+        if (InventoryETag.notModified(ifNoneMatch, null, etag, null)) {
+            return Response.notModified().header(HttpHeaders.ETAG, etag).build();
+        }
+        final InventoryCursor.SortKey key = sortKey;
+        return Response.ok(PaginatedResponse.ofLookAhead(items, total, keyset ? 0 : page, effectiveSize,
+                keyset || page > 0, last -> InventoryCursor.after(key, last).encode()))
+                .header(HttpHeaders.ETAG, etag)
+                .build();
     }
 
     @GET
@@ -109,6 +178,22 @@ public class InventoryResourceV1 {
         return Inventory.listAll();
     }
 
+    @GET
+    @Path("/all/stream")
+    @Produces({ InventoryExporter.APPLICATION_NDJSON, MediaType.APPLICATION_JSON })
+    @Counted(value = "inventory.export.count", description = "How many times the inventory export stream has been requested")
+    @Operation(summary = "Stream all inventory items (v1)", description = "Streams every inventory item in constant server memory, as NDJSON (default) or as a chunked JSON array when only application/json is accepted")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Stream of all inventory items", content = {
+                    @Content(mediaType = InventoryExporter.APPLICATION_NDJSON, schema = @Schema(implementation = Inventory.class)),
+                    @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class)) })
+    })
+    public Response streamAll(@Context HttpHeaders headers) {
+        MediaType format = exporter.negotiate(headers.getAcceptableMediaTypes());
+        LOG.debugf("Streaming all inventory items as %s", format);
+        return Response.ok(exporter.export(format), format).build();
+    }
+
     @GET
     @Path("/count")
     @Produces(MediaType.TEXT_PLAIN)
@@ -124,8 +209,7 @@ public class InventoryResourceV1 {
     @GET
     @Path("/{itemId}")
     @Timeout(2000)
-    @Retry(maxRetries = 3, delay = 100)
-    @CacheResult(cacheName = "inventory-cache")
+    @Retry(maxRetries = 3, delay = 100, abortOn = { InventoryNotFoundException.class, BulkheadException.class })
     @Counted(value = "inventory.get.by.id.count", description = "How many times get by ID has been requested")
     @Timed(value = "inventory.get.by.id.timer", description = "Time taken to get inventory by ID")
     @Operation(summary = "Get inventory by ID (v1)", description = "Returns a single inventory item by its ID (cached)")
@@ -133,22 +217,16 @@ public class InventoryResourceV1 {
             @APIResponse(responseCode = "200", description = "Inventory item found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
             @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Inventory getAvailability(
+    public EncodedInventory getAvailability(
             @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId) {
         LOG.debugf("Getting inventory by ID: %d", itemId);
-        Inventory inventory = Inventory.findById(itemId);
-        if (inventory == null) {
-            LOG.warnf("Inventory item not found with ID: %d", itemId);
-            throw new InventoryNotFoundException(itemId);
-        }
-        return inventory;
+        return cacheLoader.getEncodedById(itemId);
     }
 
     @GET
     @Path("/product/{productId}")
     @Timeout(2000)
-    @Retry(maxRetries = 3, delay = 100)
-    @CacheResult(cacheName = "inventory-product-cache")
+    @Retry(maxRetries = 3, delay = 100, abortOn = { InventoryNotFoundException.class, BulkheadException.class })
     @Counted(value = "inventory.get.by.product.count", description = "How many times get by product ID has been requested")
     @Timed(value = "inventory.get.by.product.timer", description = "Time taken to get inventory by product ID")
     @Operation(summary = "Get inventory by product ID (v1)", description = "Returns the inventory item for a specific product")
@@ -156,15 +234,40 @@ public class InventoryResourceV1 {
             @APIResponse(responseCode = "200", description = "Inventory item found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
             @APIResponse(responseCode = "404", description = "Inventory item not found for the product", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Inventory getByProductId(
+    public EncodedInventory getByProductId(
             @Parameter(description = "Product ID", required = true) @PathParam("productId") Long productId) {
         LOG.debugf("Getting inventory by product ID: %d", productId);
-        Inventory inventory = Inventory.findByProductId(productId);
-        if (inventory == null) {
-            LOG.warnf("Inventory not found for product ID: %d", productId);
-            throw new InventoryNotFoundException(productId);
-        }
-        return inventory;
+        return cacheLoader.getEncodedByProductId(productId);
+    }
+
+    // ==================== BATCH LOOKUP ENDPOINTS ====================
+
+    @GET
+    @Path("/batch")
+    @Counted(value = "inventory.get.batch.count", description = "How many batch lookups have been requested")
+    @Timed(value = "inventory.get.batch.timer", description = "Time taken to look up a batch of products")
+    @Operation(summary = "Get inventory for many products (v1)", description = "Returns inventory for up to 500 product IDs (repeated or comma-separated), served from the product cache where possible and loading all misses with one query")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Inventory keyed by product ID", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = BatchLookupResponse.class))),
+            @APIResponse(responseCode = "400", description = "Missing or too many product IDs", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public BatchLookupResponse getBatch(
+            @Parameter(description = "Product IDs, e.g. productIds=1001,1002 or productIds=1001&productIds=1002", required = true) @QueryParam("productIds") List<String> productIds) {
+        return batchService.lookupByProductIds(InventoryBatchService.parseProductIds(productIds));
+    }
+
+    @POST
+    @Path("/batch")
+    @Counted(value = "inventory.get.batch.count", description = "How many batch lookups have been requested")
+    @Timed(value = "inventory.get.batch.timer", description = "Time taken to look up a batch of products")
+    @Operation(summary = "Get inventory for many products (v1)", description = "Same as GET /batch, with the product IDs in the request body")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Inventory keyed by product ID", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = BatchLookupResponse.class))),
+            @APIResponse(responseCode = "400", description = "Missing or too many product IDs", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public BatchLookupResponse postBatch(
+            @RequestBody(description = "Product IDs to look up", required = true, content = @Content(schema = @Schema(implementation = BatchLookupRequest.class))) @Valid BatchLookupRequest request) {
+        return batchService.lookupByProductIds(request.getProductIds());
     }
 
     // ==================== POST ENDPOINT ====================
@@ -178,46 +281,61 @@ public class InventoryResourceV1 {
             @APIResponse(responseCode = "201", description = "Inventory item created", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
             @APIResponse(responseCode = "400", description = "Invalid inventory data", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
     })
-    @CacheInvalidateAll(cacheName = "inventory-cache")
-    @CacheInvalidateAll(cacheName = "inventory-product-cache")
     public Response create(
             @RequestBody(description = "Inventory item to create", required = true, content = @Content(schema = @Schema(implementation = Inventory.class))) @Valid Inventory inventory) {
         LOG.infof("Creating inventory item for product ID: %d with quantity: %d", inventory.productId,
                 inventory.quantity);
         inventory.id = null;
         inventory.persist();
+        InventoryMovement.record(InventoryMovement.of(inventory, InventoryMovement.Kind.CREATE, inventory.quantity));
+        InventoryOutboxEvent.enqueue(inventory, InventoryOutboxEvent.Type.CREATED);
+        cacheCoordinator.evictAfterCommit(inventory);
         LOG.infof("Created inventory item with ID: %d", inventory.id);
         return Response.created(URI.create("/api/v1/inventory/" + inventory.id))
                 .entity(inventory)
                 .build();
     }
 
+    @POST
+    @Path("/bulk")
+    @Consumes({ MediaType.APPLICATION_JSON, InventoryExporter.APPLICATION_NDJSON })
+    @Counted(value = "inventory.bulk.upsert.count", description = "How many bulk upserts have been requested")
+    @Timed(value = "inventory.bulk.upsert.timer", description = "Time taken to run a bulk upsert")
+    @Operation(summary = "Bulk upsert inventory items (v1)", description = "Inserts or updates many items keyed on productId, from a JSON array or an NDJSON stream. Rows are written in JDBC batches, one transaction per batch")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Rows upserted", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = BulkUpsertResponse.class))),
+            @APIResponse(responseCode = "400", description = "Malformed or invalid row; earlier batches stay committed", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public BulkUpsertResponse bulkUpsert(
+            @RequestBody(description = "Inventory rows (productId, quantity) as a JSON array or NDJSON", required = true, content = {
+                    @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = BulkUpsertRow.class)),
+                    @Content(mediaType = InventoryExporter.APPLICATION_NDJSON, schema = @Schema(implementation = BulkUpsertRow.class)) }) InputStream body)
+            throws IOException {
+        LOG.info("Starting bulk upsert");
+        return bulkService.upsert(body);
+    }
+
     // ==================== PUT ENDPOINT ====================
 
     @PUT
     @Path("/{itemId}")
-    @Transactional
     @Counted(value = "inventory.update.count", description = "How many inventory items have been updated")
     @Timed(value = "inventory.update.timer", description = "Time taken to update inventory item")
     @Operation(summary = "Update inventory item (v1)", description = "Updates an existing inventory item completely")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "Inventory item updated", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
             @APIResponse(responseCode = "400", description = "Invalid inventory data", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
-            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "412", description = "If-Match does not match the current ETag", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
     })
-    @CacheInvalidate(cacheName = "inventory-cache")
-    @CacheInvalidateAll(cacheName = "inventory-product-cache")
     public Inventory update(
             @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId,
+            @Parameter(description = "ETag of the version being replaced; the update fails with 412 if the item has changed since") @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
             @RequestBody(description = "Updated inventory data", required = true, content = @Content(schema = @Schema(implementation = Inventory.class))) @Valid Inventory updatedInventory) {
         LOG.infof("Updating inventory item ID: %d with quantity: %d", itemId, updatedInventory.quantity);
-        Inventory inventory = Inventory.findById(itemId);
-        if (inventory == null) {
-            LOG.warnf("Inventory item not found for update with ID: %d", itemId);
-            throw new InventoryNotFoundException(itemId);
-        }
-        inventory.quantity = updatedInventory.quantity;
-        inventory.persist();
+        Long expectedVersion = hotStock.release(itemId, InventoryETag.expectedVersion(ifMatch));
+        Inventory inventory = stockService.setQuantity(itemId, updatedInventory.quantity, expectedVersion);
+        cacheCoordinator.evict(inventory);
         LOG.infof("Updated inventory item ID: %d", itemId);
         return inventory;
     }
@@ -226,54 +344,224 @@ public class InventoryResourceV1 {
 
     @PATCH
     @Path("/{itemId}/quantity")
-    @Transactional
     @Counted(value = "inventory.quantity.update.count", description = "How many quantity updates have been performed")
     @Timed(value = "inventory.quantity.update.timer", description = "Time taken to update quantity")
     @Operation(summary = "Update inventory quantity (v1)", description = "Updates only the quantity of an inventory item")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "Quantity updated", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
             @APIResponse(responseCode = "400", description = "Invalid quantity value", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
-            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "412", description = "If-Match does not match the current ETag", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
     })
-    @CacheInvalidate(cacheName = "inventory-cache")
-    @CacheInvalidateAll(cacheName = "inventory-product-cache")
     public Inventory updateQuantity(
             @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId,
+            @Parameter(description = "ETag of the version being changed; the update fails with 412 if the item has changed since") @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
             @RequestBody(description = "New quantity value", required = true, content = @Content(schema = @Schema(implementation = QuantityUpdateRequest.class))) @Valid QuantityUpdateRequest request) {
         LOG.infof("Updating quantity for inventory ID: %d to %d", itemId, request.getQuantity());
-        Inventory inventory = Inventory.findById(itemId);
+        Long expectedVersion = hotStock.release(itemId, InventoryETag.expectedVersion(ifMatch));
+        Inventory inventory = writeCoalescer.setQuantity(itemId, request.getQuantity(), expectedVersion);
+        cacheCoordinator.evict(inventory);
+        LOG.infof("Updated quantity for inventory ID: %d", itemId);
+        return inventory;
+    }
+
+    // ==================== ADJUST ENDPOINTS ====================
+
+    @POST
+    @Path("/{itemId}/adjust")
+    @Counted(value = "inventory.adjust.count", description = "How many stock adjustments have been performed")
+    @Timed(value = "inventory.adjust.timer", description = "Time taken to adjust stock")
+    @Operation(summary = "Adjust inventory quantity by delta (v1)", description = "Atomically adds a signed delta to the quantity in a single conditional UPDATE; rejected if stock would go negative")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Quantity adjusted", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
+            @APIResponse(responseCode = "400", description = "Invalid delta", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "409", description = "Insufficient stock, or the quantity would exceed 2147483647", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Inventory adjust(
+            @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId,
+            @RequestBody(description = "Signed quantity delta", required = true, content = @Content(schema = @Schema(implementation = QuantityAdjustmentRequest.class))) @Valid QuantityAdjustmentRequest request) {
+        LOG.infof("Adjusting quantity for inventory ID: %d by %d", itemId, request.getDelta());
+        return adjustItem(itemId, request.getDelta());
+    }
+
+    @POST
+    @Path("/product/{productId}/adjust")
+    @Counted(value = "inventory.adjust.by.product.count", description = "How many stock adjustments by product ID have been performed")
+    @Timed(value = "inventory.adjust.by.product.timer", description = "Time taken to adjust stock by product ID")
+    @Operation(summary = "Adjust inventory quantity by product ID (v1)", description = "Atomically adds a signed delta to the quantity of a product in a single conditional UPDATE")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Quantity adjusted", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
+            @APIResponse(responseCode = "400", description = "Invalid delta", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "404", description = "Inventory item not found for the product", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "409", description = "Insufficient stock, or the quantity would exceed 2147483647", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Inventory adjustByProductId(
+            @Parameter(description = "Product ID", required = true) @PathParam("productId") Long productId,
+            @RequestBody(description = "Signed quantity delta", required = true, content = @Content(schema = @Schema(implementation = QuantityAdjustmentRequest.class))) @Valid QuantityAdjustmentRequest request) {
+        LOG.infof("Adjusting quantity for product ID: %d by %d", productId, request.getDelta());
+        Long itemId = Inventory.findIdByProductId(productId);
+        if (itemId == null) {
+            throw new InventoryNotFoundException(productId);
+        }
+        return adjustItem(itemId, request.getDelta());
+    }
+
+    /**
+     * Both adjust endpoints end here, so an item behaves the same whichever key
+     * addresses it: in memory if it is hot on this pod, otherwise through the
+     * write coalescer.
+     */
+    private Inventory adjustItem(Long itemId, int delta) {
+        // Hot items evict their entries on this pod themselves; the row did not change
+        Inventory inventory = hotStock.tryAdjust(itemId, delta);
         if (inventory == null) {
-            LOG.warnf("Inventory item not found for quantity update with ID: %d", itemId);
-            throw new InventoryNotFoundException(itemId);
+            inventory = writeCoalescer.adjustById(itemId, delta);
+            cacheCoordinator.evict(inventory);
         }
-        inventory.quantity = request.getQuantity();
-        inventory.persist();
-        LOG.infof("Updated quantity for inventory ID: %d", itemId);
         return inventory;
     }
 
+    @GET
+    @Path("/{itemId}/stock")
+    @Timed(value = "inventory.stock.as.of.timer", description = "Time taken to replay stock as of a point in time")
+    @Operation(summary = "Get stock as of a point in time (v1)", description = "Replays the movement ledger from the nearest snapshot at or before asOf. Units leased to a pod's hot-item counters are not included")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Stock as of the given time", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = StockAsOfResponse.class))),
+            @APIResponse(responseCode = "400", description = "Invalid asOf", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "404", description = "Item had no history by then", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public StockAsOfResponse getStockAsOf(
+            @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId,
+            @Parameter(description = "ISO-8601 instant, e.g. 2024-05-01T12:00:00Z (defaults to now)") @QueryParam("asOf") String asOf) {
+        Instant at;
+        try {
+            at = asOf == null || asOf.isBlank() ? Instant.now() : Instant.parse(asOf);
+        } catch (DateTimeParseException e) {
+            throw new InvalidInventoryException("Invalid asOf: " + asOf);
+        }
+        return new StockAsOfResponse(itemId, at, ledger.quantityAsOf(itemId, at));
+    }
+
+    @GET
+    @Path("/{itemId}/movements")
+    @Operation(summary = "List stock movements of an item (v1)", description = "Returns the item's ledger newest first. Pass the smallest returned id as 'before' for the next page")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Movements, newest first", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = InventoryMovement.class)))
+    })
+    public List<InventoryMovement> getMovements(
+            @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId,
+            @Parameter(description = "Only movements with a smaller id") @QueryParam("before") Long before,
+            @Parameter(description = "Page size (max 100)") @QueryParam("limit") @DefaultValue("20") int limit) {
+        return ledger.movements(itemId, before, Math.max(1, Math.min(limit, 100)));
+    }
+
+    @POST
+    @Path("/reservations")
+    @Counted(value = "inventory.reservation.count", description = "How many batch reservations have been requested")
+    @Timed(value = "inventory.reservation.timer", description = "Time taken to apply a batch reservation")
+    @Operation(summary = "Reserve stock for several products (v1)", description = "Decrements every line in one transaction, or none if any product is unknown or short on stock. Rows are locked in product ID order")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "All lines reserved", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ReservationResponse.class))),
+            @APIResponse(responseCode = "400", description = "Invalid reservation request", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "409", description = "Nothing reserved; see per-line results", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ReservationResponse.class)))
+    })
+    public Response reserve(
+            @RequestBody(description = "Products and quantities to reserve", required = true, content = @Content(schema = @Schema(implementation = ReservationRequest.class))) @Valid ReservationRequest request) {
+        LOG.infof("Reserving %d lines", request.getLines().size());
+        ReservationResponse result = stockService.reserve(request.getLines());
+        if (!result.isReserved()) {
+            return Response.status(Response.Status.CONFLICT).entity(result).build();
+        }
+        for (ReservationResponse.LineResult line : result.getLines()) {
+            cacheCoordinator.evict(line.getInventoryId(), line.getProductId());
+        }
+        return Response.ok(result).build();
+    }
+
+    // ==================== HOLD ENDPOINTS ====================
+
+    @POST
+    @Path("/holds")
+    @Counted(value = "inventory.hold.create.count", description = "How many stock holds have been placed")
+    @Timed(value = "inventory.hold.create.timer", description = "Time taken to place a stock hold")
+    @Operation(summary = "Place a stock hold (v1)", description = "Holds stock for a limited time, e.g. during payment. The hold is released automatically when it expires")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "201", description = "Hold placed", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = InventoryHold.class))),
+            @APIResponse(responseCode = "400", description = "Invalid hold request", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "404", description = "Inventory item not found for the product", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "409", description = "Not enough stock available to sell", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Response placeHold(
+            @RequestBody(description = "Product, quantity and duration of the hold", required = true, content = @Content(schema = @Schema(implementation = HoldRequest.class))) @Valid HoldRequest request) {
+        LOG.infof("Placing hold on product ID: %d for %d units", request.getProductId(), request.getQuantity());
+        Duration ttl = request.getTtlSeconds() == null ? null : Duration.ofSeconds(request.getTtlSeconds());
+        InventoryHold hold = holdService.place(request.getProductId(), request.getQuantity(), ttl);
+        return Response.created(URI.create("/api/v1/inventory/holds/" + hold.id))
+                .entity(hold)
+                .build();
+    }
+
+    @GET
+    @Path("/holds/{holdId}")
+    @Operation(summary = "Get a stock hold (v1)", description = "Returns an active stock hold")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Hold found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = InventoryHold.class))),
+            @APIResponse(responseCode = "404", description = "Hold not found or expired", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public InventoryHold getHold(
+            @Parameter(description = "Hold ID", required = true) @PathParam("holdId") Long holdId) {
+        return holdService.get(holdId);
+    }
+
+    @POST
+    @Path("/holds/{holdId}/confirm")
+    @Counted(value = "inventory.hold.confirm.count", description = "How many stock holds have been confirmed")
+    @Operation(summary = "Confirm a stock hold (v1)", description = "Turns an active hold into a permanent stock decrement")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Hold confirmed", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
+            @APIResponse(responseCode = "404", description = "Hold not found or expired", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "409", description = "Stock was reduced below the held quantity in the meantime", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Inventory confirmHold(
+            @Parameter(description = "Hold ID", required = true) @PathParam("holdId") Long holdId) {
+        LOG.infof("Confirming hold ID: %d", holdId);
+        return holdService.confirm(holdId);
+    }
+
+    @DELETE
+    @Path("/holds/{holdId}")
+    @Counted(value = "inventory.hold.release.count", description = "How many stock holds have been released early")
+    @Operation(summary = "Release a stock hold (v1)", description = "Releases an active hold before it expires")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "204", description = "Hold released"),
+            @APIResponse(responseCode = "404", description = "Hold not found or expired", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Response releaseHold(
+            @Parameter(description = "Hold ID", required = true) @PathParam("holdId") Long holdId) {
+        LOG.infof("Releasing hold ID: %d", holdId);
+        holdService.release(holdId);
+        return Response.noContent().build();
+    }
+
     // ==================== DELETE ENDPOINTS ====================
 
     @DELETE
     @Path("/{itemId}")
-    @Transactional
     @Counted(value = "inventory.delete.count", description = "How many inventory items have been deleted")
     @Operation(summary = "Delete inventory item (v1)", description = "Deletes an inventory item by its ID")
     @APIResponses(value = {
             @APIResponse(responseCode = "204", description = "Inventory item deleted"),
-            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "412", description = "If-Match does not match the current ETag", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
     })
-    @CacheInvalidate(cacheName = "inventory-cache")
-    @CacheInvalidateAll(cacheName = "inventory-product-cache")
     public Response delete(
-            @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId) {
+            @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId,
+            @Parameter(description = "ETag of the version being deleted; the delete fails with 412 if the item has changed since") @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
         LOG.infof("Deleting inventory item ID: %d", itemId);
-        Inventory inventory = Inventory.findById(itemId);
-        if (inventory == null) {
-            LOG.warnf("Inventory item not found for deletion with ID: %d", itemId);
-            throw new InventoryNotFoundException(itemId);
-        }
-        inventory.delete();
+        Long expectedVersion = hotStock.release(itemId, InventoryETag.expectedVersion(ifMatch));
+        Inventory inventory = stockService.delete(itemId, expectedVersion);
+        cacheCoordinator.evict(inventory);
         LOG.infof("Deleted inventory item ID: %d", itemId);
         return Response.noContent().build();
     }
@@ -286,11 +574,55 @@ public class InventoryResourceV1 {
     @Counted(value = "cache.clear.count", description = "How many times cache has been cleared")
     @Operation(summary = "Clear all inventory caches (v1)", description = "Clears all cached inventory data")
     @APIResponse(responseCode = "204", description = "Caches cleared")
-    @CacheInvalidateAll(cacheName = "inventory-cache")
-    @CacheInvalidateAll(cacheName = "inventory-product-cache")
     public Response clearCaches() {
         LOG.info("Clearing all inventory caches");
+        cacheCoordinator.evictAll();
         return Response.noContent().build();
     }
 
-}
\ No newline at end of file
+    // ==================== SYNTHETIC DATASET (performance testing) ====================
+
+    @POST
+    @Path("/dataset")
+    @Counted(value = "inventory.dataset.generate.count", description = "How many synthetic datasets have been generated")
+    @Timed(value = "inventory.dataset.generate.timer", description = "Time taken to generate a synthetic dataset")
+    @Operation(summary = "Generate a synthetic dataset (v1)", description = "Bulk-loads rows over an empty product ID range with Zipfian product popularity and popularity-scaled, log-normal quantities. Only available when inventory.dataset.enabled is set")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Dataset generated", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = DatasetResponse.class))),
+            @APIResponse(responseCode = "400", description = "Invalid request or product ID range already in use", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "404", description = "Dataset generator disabled")
+    })
+    public DatasetResponse generateDataset(
+            @RequestBody(description = "Dataset size and distribution", required = true, content = @Content(schema = @Schema(implementation = DatasetRequest.class))) @Valid DatasetRequest request) {
+        requireDatasetGenerator();
+        LOG.infof("Generating %d synthetic inventory rows from product ID %d", request.getRows(),
+                request.getFirstProductId());
+        return datasetGenerator.generate(request);
+    }
+
+    @DELETE
+    @Path("/dataset")
+    @Counted(value = "inventory.dataset.delete.count", description = "How many synthetic datasets have been deleted")
+    @Operation(summary = "Delete a synthetic dataset (v1)", description = "Deletes every inventory row in a product ID range. Only available when inventory.dataset.enabled is set")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Dataset deleted", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = DatasetResponse.class))),
+            @APIResponse(responseCode = "400", description = "Invalid range", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "404", description = "Dataset generator disabled")
+    })
+    public DatasetResponse deleteDataset(
+            @Parameter(description = "First product ID of the range", required = true) @QueryParam("firstProductId") Long firstProductId,
+            @Parameter(description = "Number of product IDs in the range", required = true) @QueryParam("rows") Long rows) {
+        requireDatasetGenerator();
+        if (firstProductId == null || rows == null || rows < 1) {
+            throw new InvalidInventoryException("firstProductId and a positive rows are required");
+        }
+        LOG.infof("Deleting synthetic inventory rows for %d products from product ID %d", rows, firstProductId);
+        return datasetGenerator.delete(firstProductId, rows);
+    }
+
+    private void requireDatasetGenerator() {
+        if (!datasetGenerator.isEnabled()) {
+            throw new NotFoundException();
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.redhat.cloudnative;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.PATCH;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.logging.Logger;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Inventory API v2 - the item endpoints of v1 on a non-blocking stack
+ *
+ * API Versioning Strategy: URI Path versioning (/api/v2/inventory)
+ *
+ * Execution: every endpoint returns a Uni or Multi and runs on the Vert.x
+ * event loop; database access goes through {@link ReactiveInventoryService},
+ * so no event-loop or worker thread waits for a query. Request and response
+ * bodies are those of v1. Holds, reservations, batch and bulk endpoints stay on v1.
+ */
+@Path("/api/v2/inventory")
+@ApplicationScoped
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Inventory v2", description = "Non-blocking inventory management operations (v2)")
+public class InventoryResourceV2 {
+
+    private static final Logger LOG = Logger.getLogger(InventoryResourceV2.class);
+
+    @Inject
+    ReactiveInventoryService inventoryService;
+
+    // ==================== GET ENDPOINTS ====================
+
+    @GET
+    @Timeout(5000)
+    @Counted(value = "inventory.v2.list.count", description = "How many times the v2 inventory list has been requested")
+    @Timed(value = "inventory.v2.list.timer", description = "Time taken to list inventory items (v2)", percentiles = { 0.5,
+            0.95, 0.99 })
+    @Operation(summary = "List all inventory items (v2)", description = "Returns a paginated list of inventory items with metadata. Pass the returned nextCursor as 'cursor' for keyset paging that stays fast at any depth")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Paginated list of inventory items", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = PaginatedResponse.class))),
+            @APIResponse(responseCode = "304", description = "Not modified since the listing tagged with If-None-Match"),
+            @APIResponse(responseCode = "400", description = "Negative or out-of-range page, invalid cursor or sort key", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Uni<Response> listAll(
+            @Parameter(description = "Page number (0-based, ignored when a cursor is given)") @QueryParam("page") @DefaultValue("0") int page,
+            @Parameter(description = "Page size (max 100)") @QueryParam("size") @DefaultValue("20") int size,
+            @Parameter(description = "Opaque cursor from a previous response's nextCursor; seeks on the index instead of using an offset") @QueryParam("cursor") String cursor,
+            @Parameter(description = "Sort key backed by a unique index: id (default) or productId") @QueryParam("sort") String sort,
+            @Parameter(description = "Whether to compute the total count (defaults to true for page mode, false for cursor mode)") @QueryParam("includeTotal") Boolean includeTotal,
+            @Parameter(description = "ETag of a previous listing; answered with 304 if no item or hold on this page has changed since") @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        LOG.debugf("Listing inventory items (v2) - page: %d, size: %d, cursor: %s", page, size, cursor);
+        int effectiveSize = Math.max(1, Math.min(size, 100));
+        boolean keyset = cursor != null && !cursor.isBlank();
+        InventoryCursor.SortKey sortKey;
+        Uni<List<Inventory>> items;
+        if (keyset) {
+            InventoryCursor decoded = InventoryCursor.decode(cursor);
+            sortKey = decoded.getSortKey();
+            items = inventoryService.findAfter(sortKey, decoded.getLastValue(), effectiveSize + 1);
+        } else {
+            sortKey = InventoryCursor.SortKey.fromParam(sort);
+            items = inventoryService.findRange(sortKey, PaginatedResponse.offset(page, effectiveSize), effectiveSize + 1);
+        }
+        Uni<Long> total = (includeTotal != null ? includeTotal : !keyset)
+                ? inventoryService.count()
+                : Uni.createFrom().nullItem();
+        // Both queries run concurrently
+        return Uni.combine().all().unis(items, total).asTuple()
+                .map(result -> {
+                    // Tagged from the rows of this page only, as on v1
+                    String etag = InventoryETag.ofPage(result.getItem1(), result.getItem2());
+                    if (InventoryETag.notModified(ifNoneMatch, null, etag, null)) {
+                        return Response.notModified().header(HttpHeaders.ETAG, etag).build();
+                    }
+                    return Response.ok(PaginatedResponse.ofLookAhead(result.getItem1(), result.getItem2(),
+                            keyset ? 0 : page, effectiveSize, keyset || page > 0,
+                            last -> InventoryCursor.after(sortKey, last).encode()))
+                            .header(HttpHeaders.ETAG, etag)
+                            .build();
+                });
+    }
+
+    @GET
+    @Path("/all")
+    @Timeout(3000)
+    @Counted(value = "inventory.v2.list.all.count", description = "How many times all inventory has been requested (v2)")
+    @Timed(value = "inventory.v2.list.all.timer", description = "Time taken to list all inventory items (v2)")
+    @Operation(summary = "List all inventory items without pagination (v2)", description = "Returns a simple list of all inventory items")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "List of all inventory items", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class)))
+    })
+    public Uni<List<Inventory>> listAllWithoutPagination() {
+        LOG.debug("Listing all inventory items without pagination (v2)");
+        return inventoryService.streamAll().collect().asList();
+    }
+
+    @GET
+    @Path("/all/stream")
+    @Produces(InventoryExporter.APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Counted(value = "inventory.v2.export.count", description = "How many times the v2 inventory stream has been requested")
+    @Operation(summary = "Stream all inventory items (v2)", description = "Streams every inventory item as NDJSON, reading the next page only when the client keeps up")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Stream of all inventory items", content = @Content(mediaType = InventoryExporter.APPLICATION_NDJSON, schema = @Schema(implementation = Inventory.class)))
+    })
+    public Multi<Inventory> streamAll() {
+        LOG.debug("Streaming all inventory items (v2)");
+        return inventoryService.streamAll();
+    }
+
+    @GET
+    @Path("/count")
+    @Produces(MediaType.TEXT_PLAIN)
+    @Counted(value = "inventory.v2.count.requests", description = "How many times the v2 count has been requested")
+    @Operation(summary = "Count inventory items (v2)", description = "Returns the total number of inventory items")
+    @APIResponse(responseCode = "200", description = "Total count of inventory items")
+    public Uni<Long> count() {
+        return inventoryService.count();
+    }
+
+    @GET
+    @Path("/{itemId}")
+    @Timeout(2000)
+    @Counted(value = "inventory.v2.get.by.id.count", description = "How many times get by ID has been requested (v2)")
+    @Timed(value = "inventory.v2.get.by.id.timer", description = "Time taken to get inventory by ID (v2)")
+    @Operation(summary = "Get inventory by ID (v2)", description = "Returns a single inventory item by its ID (cached)")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Inventory item found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
+            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Uni<EncodedInventory> getAvailability(
+            @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId) {
+        LOG.debugf("Getting inventory by ID (v2): %d", itemId);
+        return inventoryService.getById(itemId);
+    }
+
+    @GET
+    @Path("/product/{productId}")
+    @Timeout(2000)
+    @Counted(value = "inventory.v2.get.by.product.count", description = "How many times get by product ID has been requested (v2)")
+    @Timed(value = "inventory.v2.get.by.product.timer", description = "Time taken to get inventory by product ID (v2)")
+    @Operation(summary = "Get inventory by product ID (v2)", description = "Returns the inventory item for a specific product (cached)")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Inventory item found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
+            @APIResponse(responseCode = "404", description = "Inventory item not found for the product", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Uni<EncodedInventory> getByProductId(
+            @Parameter(description = "Product ID", required = true) @PathParam("productId") Long productId) {
+        LOG.debugf("Getting inventory by product ID (v2): %d", productId);
+        return inventoryService.getByProductId(productId);
+    }
+
+    // ==================== POST ENDPOINT ====================
+
+    @POST
+    @Counted(value = "inventory.v2.create.count", description = "How many inventory items have been created (v2)")
+    @Timed(value = "inventory.v2.create.timer", description = "Time taken to create inventory item (v2)")
+    @Operation(summary = "Create inventory item (v2)", description = "Creates a new inventory item")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "201", description = "Inventory item created", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
+            @APIResponse(responseCode = "400", description = "Invalid inventory data or the product already has inventory", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Uni<Response> create(
+            @RequestBody(description = "Inventory item to create", required = true, content = @Content(schema = @Schema(implementation = Inventory.class))) @Valid Inventory inventory) {
+        LOG.infof("Creating inventory item (v2) for product ID: %d with quantity: %d", inventory.productId,
+                inventory.quantity);
+        return inventoryService.create(inventory.productId, inventory.quantity)
+                .map(created -> Response.created(URI.create("/api/v2/inventory/" + created.id))
+                        .entity(created)
+                        .build());
+    }
+
+    // ==================== PUT / PATCH ENDPOINTS ====================
+
+    @PUT
+    @Path("/{itemId}")
+    @Counted(value = "inventory.v2.update.count", description = "How many inventory items have been updated (v2)")
+    @Timed(value = "inventory.v2.update.timer", description = "Time taken to update inventory item (v2)")
+    @Operation(summary = "Update inventory item (v2)", description = "Updates an existing inventory item completely")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Inventory item updated", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
+            @APIResponse(responseCode = "400", description = "Invalid inventory data", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "412", description = "If-Match does not match the current ETag", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Uni<Inventory> update(
+            @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId,
+            @Parameter(description = "ETag of the version being replaced; the update fails with 412 if the item has changed since") @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+            @RequestBody(description = "Updated inventory data", required = true, content = @Content(schema = @Schema(implementation = Inventory.class))) @Valid Inventory updatedInventory) {
+        LOG.infof("Updating inventory item ID (v2): %d with quantity: %d", itemId, updatedInventory.quantity);
+        return inventoryService.updateQuantity(itemId, updatedInventory.quantity,
+                InventoryETag.expectedVersion(ifMatch));
+    }
+
+    @PATCH
+    @Path("/{itemId}/quantity")
+    @Counted(value = "inventory.v2.quantity.update.count", description = "How many quantity updates have been performed (v2)")
+    @Timed(value = "inventory.v2.quantity.update.timer", description = "Time taken to update quantity (v2)")
+    @Operation(summary = "Update inventory quantity (v2)", description = "Updates only the quantity of an inventory item")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Quantity updated", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
+            @APIResponse(responseCode = "400", description = "Invalid quantity value", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "412", description = "If-Match does not match the current ETag", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Uni<Inventory> updateQuantity(
+            @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId,
+            @Parameter(description = "ETag of the version being changed; the update fails with 412 if the item has changed since") @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+            @RequestBody(description = "New quantity value", required = true, content = @Content(schema = @Schema(implementation = QuantityUpdateRequest.class))) @Valid QuantityUpdateRequest request) {
+        LOG.infof("Updating quantity for inventory ID (v2): %d to %d", itemId, request.getQuantity());
+        return inventoryService.updateQuantity(itemId, request.getQuantity(),
+                InventoryETag.expectedVersion(ifMatch));
+    }
+
+    // ==================== ADJUST ENDPOINTS ====================
+
+    @POST
+    @Path("/{itemId}/adjust")
+    @Counted(value = "inventory.v2.adjust.count", description = "How many stock adjustments have been performed (v2)")
+    @Timed(value = "inventory.v2.adjust.timer", description = "Time taken to adjust stock (v2)")
+    @Operation(summary = "Adjust inventory quantity by delta (v2)", description = "Atomically adds a signed delta to the quantity in a single conditional UPDATE; rejected if stock would go negative")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Quantity adjusted", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
+            @APIResponse(responseCode = "400", description = "Invalid delta", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "409", description = "Insufficient stock, or the quantity would exceed 2147483647", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Uni<Inventory> adjust(
+            @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId,
+            @RequestBody(description = "Signed quantity delta", required = true, content = @Content(schema = @Schema(implementation = QuantityAdjustmentRequest.class))) @Valid QuantityAdjustmentRequest request) {
+        LOG.infof("Adjusting quantity for inventory ID (v2): %d by %d", itemId, request.getDelta());
+        return inventoryService.adjustById(itemId, request.getDelta());
+    }
+
+    @POST
+    @Path("/product/{productId}/adjust")
+    @Counted(value = "inventory.v2.adjust.by.product.count", description = "How many stock adjustments by product ID have been performed (v2)")
+    @Timed(value = "inventory.v2.adjust.by.product.timer", description = "Time taken to adjust stock by product ID (v2)")
+    @Operation(summary = "Adjust inventory quantity by product ID (v2)", description = "Atomically adds a signed delta to the quantity of a product in a single conditional UPDATE")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Quantity adjusted", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = Inventory.class))),
+            @APIResponse(responseCode = "400", description = "Invalid delta", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "404", description = "Inventory item not found for the product", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "409", description = "Insufficient stock, or the quantity would exceed 2147483647", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Uni<Inventory> adjustByProductId(
+            @Parameter(description = "Product ID", required = true) @PathParam("productId") Long productId,
+            @RequestBody(description = "Signed quantity delta", required = true, content = @Content(schema = @Schema(implementation = QuantityAdjustmentRequest.class))) @Valid QuantityAdjustmentRequest request) {
+        LOG.infof("Adjusting quantity for product ID (v2): %d by %d", productId, request.getDelta());
+        return inventoryService.adjustByProductId(productId, request.getDelta());
+    }
+
+    // ==================== DELETE ENDPOINT ====================
+
+    @DELETE
+    @Path("/{itemId}")
+    @Counted(value = "inventory.v2.delete.count", description = "How many inventory items have been deleted (v2)")
+    @Operation(summary = "Delete inventory item (v2)", description = "Deletes an inventory item by its ID")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "204", description = "Inventory item deleted"),
+            @APIResponse(responseCode = "404", description = "Inventory item not found", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "412", description = "If-Match does not match the current ETag", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Uni<Response> delete(
+            @Parameter(description = "Inventory item ID", required = true) @PathParam("itemId") Long itemId,
+            @Parameter(description = "ETag of the version being deleted; the delete fails with 412 if the item has changed since") @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
+        LOG.infof("Deleting inventory item ID (v2): %d", itemId);
+        return inventoryService.delete(itemId, InventoryETag.expectedVersion(ifMatch)).map(deleted -> Response.noContent().build());
+    }
+}
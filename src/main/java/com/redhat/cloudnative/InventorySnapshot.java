@@ -0,0 +1,62 @@
+package com.redhat.cloudnative;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * The quantity of an item after all of its movements up to and including
+ * {@code movementId}, which were made by {@code asOf}. Written by
+ * {@link InventoryLedger} so that stock at a point in time never has to replay
+ * more than the movements since the nearest snapshot.
+ *
+ * Movement ID 0 is the baseline: the stock an item had when its history began.
+ */
+@Entity
+@Table(name = "INVENTORY_SNAPSHOT")
+@IdClass(InventorySnapshot.Key.class)
+public class InventorySnapshot extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "item_id")
+    public Long itemId;
+
+    @Id
+    @Column(name = "movement_id")
+    public Long movementId;
+
+    @Column(name = "quantity", nullable = false)
+    public int quantity;
+
+    @Column(name = "as_of", nullable = false)
+    public Instant asOf;
+
+    public static class Key implements Serializable {
+        public Long itemId;
+        public Long movementId;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(itemId, key.itemId) && Objects.equals(movementId, key.movementId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(itemId, movementId);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InventorySnapshot [itemId=" + itemId + ", movementId=" + movementId + ", quantity=" + quantity +
+                ", asOf=" + asOf + ']';
+    }
+}
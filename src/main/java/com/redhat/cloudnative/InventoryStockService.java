@@ -0,0 +1,433 @@
+package com.redhat.cloudnative;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
+import org.jboss.logging.Logger;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stock mutations that avoid the find / modify / persist round trip.
+ *
+ * Single-item adjustments run as one conditional UPDATE. The guard
+ * {@code quantity + delta >= 0} is evaluated by the database under the row
+ * lock the UPDATE takes anyway, so concurrent adjustments never lose updates
+ * and never drive stock below zero. Multi-item reservations lock their rows in
+ * a fixed order and apply all decrements in one transaction.
+ *
+ * No decrement takes stock under an active {@link InventoryHold hold}: the
+ * UPDATE guard subtracts the held units itself, and paths that lock the row
+ * read them under that lock, which is the one holds are placed under.
+ *
+ * Deletes are single statements as well. Given the version from an If-Match
+ * header they become a compare-and-set on the row version, so a stale write is
+ * rejected without locking or reading the row first; only a rejected statement
+ * is followed by a lookup to tell "not found" from "modified". Every statement
+ * increments the version.
+ *
+ * Quantity updates are a compare-and-set as well, and the same statement yields
+ * the quantity it replaced for the ledger. Writes queued by the
+ * {@link InventoryWriteCoalescer} are applied per item in batches instead: one
+ * row lock, one UPDATE and one commit for the whole batch.
+ *
+ * Every transaction appends its stock movements to the ledger with one
+ * multi-row INSERT, see {@link InventoryMovement}, and enqueues the changed
+ * items to the {@link InventoryOutboxEvent outbox} with another.
+ */
+@ApplicationScoped
+public class InventoryStockService {
+
+    private static final Logger LOG = Logger.getLogger(InventoryStockService.class);
+
+    private static final String COLUMNS = "id, product_id, quantity, created_at, updated_at, version";
+
+    // Units of the row's product under active holds, which a decrement has to leave in stock
+    private static final String HELD = "(SELECT COALESCE(SUM(h.quantity), 0) FROM INVENTORY_HOLD h"
+            + " WHERE h.product_id = INVENTORY.product_id AND h.expires_at > :now)";
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    /**
+     * Apply a signed delta to the item with the given id.
+     *
+     * @return the item as stored after the update
+     * @throws InventoryNotFoundException  if no such item exists
+     * @throws InsufficientStockException  if the delta would take held stock, make stock negative or
+     *                                     overflow it
+     */
+    @Transactional
+    public Inventory adjustById(Long itemId, int delta) {
+        Inventory adjusted = adjust("id", itemId, delta);
+        if (adjusted == null) {
+            if (Inventory.count("id", itemId) == 0) {
+                throw new InventoryNotFoundException(itemId);
+            }
+            throw InsufficientStockException.rejected(itemId, delta);
+        }
+        return adjusted;
+    }
+
+    /**
+     * Apply a signed delta to the item of the given product.
+     *
+     * @see #adjustById(Long, int)
+     */
+    @Transactional
+    public Inventory adjustByProductId(Long productId, int delta) {
+        Inventory adjusted = adjust("product_id", productId, delta);
+        if (adjusted == null) {
+            if (!Inventory.existsByProductId(productId)) {
+                throw new InventoryNotFoundException(productId);
+            }
+            throw InsufficientStockException.rejected(productId, delta);
+        }
+        return adjusted;
+    }
+
+    /**
+     * Set the quantity of an item in one statement.
+     *
+     * @param expectedVersion the version the item must still have, or {@code null} to write unconditionally
+     * @return the item as stored after the update
+     * @throws InventoryNotFoundException if no such item exists
+     * @throws VersionConflictException   if the item is no longer at {@code expectedVersion}
+     */
+    @Transactional
+    public Inventory setQuantity(Long itemId, int quantity, Long expectedVersion) {
+        Inventory updated;
+        while ((updated = compareAndSetQuantity(itemId, quantity, expectedVersion)) == null) {
+            if (expectedVersion != null || Inventory.count("id", itemId) == 0) {
+                throw rejected(itemId, expectedVersion);
+            }
+            // PostgreSQL only: a write committed between the statement's snapshot and its row lock
+            LOG.debugf("Quantity update of inventory %d raced another write; retrying", itemId);
+        }
+        InventoryOutboxEvent.enqueue(updated, InventoryOutboxEvent.Type.UPDATED);
+        return updated;
+    }
+
+    /**
+     * Delete an item in one statement.
+     *
+     * @param expectedVersion the version the item must still have, or {@code null} to delete unconditionally
+     * @return the item as it was before the delete
+     * @throws InventoryNotFoundException if no such item exists
+     * @throws VersionConflictException   if the item is no longer at {@code expectedVersion}
+     */
+    @Transactional
+    public Inventory delete(Long itemId, Long expectedVersion) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("id", itemId);
+        String delete = "DELETE FROM INVENTORY WHERE id = :id";
+        if (expectedVersion != null) {
+            delete += " AND version = :version";
+            parameters.put("version", expectedVersion);
+        }
+        Inventory deleted = returning(delete, true, parameters);
+        if (deleted == null) {
+            throw rejected(itemId, expectedVersion);
+        }
+        InventoryMovement.record(InventoryMovement.of(deleted, InventoryMovement.Kind.DELETE, -deleted.quantity));
+        InventoryOutboxEvent.enqueue(deleted, InventoryOutboxEvent.Type.DELETED);
+        return deleted;
+    }
+
+    /**
+     * Apply queued writes to one item in arrival order, under one row lock and
+     * with one UPDATE. Each write gets the outcome it would have had running alone
+     * right after the one before it: its own version check, its own stock guard
+     * and its own version increment. Outcomes are recorded on the writes and only
+     * count once this method has returned, i.e. committed.
+     */
+    @Transactional
+    public void applyInOrder(Long itemId, List<InventoryWriteCoalescer.Write> writes) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("id", itemId);
+        List<Inventory> rows = select("SELECT " + COLUMNS + " FROM INVENTORY WHERE id = :id FOR UPDATE", parameters);
+        if (rows.isEmpty()) {
+            writes.forEach(write -> write.rejected = new InventoryNotFoundException(itemId));
+            return;
+        }
+        int quantity = rows.get(0).quantity;
+        long version = rows.get(0).version;
+        // Read under the row lock, which holds are placed under as well
+        int held = InventoryHold.activeQuantity(rows.get(0).productId, Instant.now());
+        List<InventoryWriteCoalescer.Write> applied = new ArrayList<>(writes.size());
+        List<InventoryMovement> movements = new ArrayList<>(writes.size());
+        for (InventoryWriteCoalescer.Write write : writes) {
+            if (write.expectedVersion != null && write.expectedVersion != version) {
+                write.rejected = new VersionConflictException(itemId, write.expectedVersion, version);
+                continue;
+            }
+            long next = write.delta ? (long) quantity + write.amount : write.amount;
+            if (next > Integer.MAX_VALUE) {
+                write.rejected = InsufficientStockException.overflow(itemId, write.amount);
+                continue;
+            }
+            if (next < (write.delta && write.amount < 0 ? held : 0)) {
+                write.rejected = new InsufficientStockException(itemId, write.amount);
+                continue;
+            }
+            movements.add(InventoryMovement.of(rows.get(0), write.delta
+                    ? InventoryMovement.Kind.ADJUST : InventoryMovement.Kind.SET, (int) (next - quantity)));
+            quantity = (int) next;
+            write.quantity = quantity;
+            write.version = ++version;
+            applied.add(write);
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+        parameters.put("quantity", quantity);
+        parameters.put("version", version);
+        Inventory updated = returning("UPDATE INVENTORY SET quantity = :quantity, version = :version,"
+                + " updated_at = CURRENT_TIMESTAMP WHERE id = :id", false, parameters);
+        InventoryMovement.record(movements);
+        // One event for the whole batch: subscribers only need the latest state
+        InventoryOutboxEvent.enqueue(updated, InventoryOutboxEvent.Type.UPDATED);
+        for (InventoryWriteCoalescer.Write write : applied) {
+            Inventory result = new Inventory();
+            result.id = updated.id;
+            result.productId = updated.productId;
+            result.quantity = write.quantity;
+            result.version = write.version;
+            result.createdAt = updated.createdAt;
+            result.updatedAt = updated.updatedAt;
+            write.applied = result;
+        }
+        LOG.debugf("Applied %d of %d queued writes to inventory %d", applied.size(), writes.size(), itemId);
+    }
+
+    /**
+     * Reserve every line or none of them.
+     *
+     * Duplicate products are summed, rows are locked in ascending product ID
+     * order with a single SELECT ... FOR UPDATE, and the decrements are only
+     * applied once every line is known to fit into the stock not under an active
+     * hold.
+     */
+    @Transactional
+    public ReservationResponse reserve(List<ReservationRequest.Line> lines) {
+        Map<Long, Integer> requested = new TreeMap<>();
+        for (ReservationRequest.Line line : lines) {
+            requested.merge(line.getProductId(), line.getQuantity(), Math::addExact);
+        }
+
+        Map<Long, Inventory> locked = new HashMap<>();
+        for (Inventory inventory : Inventory.lockByProductIds(requested.keySet())) {
+            locked.put(inventory.productId, inventory);
+        }
+        Map<Long, Integer> held = InventoryHold.activeQuantities(locked.keySet(), Instant.now());
+
+        boolean reservable = true;
+        List<ReservationResponse.LineResult> results = new ArrayList<>(requested.size());
+        for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+            Inventory inventory = locked.get(entry.getKey());
+            Integer available = inventory == null ? null
+                    : inventory.quantity - held.getOrDefault(entry.getKey(), 0);
+            ReservationResponse.LineStatus status;
+            if (inventory == null) {
+                status = ReservationResponse.LineStatus.NOT_FOUND;
+            } else if (available < entry.getValue()) {
+                status = ReservationResponse.LineStatus.INSUFFICIENT_STOCK;
+            } else {
+                status = ReservationResponse.LineStatus.RESERVED;
+            }
+            reservable &= status == ReservationResponse.LineStatus.RESERVED;
+            results.add(new ReservationResponse.LineResult(entry.getKey(),
+                    inventory == null ? null : inventory.id, entry.getValue(), available, status));
+        }
+
+        if (!reservable) {
+            for (ReservationResponse.LineResult result : results) {
+                if (result.getStatus() == ReservationResponse.LineStatus.RESERVED) {
+                    result.setStatus(ReservationResponse.LineStatus.NOT_APPLIED);
+                }
+            }
+            LOG.infof("Reservation of %d products rejected", requested.size());
+            return new ReservationResponse(false, results);
+        }
+
+        List<InventoryMovement> movements = new ArrayList<>(requested.size());
+        List<Inventory> reserved = new ArrayList<>(requested.size());
+        for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+            Inventory inventory = locked.get(entry.getKey());
+            inventory.quantity -= entry.getValue();
+            movements.add(InventoryMovement.of(inventory, InventoryMovement.Kind.RESERVE, -entry.getValue()));
+            reserved.add(inventory);
+        }
+        InventoryMovement.record(movements);
+        // Flushed first, so the events carry the incremented versions
+        Inventory.flush();
+        InventoryOutboxEvent.enqueue(reserved, InventoryOutboxEvent.Type.UPDATED);
+        LOG.infof("Reserved %d products", requested.size());
+        return new ReservationResponse(true, results);
+    }
+
+    /**
+     * A decrement must leave at least the units of active holds in stock, an
+     * increment only keeps stock from going negative.
+     *
+     * @return the updated row, or {@code null} if no row matched the key and guard
+     */
+    private Inventory adjust(String keyColumn, Long key, int delta) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("delta", delta);
+        parameters.put("key", key);
+        String guard;
+        if (delta < 0) {
+            guard = "quantity + :delta >= " + HELD;
+            parameters.put("now", Instant.now());
+        } else {
+            // Bounded by the column, so the database never evaluates an overflowing sum
+            guard = "quantity <= :max";
+            parameters.put("max", Integer.MAX_VALUE - delta);
+        }
+        Inventory adjusted = returning("UPDATE INVENTORY SET quantity = quantity + :delta, version = version + 1,"
+                + " updated_at = CURRENT_TIMESTAMP WHERE " + keyColumn + " = :key AND " + guard,
+                false, parameters);
+        if (adjusted == null) {
+            LOG.debugf("Adjustment of %d rejected for %s=%d", delta, keyColumn, key);
+        } else {
+            InventoryMovement.record(InventoryMovement.of(adjusted, InventoryMovement.Kind.ADJUST, delta));
+            InventoryOutboxEvent.enqueue(adjusted, InventoryOutboxEvent.Type.UPDATED);
+        }
+        return adjusted;
+    }
+
+    /**
+     * Set the quantity and record the SET movement, with a single statement that
+     * also returns the quantity it replaced. PostgreSQL joins the row to its own
+     * snapshot and only updates it while the versions agree, so a write that
+     * commits in between makes the statement match nothing rather than record a
+     * stale delta; H2 returns the replaced row from the UPDATE itself.
+     *
+     * @return the updated row, or {@code null} if no row matched
+     */
+    private Inventory compareAndSetQuantity(Long itemId, int quantity, Long expectedVersion) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("quantity", quantity);
+        parameters.put("id", itemId);
+        String condition = "";
+        if (expectedVersion != null) {
+            condition = " AND i.version = :version";
+            parameters.put("version", expectedVersion);
+        }
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        String sql;
+        if (isPostgres()) {
+            sql = "UPDATE INVENTORY i SET quantity = :quantity, version = i.version + 1, updated_at = CURRENT_TIMESTAMP"
+                    + " FROM INVENTORY prior WHERE i.id = :id AND prior.id = i.id AND prior.version = i.version"
+                    + condition + " RETURNING i.id, i.product_id, i.quantity, i.created_at, i.updated_at, i.version,"
+                    + " prior.quantity AS previous";
+        } else {
+            parameters.put("now", now);
+            sql = "SELECT " + COLUMNS + ", quantity AS previous FROM OLD TABLE (UPDATE INVENTORY i"
+                    + " SET quantity = :quantity, version = version + 1, updated_at = :now WHERE i.id = :id"
+                    + condition + ")";
+        }
+        List<Object[]> rows = query(sql, parameters).addScalar("previous", Integer.class).getResultList();
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Inventory updated = toInventory(rows.get(0));
+        if (!isPostgres()) {
+            // The replaced row; the rest of the new one is known
+            updated.quantity = quantity;
+            updated.version++;
+            updated.updatedAt = now;
+        }
+        int previous = (Integer) rows.get(0)[6];
+        InventoryMovement.record(InventoryMovement.of(updated, InventoryMovement.Kind.SET, quantity - previous));
+        return updated;
+    }
+
+    /**
+     * One round trip: UPDATE / DELETE ... RETURNING on PostgreSQL, the equivalent
+     * {@code FINAL TABLE} / {@code OLD TABLE} data change delta on H2.
+     *
+     * @return the written row, or {@code null} if the statement matched no row
+     */
+    private Inventory returning(String statement, boolean delete, Map<String, Object> parameters) {
+        String sql = isPostgres()
+                ? statement + " RETURNING " + COLUMNS
+                : "SELECT " + COLUMNS + " FROM " + (delete ? "OLD" : "FINAL") + " TABLE (" + statement + ")";
+        List<Inventory> rows = select(sql, parameters);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Run a native query selecting {@link #COLUMNS}.
+     */
+    private List<Inventory> select(String sql, Map<String, Object> parameters) {
+        List<Inventory> items = new ArrayList<>();
+        for (Object[] row : query(sql, parameters).getResultList()) {
+            items.add(toInventory(row));
+        }
+        return items;
+    }
+
+    /**
+     * A native query selecting {@link #COLUMNS} first; callers may add further scalars.
+     */
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Object[]> query(String sql, Map<String, Object> parameters) {
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("product_id", Long.class)
+                .addScalar("quantity", Integer.class)
+                .addScalar("created_at", Instant.class)
+                .addScalar("updated_at", Instant.class)
+                .addScalar("version", Long.class);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+
+    /**
+     * Why a conditional write on {@code itemId} matched no row.
+     */
+    private RuntimeException rejected(Long itemId, Long expectedVersion) {
+        Long current = entityManager
+                .createQuery("select i.version from Inventory i where i.id = ?1", Long.class)
+                .setParameter(1, itemId)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+        if (current == null || expectedVersion == null) {
+            return new InventoryNotFoundException(itemId);
+        }
+        LOG.debugf("Write to inventory %d rejected: expected version %d, found %d", itemId, expectedVersion, current);
+        return new VersionConflictException(itemId, expectedVersion, current);
+    }
+
+    private boolean isPostgres() {
+        return dbKind.startsWith("postgres");
+    }
+
+    private static Inventory toInventory(Object[] row) {
+        Inventory inventory = new Inventory();
+        inventory.id = (Long) row[0];
+        inventory.productId = (Long) row[1];
+        inventory.quantity = (Integer) row[2];
+        inventory.createdAt = (Instant) row[3];
+        inventory.updatedAt = (Instant) row[4];
+        inventory.version = (Long) row[5];
+        return inventory;
+    }
+}
@@ -0,0 +1,70 @@
+package com.redhat.cloudnative;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+import io.micrometer.core.annotation.Counted;
+import io.smallrye.mutiny.Multi;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.logging.Logger;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Server-sent stock events of v1, for clients that would otherwise poll
+ * {@code GET /api/v1/inventory/product/{productId}}.
+ *
+ * Kept apart from {@link InventoryResourceV1} because a stream holds its
+ * connection open: it runs on the Vert.x event loop, without the virtual thread
+ * and bulkhead of the request/response endpoints, so an open stream costs a
+ * connection and a small {@link StockStreamHub} subscription, not a thread.
+ */
+@Path("/api/v1/inventory/stream")
+@ApplicationScoped
+@Tag(name = "Inventory v1", description = "Inventory management operations (v1)")
+public class InventoryStreamResource {
+
+    private static final Logger LOG = Logger.getLogger(InventoryStreamResource.class);
+
+    @Inject
+    StockStreamHub streamHub;
+
+    @ConfigProperty(name = "inventory.stream.max-products", defaultValue = "100")
+    int maxProducts;
+
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Counted(value = "inventory.stream.count", description = "How many stock streams have been opened")
+    @Operation(summary = "Stream stock changes of products (v1)", description = "Server-sent events with the current stock of each product, then one event per change. A client that falls behind skips intermediate quantities and gets only the latest per product. A product without inventory is sent with quantity 0 and no itemId")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Stream of stock events", content = @Content(mediaType = MediaType.SERVER_SENT_EVENTS, schema = @Schema(implementation = StockChangeEvent.class))),
+            @APIResponse(responseCode = "400", description = "Missing, invalid or too many product IDs", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Multi<StockChangeEvent> stream(
+            @Parameter(description = "Product IDs, e.g. productIds=1001,1002 or productIds=1001&productIds=1002", required = true) @QueryParam("productIds") List<String> productIds) {
+        Set<Long> ids = new LinkedHashSet<>(InventoryBatchService.parseProductIds(productIds));
+        if (ids.size() > maxProducts) {
+            throw new InvalidInventoryException("At most " + maxProducts + " product IDs can be streamed at once");
+        }
+        LOG.debugf("Streaming stock of products %s", ids);
+        return streamHub.subscribe(ids);
+    }
+}
@@ -0,0 +1,196 @@
+package com.redhat.cloudnative;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group commit for quantity writes to the same item (opt-in with
+ * {@code inventory.write-coalescing.enabled}).
+ *
+ * Without it, every PATCH or adjustment of a hot item takes the row lock and
+ * commits on its own, so throughput on that row is bounded by lock hold time.
+ * Here writes are queued per item and one drainer per item applies whatever
+ * has queued up, up to {@code max-batch-size}, with
+ * {@link InventoryStockService#applyInOrder(Long, List)}: one lock, one UPDATE
+ * and one commit per batch. While a batch commits the next one fills up, so
+ * the batch size grows with the load. Callers wait until the batch holding
+ * their write has committed and get exactly the outcome they would have got
+ * without batching. When disabled, writes go straight to {@link InventoryStockService}.
+ */
+@ApplicationScoped
+public class InventoryWriteCoalescer {
+
+    private static final Logger LOG = Logger.getLogger(InventoryWriteCoalescer.class);
+
+    /**
+     * A queued set or delta, and its outcome once its batch has been applied.
+     */
+    static final class Write {
+        final boolean delta;
+        final int amount;
+        final Long expectedVersion;
+        final CompletableFuture<Inventory> done = new CompletableFuture<>();
+
+        // Filled in by InventoryStockService.applyInOrder
+        int quantity;
+        long version;
+        Inventory applied;
+        RuntimeException rejected;
+
+        Write(boolean delta, int amount, Long expectedVersion) {
+            this.delta = delta;
+            this.amount = amount;
+            this.expectedVersion = expectedVersion;
+        }
+    }
+
+    /**
+     * Writes waiting for one item. At most one drainer runs per queue.
+     */
+    private final class ItemQueue {
+        private final Long itemId;
+        private final Queue<Write> writes = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private ItemQueue(Long itemId) {
+            this.itemId = itemId;
+        }
+
+        private void drain() {
+            while (true) {
+                List<Write> batch = new ArrayList<>();
+                Write write;
+                while (batch.size() < maxBatchSize && (write = writes.poll()) != null) {
+                    batch.add(write);
+                }
+                if (!batch.isEmpty()) {
+                    apply(itemId, batch);
+                    continue;
+                }
+                // Idle: retire the queue, then pick up anything that slipped in meanwhile
+                queues.remove(itemId, this);
+                draining.set(false);
+                if (writes.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Inject
+    InventoryStockService stockService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "inventory.write-coalescing.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "inventory.write-coalescing.max-batch-size", defaultValue = "256")
+    int maxBatchSize;
+
+    @ConfigProperty(name = "inventory.write-coalescing.threads", defaultValue = "4")
+    int threads;
+
+    private final Map<Long, ItemQueue> queues = new ConcurrentHashMap<>();
+    private ExecutorService drainers;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger count = new AtomicInteger();
+        drainers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "inventory-write-coalescer-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        LOG.infof("Write coalescing enabled: up to %d writes per item and commit, %d drainer threads",
+                maxBatchSize, threads);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (drainers != null) {
+            drainers.shutdownNow();
+        }
+    }
+
+    /**
+     * @see InventoryStockService#setQuantity(Long, int, Long)
+     */
+    public Inventory setQuantity(Long itemId, int quantity, Long expectedVersion) {
+        if (drainers == null) {
+            return stockService.setQuantity(itemId, quantity, expectedVersion);
+        }
+        return submit(itemId, new Write(false, quantity, expectedVersion));
+    }
+
+    /**
+     * @see InventoryStockService#adjustById(Long, int)
+     */
+    public Inventory adjustById(Long itemId, int delta) {
+        if (drainers == null) {
+            return stockService.adjustById(itemId, delta);
+        }
+        return submit(itemId, new Write(true, delta, null));
+    }
+
+    private Inventory submit(Long itemId, Write write) {
+        ItemQueue queue = queues.computeIfAbsent(itemId, ItemQueue::new);
+        queue.writes.add(write);
+        if (queue.draining.compareAndSet(false, true)) {
+            try {
+                drainers.execute(queue::drain);
+            } catch (RejectedExecutionException e) {
+                queue.draining.set(false);
+                throw new IllegalStateException("Write coalescer is shut down", e);
+            }
+        }
+        try {
+            return write.done.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void apply(Long itemId, List<Write> batch) {
+        try {
+            stockService.applyInOrder(itemId, batch);
+        } catch (RuntimeException e) {
+            LOG.warnf(e, "Batch of %d writes to inventory %d failed", batch.size(), itemId);
+            batch.forEach(write -> write.done.completeExceptionally(e));
+            return;
+        }
+        meterRegistry.counter("inventory.write.batches").increment();
+        meterRegistry.summary("inventory.write.batch.size").record(batch.size());
+        for (Write write : batch) {
+            if (write.rejected != null) {
+                write.done.completeExceptionally(write.rejected);
+            } else {
+                write.done.complete(write.applied);
+            }
+        }
+    }
+}
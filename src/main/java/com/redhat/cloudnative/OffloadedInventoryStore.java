@@ -0,0 +1,88 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link ReactiveInventoryStore} for databases without a reactive driver (H2
+ * in dev and test). Runs the blocking Panache code of v1 on the worker pool,
+ * one transaction per operation, so the v2 contract behaves the same while
+ * event-loop threads still never block.
+ */
+public class OffloadedInventoryStore implements ReactiveInventoryStore {
+
+    private final StockHoldService holdService;
+    private final InventoryStockService stockService;
+
+    public OffloadedInventoryStore(StockHoldService holdService, InventoryStockService stockService) {
+        this.holdService = holdService;
+        this.stockService = stockService;
+    }
+
+    @Override
+    public Uni<Inventory> findById(Long itemId) {
+        return offload(() -> holdService.applyAvailability(Inventory.<Inventory>findById(itemId)));
+    }
+
+    @Override
+    public Uni<Inventory> findByProductId(Long productId) {
+        return offload(() -> holdService.applyAvailability(Inventory.findByProductId(productId)));
+    }
+
+    @Override
+    public Uni<List<Inventory>> findAfter(InventoryCursor.SortKey sortKey, Long after, int limit) {
+        return offload(() -> holdService.applyAvailability(Inventory.findAfter(sortKey, after, limit)));
+    }
+
+    @Override
+    public Uni<List<Inventory>> findRange(InventoryCursor.SortKey sortKey, int offset, int limit) {
+        return offload(() -> holdService.applyAvailability(Inventory.findRange(sortKey, offset, limit)));
+    }
+
+    @Override
+    public Uni<Long> count() {
+        return offload(Inventory::count);
+    }
+
+    @Override
+    public Uni<Inventory> insert(Long productId, int quantity) {
+        return offload(() -> {
+            if (Inventory.existsByProductId(productId)) {
+                throw new InvalidInventoryException("Inventory already exists for product " + productId);
+            }
+            Inventory inventory = new Inventory();
+            inventory.productId = productId;
+            inventory.quantity = quantity;
+            inventory.persist();
+            InventoryMovement.record(InventoryMovement.of(inventory, InventoryMovement.Kind.CREATE, quantity));
+            InventoryOutboxEvent.enqueue(inventory, InventoryOutboxEvent.Type.CREATED);
+            return inventory;
+        });
+    }
+
+    @Override
+    public Uni<Inventory> setQuantity(Long itemId, int quantity, Long expectedVersion) {
+        return offload(() -> stockService.setQuantity(itemId, quantity, expectedVersion));
+    }
+
+    @Override
+    public Uni<Inventory> adjust(boolean byProductId, Long key, int delta) {
+        return offload(() -> byProductId
+                ? stockService.adjustByProductId(key, delta)
+                : stockService.adjustById(key, delta));
+    }
+
+    @Override
+    public Uni<Inventory> delete(Long itemId, Long expectedVersion) {
+        return offload(() -> stockService.delete(itemId, expectedVersion));
+    }
+
+    private static <T> Uni<T> offload(Callable<T> work) {
+        return Uni.createFrom().item(() -> QuarkusTransaction.requiringNew().call(work))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+}
@@ -1,8 +1,10 @@
 package com.redhat.cloudnative;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Generic paginated response wrapper that includes metadata about pagination.
@@ -15,8 +17,9 @@ public class PaginatedResponse<T> {
     @Schema(description = "List of items in the current page")
     private List<T> data;
 
-    @Schema(description = "Total number of items across all pages", example = "100")
-    private long total;
+    @Schema(description = "Total number of items across all pages (omitted when includeTotal=false)", example = "100")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long total;
 
     @Schema(description = "Current page number (0-based)", example = "0")
     private int page;
@@ -24,8 +27,9 @@ public class PaginatedResponse<T> {
     @Schema(description = "Number of items per page", example = "20")
     private int size;
 
-    @Schema(description = "Total number of pages", example = "5")
-    private int totalPages;
+    @Schema(description = "Total number of pages (omitted when the total is not computed)", example = "5")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer totalPages;
 
     @Schema(description = "Whether there is a next page", example = "true")
     private boolean hasNext;
@@ -33,6 +37,10 @@ public class PaginatedResponse<T> {
     @Schema(description = "Whether there is a previous page", example = "false")
     private boolean hasPrevious;
 
+    @Schema(description = "Opaque cursor for the next page; pass it back as the 'cursor' query parameter", example = "aWQ6MzI5Mjk5")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     public PaginatedResponse() {
     }
 
@@ -46,6 +54,18 @@ public class PaginatedResponse<T> {
         this.hasPrevious = page > 0;
     }
 
+    public PaginatedResponse(List<T> data, Long total, int page, int size, boolean hasNext, boolean hasPrevious,
+            String nextCursor) {
+        this.data = data;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.totalPages = total == null ? null : calculateTotalPages(total, size);
+        this.hasNext = hasNext;
+        this.hasPrevious = hasPrevious;
+        this.nextCursor = nextCursor;
+    }
+
     private int calculateTotalPages(long total, int size) {
         if (size <= 0) {
             return 0;
@@ -62,11 +82,11 @@ public class PaginatedResponse<T> {
         this.data = data;
     }
 
-    public long getTotal() {
+    public Long getTotal() {
         return total;
     }
 
-    public void setTotal(long total) {
+    public void setTotal(Long total) {
         this.total = total;
     }
 
@@ -86,11 +106,11 @@ public class PaginatedResponse<T> {
         this.size = size;
     }
 
-    public int getTotalPages() {
+    public Integer getTotalPages() {
         return totalPages;
     }
 
-    public void setTotalPages(int totalPages) {
+    public void setTotalPages(Integer totalPages) {
         this.totalPages = totalPages;
     }
 
@@ -110,10 +130,53 @@ public class PaginatedResponse<T> {
         this.hasPrevious = hasPrevious;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     /**
      * Builder method to create a PaginatedResponse from a Panache query result
      */
     public static <T> PaginatedResponse<T> of(List<T> data, long total, int page, int size) {
         return new PaginatedResponse<>(data, total, page, size);
     }
+
+    /**
+     * Offset of the first row of a page, for a query fetching {@code size + 1} rows from it.
+     *
+     * @throws InvalidInventoryException if the page is negative or its rows lie past
+     *                                   what an int offset can address
+     */
+    public static int offset(int page, int size) {
+        if (page < 0) {
+            throw new InvalidInventoryException("Page cannot be negative");
+        }
+        long offset = (long) page * size;
+        if (offset + size > Integer.MAX_VALUE) {
+            throw new InvalidInventoryException("Page " + page + " is out of range; use the cursor for deep paging");
+        }
+        return (int) offset;
+    }
+
+    /**
+     * Builder method for a page fetched with one look-ahead row ({@code size + 1} items).
+     * The extra row only signals that a next page exists and is dropped from the data,
+     * so no COUNT query is needed to compute {@code hasNext}.
+     *
+     * @param fetched     rows fetched with a limit of {@code size + 1}
+     * @param total       total row count, or {@code null} if it was not requested
+     * @param hasPrevious whether the page was reached from an earlier one
+     * @param cursorOf    encodes the cursor pointing past a given row
+     */
+    public static <T> PaginatedResponse<T> ofLookAhead(List<T> fetched, Long total, int page, int size,
+            boolean hasPrevious, Function<T, String> cursorOf) {
+        boolean hasNext = fetched.size() > size;
+        List<T> data = hasNext ? fetched.subList(0, size) : fetched;
+        String nextCursor = hasNext ? cursorOf.apply(data.get(data.size() - 1)) : null;
+        return new PaginatedResponse<>(data, total, page, size, hasNext, hasPrevious, nextCursor);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,258 @@
+package com.redhat.cloudnative;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import io.vertx.pgclient.PgException;
+
+import org.jboss.logging.Logger;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ReactiveInventoryStore} on the Vert.x reactive PostgreSQL client.
+ *
+ * Every operation is a single statement whose result completes on the Vert.x
+ * event loop; no thread waits for the database. Reads compute the
+ * available-to-sell quantity in the same statement, writes return the changed
+ * row with {@code RETURNING} and append their movement to the ledger and their
+ * event to the outbox from data-modifying {@code WITH} clauses of the same
+ * statement. New IDs are taken from {@code Inventory_SEQ} in
+ * blocks of its increment, the same way Hibernate's pooled optimizer does,
+ * so they never collide with IDs handed out by ORM inserts.
+ */
+public class PgReactiveInventoryStore implements ReactiveInventoryStore {
+
+    private static final Logger LOG = Logger.getLogger(PgReactiveInventoryStore.class);
+
+    // Matches INCREMENT BY of Inventory_SEQ (V1.2.0)
+    private static final long ID_BLOCK = 50;
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private static final String COLUMNS = "id, product_id, quantity, created_at, updated_at, version";
+
+    private static final String SELECT = "SELECT i.id, i.product_id, i.quantity, i.created_at, i.updated_at, i.version,"
+            + " CAST(i.quantity - COALESCE((SELECT SUM(h.quantity) FROM INVENTORY_HOLD h"
+            + " WHERE h.product_id = i.product_id AND h.expires_at > CURRENT_TIMESTAMP), 0) AS INTEGER) AS available_to_sell"
+            + " FROM INVENTORY i";
+
+    private final PgPool pool;
+
+    private long nextId;
+    private long lastId = -1;
+
+    public PgReactiveInventoryStore(PgPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public Uni<Inventory> findById(Long itemId) {
+        return pool.preparedQuery(SELECT + " WHERE i.id = $1").execute(Tuple.of(itemId))
+                .map(rows -> first(rows, true));
+    }
+
+    @Override
+    public Uni<Inventory> findByProductId(Long productId) {
+        return pool.preparedQuery(SELECT + " WHERE i.product_id = $1").execute(Tuple.of(productId))
+                .map(rows -> first(rows, true));
+    }
+
+    @Override
+    public Uni<List<Inventory>> findAfter(InventoryCursor.SortKey sortKey, Long after, int limit) {
+        String column = "i." + column(sortKey);
+        if (after == null) {
+            return pool.preparedQuery(SELECT + " ORDER BY " + column + " LIMIT $1")
+                    .execute(Tuple.of(limit))
+                    .map(PgReactiveInventoryStore::all);
+        }
+        return pool.preparedQuery(SELECT + " WHERE " + column + " > $1 ORDER BY " + column + " LIMIT $2")
+                .execute(Tuple.of(after, limit))
+                .map(PgReactiveInventoryStore::all);
+    }
+
+    @Override
+    public Uni<List<Inventory>> findRange(InventoryCursor.SortKey sortKey, int offset, int limit) {
+        return pool.preparedQuery(SELECT + " ORDER BY i." + column(sortKey) + " LIMIT $1 OFFSET $2")
+                .execute(Tuple.of(limit, offset))
+                .map(PgReactiveInventoryStore::all);
+    }
+
+    @Override
+    public Uni<Long> count() {
+        return pool.query("SELECT COUNT(*) FROM INVENTORY").execute()
+                .map(rows -> rows.iterator().next().getLong(0));
+    }
+
+    @Override
+    public Uni<Inventory> insert(Long productId, int quantity) {
+        return nextId().flatMap(id -> pool
+                .preparedQuery(recorded("INSERT INTO INVENTORY (id, product_id, quantity, created_at, updated_at)"
+                        + " VALUES ($1, $2, $3, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)"
+                        + " RETURNING " + COLUMNS + ", quantity AS delta", InventoryMovement.Kind.CREATE))
+                .execute(Tuple.of(id, productId, quantity)))
+                .map(rows -> first(rows, false))
+                .onFailure(PgReactiveInventoryStore::isUniqueViolation)
+                .transform(e -> new InvalidInventoryException("Inventory already exists for product " + productId));
+    }
+
+    @Override
+    public Uni<Inventory> setQuantity(Long itemId, int quantity, Long expectedVersion) {
+        // Compare-and-set against the statement's own snapshot of the row, which also gives the ledger
+        // the quantity being replaced; a write committing in between makes it match nothing
+        String update = "UPDATE INVENTORY i SET quantity = $1, version = i.version + 1, updated_at = CURRENT_TIMESTAMP"
+                + " FROM INVENTORY prior WHERE i.id = $2 AND prior.id = i.id AND prior.version = i.version";
+        String returning = " RETURNING i.id, i.product_id, i.quantity, i.created_at, i.updated_at, i.version,"
+                + " i.quantity - prior.quantity AS delta";
+        Uni<RowSet<Row>> result = expectedVersion == null
+                ? pool.preparedQuery(recorded(update + returning, InventoryMovement.Kind.SET))
+                        .execute(Tuple.of(quantity, itemId))
+                : pool.preparedQuery(recorded(update + " AND i.version = $3" + returning, InventoryMovement.Kind.SET))
+                        .execute(Tuple.of(quantity, itemId, expectedVersion));
+        return result.flatMap(rows -> {
+            Inventory updated = first(rows, false);
+            if (updated != null || expectedVersion != null) {
+                return orRejected(updated, itemId, expectedVersion);
+            }
+            // Unconditional, so a raced statement is simply run again unless the item is gone
+            return pool.preparedQuery("SELECT 1 FROM INVENTORY WHERE id = $1").execute(Tuple.of(itemId))
+                    .flatMap(found -> found.rowCount() == 0
+                            ? Uni.createFrom().<Inventory>failure(new InventoryNotFoundException(itemId))
+                            : setQuantity(itemId, quantity, null));
+        });
+    }
+
+    @Override
+    public Uni<Inventory> adjust(boolean byProductId, Long key, int delta) {
+        String keyColumn = byProductId ? "product_id" : "id";
+        // A decrement leaves the units of active holds in stock
+        String guard = delta < 0
+                ? "quantity + $1 >= (SELECT COALESCE(SUM(h.quantity), 0) FROM INVENTORY_HOLD h"
+                        + " WHERE h.product_id = INVENTORY.product_id AND h.expires_at > CURRENT_TIMESTAMP)"
+                : "quantity <= 2147483647 - $1";
+        return pool.preparedQuery(recorded("UPDATE INVENTORY SET quantity = quantity + $1, version = version + 1,"
+                + " updated_at = CURRENT_TIMESTAMP"
+                + " WHERE " + keyColumn + " = $2 AND " + guard
+                + " RETURNING " + COLUMNS + ", $1 AS delta", InventoryMovement.Kind.ADJUST))
+                .execute(Tuple.of(delta, key))
+                .flatMap(rows -> {
+                    Inventory adjusted = first(rows, false);
+                    if (adjusted != null) {
+                        return Uni.createFrom().item(adjusted);
+                    }
+                    LOG.debugf("Adjustment of %d rejected for %s=%d", delta, keyColumn, key);
+                    return pool.preparedQuery("SELECT 1 FROM INVENTORY WHERE " + keyColumn + " = $1")
+                            .execute(Tuple.of(key))
+                            .flatMap(found -> Uni.createFrom().<Inventory>failure(found.rowCount() == 0
+                                    ? new InventoryNotFoundException(key)
+                                    : InsufficientStockException.rejected(key, delta)));
+                });
+    }
+
+    @Override
+    public Uni<Inventory> delete(Long itemId, Long expectedVersion) {
+        String returning = " RETURNING " + COLUMNS + ", -quantity AS delta";
+        Uni<RowSet<Row>> result = expectedVersion == null
+                ? pool.preparedQuery(recorded("DELETE FROM INVENTORY WHERE id = $1" + returning,
+                        InventoryMovement.Kind.DELETE)).execute(Tuple.of(itemId))
+                : pool.preparedQuery(recorded("DELETE FROM INVENTORY WHERE id = $1 AND version = $2" + returning,
+                        InventoryMovement.Kind.DELETE)).execute(Tuple.of(itemId, expectedVersion));
+        return result.flatMap(rows -> orRejected(first(rows, false), itemId, expectedVersion));
+    }
+
+    /**
+     * Wrap a write returning {@link #COLUMNS} and a {@code delta} column so that
+     * the same statement appends the movement to the ledger, enqueues the change
+     * to the outbox and returns the row.
+     */
+    private static String recorded(String statement, InventoryMovement.Kind kind) {
+        InventoryOutboxEvent.Type type = kind == InventoryMovement.Kind.CREATE ? InventoryOutboxEvent.Type.CREATED
+                : kind == InventoryMovement.Kind.DELETE ? InventoryOutboxEvent.Type.DELETED
+                : InventoryOutboxEvent.Type.UPDATED;
+        return "WITH changed AS (" + statement + "),"
+                + " moved AS (INSERT INTO INVENTORY_MOVEMENT (item_id, product_id, kind, delta, occurred_at)"
+                + " SELECT id, product_id, '" + kind.name() + "', delta, CURRENT_TIMESTAMP FROM changed),"
+                + " evented AS (INSERT INTO INVENTORY_OUTBOX"
+                + " (type, item_id, product_id, quantity, version, occurred_at, attempts, next_attempt_at)"
+                + " SELECT '" + type.name() + "', id, product_id, "
+                + (type == InventoryOutboxEvent.Type.DELETED ? "0" : "quantity")
+                + ", version, CURRENT_TIMESTAMP, 0, CURRENT_TIMESTAMP FROM changed)"
+                + " SELECT " + COLUMNS + " FROM changed";
+    }
+
+    /**
+     * The written item, or the reason a conditional write on {@code itemId} matched no row.
+     */
+    private Uni<Inventory> orRejected(Inventory written, Long itemId, Long expectedVersion) {
+        if (written != null) {
+            return Uni.createFrom().item(written);
+        }
+        return pool.preparedQuery("SELECT version FROM INVENTORY WHERE id = $1").execute(Tuple.of(itemId))
+                .flatMap(rows -> Uni.createFrom().<Inventory>failure(rows.rowCount() == 0 || expectedVersion == null
+                        ? new InventoryNotFoundException(itemId)
+                        : new VersionConflictException(itemId, expectedVersion, rows.iterator().next().getLong(0))));
+    }
+
+    /**
+     * Next ID of the current block, fetching a new block from the sequence once
+     * it is used up. Blocks fetched concurrently just leave gaps.
+     */
+    private Uni<Long> nextId() {
+        synchronized (this) {
+            if (nextId <= lastId) {
+                return Uni.createFrom().item(nextId++);
+            }
+        }
+        return pool.query("SELECT nextval('inventory_seq')").execute().map(rows -> {
+            long high = rows.iterator().next().getLong(0);
+            synchronized (this) {
+                nextId = Math.max(1, high - ID_BLOCK + 1);
+                lastId = high;
+                return nextId++;
+            }
+        });
+    }
+
+    private static String column(InventoryCursor.SortKey sortKey) {
+        return sortKey == InventoryCursor.SortKey.PRODUCT_ID ? "product_id" : "id";
+    }
+
+    private static boolean isUniqueViolation(Throwable failure) {
+        return failure instanceof PgException && UNIQUE_VIOLATION.equals(((PgException) failure).getSqlState());
+    }
+
+    private static Inventory first(RowSet<Row> rows, boolean withAvailability) {
+        return rows.rowCount() == 0 ? null : toInventory(rows.iterator().next(), withAvailability);
+    }
+
+    private static List<Inventory> all(RowSet<Row> rows) {
+        List<Inventory> items = new ArrayList<>(rows.rowCount());
+        for (Row row : rows) {
+            items.add(toInventory(row, true));
+        }
+        return items;
+    }
+
+    private static Inventory toInventory(Row row, boolean withAvailability) {
+        Inventory inventory = new Inventory();
+        inventory.id = row.getLong("id");
+        inventory.productId = row.getLong("product_id");
+        inventory.quantity = row.getInteger("quantity");
+        inventory.createdAt = toInstant(row.getOffsetDateTime("created_at"));
+        inventory.updatedAt = toInstant(row.getOffsetDateTime("updated_at"));
+        inventory.version = row.getLong("version");
+        if (withAvailability) {
+            inventory.availableToSell = row.getInteger("available_to_sell");
+        }
+        return inventory;
+    }
+
+    private static Instant toInstant(OffsetDateTime timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
@@ -0,0 +1,163 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Membership filter over every {@code product_id}, so lookups of products that
+ * definitely do not exist can answer 404 without a cache entry or a query.
+ *
+ * The {@link BloomFilter} is built from the table in the background at startup
+ * and fed every product ID that the write paths (through
+ * {@link InventoryCacheCoordinator}) or other replicas (through
+ * {@link InventoryInvalidationBus}) touch. Until a build has finished, and
+ * whenever invalidation messages may have been lost, every product is treated
+ * as possibly present. Deleted products stay in the filter until the next
+ * rebuild, which only costs a query. The filter is rebuilt larger once more
+ * products were added than it was sized for.
+ */
+@ApplicationScoped
+public class ProductIdFilter {
+
+    private static final Logger LOG = Logger.getLogger(ProductIdFilter.class);
+
+    private static final int FETCH_SIZE = 1000;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @ConfigProperty(name = "inventory.product-filter.enabled", defaultValue = "true")
+    boolean enabled;
+
+    // Products created on other replicas only reach this filter over the bus
+    @ConfigProperty(name = "inventory.cache.bus.enabled", defaultValue = "true")
+    boolean busEnabled;
+
+    @ConfigProperty(name = "inventory.product-filter.fpp", defaultValue = "0.01")
+    double fpp;
+
+    @ConfigProperty(name = "inventory.product-filter.min-capacity", defaultValue = "100000")
+    long minCapacity;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private ExecutorService rebuilder;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled || !busEnabled) {
+            LOG.info("Product ID filter is disabled");
+            enabled = false;
+            return;
+        }
+        rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-product-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        requestRebuild();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    /**
+     * @return {@code false} only if the product certainly has no inventory
+     */
+    public boolean mightContain(Long productId) {
+        BloomFilter filter = current;
+        return filter == null || filter.mightContain(productId);
+    }
+
+    /**
+     * Record a product ID that may have just been created.
+     */
+    public void add(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.add(productId);
+            if (filter.insertions() > filter.capacity()) {
+                requestRebuild();
+            }
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.add(productId);
+        }
+    }
+
+    /**
+     * Stop answering "definitely absent" until the filter has been rebuilt,
+     * e.g. after invalidation messages from other replicas were missed.
+     */
+    public void reset() {
+        if (enabled) {
+            current = null;
+            requestRebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    void requestRebuild() {
+        if (rebuilder != null && rebuildPending.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            long products = QuarkusTransaction.requiringNew().call(Inventory::count);
+            BloomFilter next = BloomFilter.create(Math.max(minCapacity, products * 2), fpp);
+            // Publish before scanning: anything committed after the scan started reaches add()
+            building = next;
+            rebuildPending.set(false);
+            QuarkusTransaction.requiringNew().run(() -> scan(next));
+            current = next;
+            LOG.infof("Built product ID filter over %d products (capacity %d) in %d ms", products,
+                    next.capacity(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            rebuildPending.set(false);
+            LOG.error("Failed to build product ID filter; every product is treated as possibly present", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    private void scan(BloomFilter filter) {
+        try (StatelessSession session = sessionFactory.openStatelessSession();
+                ScrollableResults<Long> productIds = session
+                        .createQuery("select productId from Inventory", Long.class)
+                        .setFetchSize(FETCH_SIZE)
+                        .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (productIds.next()) {
+                filter.add(productIds.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.redhat.cloudnative;
+
+import java.math.BigInteger;
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipfian popularity over a contiguous range of product IDs.
+ *
+ * Popularity ranks are spread over the range by a fixed permutation, so the
+ * hottest products are not all neighbours in the product_id index. The
+ * dataset generator uses it to size stock by demand, and load tests and
+ * benchmarks use it to pick products with the same skew.
+ */
+public final class ProductPopularity {
+
+    // Odd 64-bit golden-ratio constant; reduced to a multiplier coprime to the range size
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private final long firstProductId;
+    private final long products;
+    private final long multiplier;
+    private final long inverse;
+    private final ZipfianGenerator ranks;
+
+    public ProductPopularity(long firstProductId, long products, double exponent) {
+        if (products < 1 || products > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Product count out of range: " + products);
+        }
+        this.firstProductId = firstProductId;
+        this.products = products;
+        this.ranks = new ZipfianGenerator(products, exponent);
+        long m = Math.max(1, Math.floorMod(GOLDEN, products));
+        BigInteger size = BigInteger.valueOf(products);
+        while (!BigInteger.valueOf(m).gcd(size).equals(BigInteger.ONE)) {
+            m++;
+        }
+        this.multiplier = m % products;
+        this.inverse = products == 1 ? 0 : BigInteger.valueOf(m).modInverse(size).longValue();
+    }
+
+    /**
+     * Product ID holding popularity rank {@code rank} (1 = most popular).
+     */
+    public long productId(long rank) {
+        return firstProductId + (rank - 1) * multiplier % products;
+    }
+
+    /**
+     * Popularity rank of a product ID in the range.
+     */
+    public long rank(long productId) {
+        return (productId - firstProductId) * inverse % products + 1;
+    }
+
+    /**
+     * Expected share of requests that go to {@code productId}.
+     */
+    public double share(long productId) {
+        return ranks.probability(rank(productId));
+    }
+
+    /**
+     * A product ID drawn by popularity.
+     */
+    public long sample(RandomGenerator random) {
+        return productId(ranks.next(random));
+    }
+
+    public long products() {
+        return products;
+    }
+}
@@ -0,0 +1,32 @@
+package com.redhat.cloudnative;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO for signed stock adjustments.
+ * Positive deltas add stock, negative deltas remove it.
+ */
+public class QuantityAdjustmentRequest {
+
+    @NotNull(message = "Delta is required")
+    @Min(value = -1_000_000_000, message = "Delta is out of range")
+    @Max(value = 1_000_000_000, message = "Delta is out of range")
+    private Integer delta;
+
+    public QuantityAdjustmentRequest() {
+    }
+
+    public QuantityAdjustmentRequest(Integer delta) {
+        this.delta = delta;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+}
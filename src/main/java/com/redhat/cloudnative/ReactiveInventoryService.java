@@ -0,0 +1,164 @@
+package com.redhat.cloudnative;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.mutiny.pgclient.PgPool;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Inventory operations for the reactive v2 API, on a {@link ReactiveInventoryStore}.
+ *
+ * On PostgreSQL with a reactive datasource the store is a
+ * {@link PgReactiveInventoryStore}; elsewhere an {@link OffloadedInventoryStore}
+ * stands in. Reads go through the same caches as v1 and writes evict the same
+ * entries once the statement has committed, so both versions stay consistent.
+ */
+@ApplicationScoped
+public class ReactiveInventoryService {
+
+    private static final Logger LOG = Logger.getLogger(ReactiveInventoryService.class);
+
+    @Inject
+    Instance<PgPool> pgPool;
+
+    @Inject
+    StockHoldService holdService;
+
+    @Inject
+    InventoryStockService stockService;
+
+    @Inject
+    InventoryCacheLoader cacheLoader;
+
+    @Inject
+    InventoryCacheCoordinator cacheCoordinator;
+
+    @Inject
+    HotStockCounters hotStock;
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    @ConfigProperty(name = "inventory.v2.stream-page-size", defaultValue = "500")
+    int streamPageSize;
+
+    private ReactiveInventoryStore store;
+
+    @PostConstruct
+    void init() {
+        store = dbKind.startsWith("postgres") && pgPool.isResolvable()
+                ? new PgReactiveInventoryStore(pgPool.get())
+                : new OffloadedInventoryStore(holdService, stockService);
+        LOG.infof("Reactive inventory API uses %s", store.getClass().getSimpleName());
+    }
+
+    /**
+     * The item as the JSON it is served as. Fails with {@link InventoryNotFoundException}
+     * if no such item exists.
+     */
+    public Uni<EncodedInventory> getById(Long itemId) {
+        return cacheLoader.getEncodedByIdAsync(itemId, store::findById);
+    }
+
+    /**
+     * The product's inventory as the JSON it is served as. Fails with
+     * {@link InventoryNotFoundException} if the product has no inventory.
+     */
+    public Uni<EncodedInventory> getByProductId(Long productId) {
+        return cacheLoader.getEncodedByProductIdAsync(productId, store::findByProductId);
+    }
+
+    public Uni<List<Inventory>> findAfter(InventoryCursor.SortKey sortKey, Long after, int limit) {
+        return store.findAfter(sortKey, after, limit);
+    }
+
+    public Uni<List<Inventory>> findRange(InventoryCursor.SortKey sortKey, int offset, int limit) {
+        return store.findRange(sortKey, offset, limit);
+    }
+
+    public Uni<Long> count() {
+        return store.count();
+    }
+
+    /**
+     * Every item in ID order, read in keyset pages of {@code inventory.v2.stream-page-size}.
+     * The next page is only queried once the subscriber has asked for more items.
+     */
+    public Multi<Inventory> streamAll() {
+        return Multi.createFrom().deferred(() -> {
+            AtomicReference<Long> last = new AtomicReference<>();
+            return Multi.createBy().repeating()
+                    .uni(() -> store.findAfter(InventoryCursor.SortKey.ID, last.get(), streamPageSize)
+                            .invoke(page -> {
+                                if (!page.isEmpty()) {
+                                    last.set(page.get(page.size() - 1).id);
+                                }
+                            }))
+                    .whilst(page -> page.size() == streamPageSize)
+                    .onItem().<Inventory>disjoint();
+        });
+    }
+
+    /**
+     * Fails with {@link InvalidInventoryException} if the product already has inventory.
+     */
+    public Uni<Inventory> create(Long productId, int quantity) {
+        return store.insert(productId, quantity).invoke(cacheCoordinator::evict);
+    }
+
+    /**
+     * @see ReactiveInventoryStore#setQuantity(Long, int, Long)
+     */
+    public Uni<Inventory> updateQuantity(Long itemId, int quantity, Long expectedVersion) {
+        return releaseHot(itemId, expectedVersion)
+                .flatMap(expected -> store.setQuantity(itemId, quantity, expected))
+                .invoke(cacheCoordinator::evict);
+    }
+
+    /**
+     * @see ReactiveInventoryStore#adjust(boolean, Long, int)
+     */
+    public Uni<Inventory> adjustById(Long itemId, int delta) {
+        return store.adjust(false, itemId, delta).invoke(cacheCoordinator::evict);
+    }
+
+    /**
+     * @see ReactiveInventoryStore#adjust(boolean, Long, int)
+     */
+    public Uni<Inventory> adjustByProductId(Long productId, int delta) {
+        return store.adjust(true, productId, delta).invoke(cacheCoordinator::evict);
+    }
+
+    /**
+     * @see ReactiveInventoryStore#delete(Long, Long)
+     */
+    public Uni<Inventory> delete(Long itemId, Long expectedVersion) {
+        return releaseHot(itemId, expectedVersion)
+                .flatMap(expected -> store.delete(itemId, expected))
+                .invoke(cacheCoordinator::evict);
+    }
+
+    /**
+     * {@link HotStockCounters#release(Long, Long)} on the worker pool, if the item is hot here.
+     *
+     * @return the version the following conditional write has to require
+     */
+    private Uni<Long> releaseHot(Long itemId, Long expectedVersion) {
+        if (!hotStock.isHot(itemId)) {
+            return Uni.createFrom().item(expectedVersion);
+        }
+        return Uni.createFrom().item(() -> hotStock.release(itemId, expectedVersion))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+}
@@ -0,0 +1,55 @@
+package com.redhat.cloudnative;
+
+import io.smallrye.mutiny.Uni;
+
+import java.util.List;
+
+/**
+ * Non-blocking access to the INVENTORY table for the v2 API.
+ *
+ * Items returned by reads carry {@link Inventory#availableToSell}; items
+ * returned by writes do not, as on v1. Lookups that find nothing emit
+ * {@code null} rather than failing, so callers decide how to report it.
+ *
+ * @see ReactiveInventoryService
+ */
+public interface ReactiveInventoryStore {
+
+    Uni<Inventory> findById(Long itemId);
+
+    Uni<Inventory> findByProductId(Long productId);
+
+    /**
+     * Keyset page: up to {@code limit} rows strictly after {@code after} (or from the start).
+     */
+    Uni<List<Inventory>> findAfter(InventoryCursor.SortKey sortKey, Long after, int limit);
+
+    Uni<List<Inventory>> findRange(InventoryCursor.SortKey sortKey, int offset, int limit);
+
+    Uni<Long> count();
+
+    /**
+     * @throws InvalidInventoryException (as a failure) if the product already has inventory
+     */
+    Uni<Inventory> insert(Long productId, int quantity);
+
+    /**
+     * Set the quantity in one UPDATE, as a compare-and-set on the row version
+     * when {@code expectedVersion} is given. Fails with {@link InventoryNotFoundException}
+     * or {@link VersionConflictException}.
+     */
+    Uni<Inventory> setQuantity(Long itemId, int quantity, Long expectedVersion);
+
+    /**
+     * Add a signed delta in one conditional UPDATE, as {@link InventoryStockService} does.
+     * Fails with {@link InventoryNotFoundException} if no item matches the key and with
+     * {@link InsufficientStockException} if the delta would make stock negative or overflow it.
+     */
+    Uni<Inventory> adjust(boolean byProductId, Long key, int delta);
+
+    /**
+     * Delete in one statement, only at {@code expectedVersion} when given.
+     * Emits the deleted item; fails like {@link #setQuantity(Long, int, Long)}.
+     */
+    Uni<Inventory> delete(Long itemId, Long expectedVersion);
+}
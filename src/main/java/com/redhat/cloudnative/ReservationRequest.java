@@ -0,0 +1,76 @@
+package com.redhat.cloudnative;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO for multi-item reservation (checkout) requests.
+ * All lines are reserved together or not at all.
+ */
+@Schema(description = "Batch of stock reservations applied atomically")
+public class ReservationRequest {
+
+    @NotEmpty(message = "At least one line is required")
+    @Size(max = 500, message = "At most 500 lines can be reserved at once")
+    @Schema(description = "Lines to reserve", required = true)
+    private List<@Valid @NotNull Line> lines;
+
+    public ReservationRequest() {
+    }
+
+    public ReservationRequest(List<Line> lines) {
+        this.lines = lines;
+    }
+
+    public List<Line> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<Line> lines) {
+        this.lines = lines;
+    }
+
+    @Schema(description = "A single product and the quantity to reserve")
+    public static class Line {
+
+        @NotNull(message = "Product ID is required")
+        @Schema(description = "Product ID", required = true, example = "1002")
+        private Long productId;
+
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        @Schema(description = "Quantity to reserve", required = true, example = "2")
+        private Integer quantity;
+
+        public Line() {
+        }
+
+        public Line(Long productId, Integer quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
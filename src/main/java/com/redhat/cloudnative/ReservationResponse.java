@@ -0,0 +1,120 @@
+package com.redhat.cloudnative;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Outcome of a multi-item reservation with one result per requested product.
+ */
+@Schema(description = "Result of a batch reservation")
+public class ReservationResponse {
+
+    public enum LineStatus {
+        RESERVED,
+        INSUFFICIENT_STOCK,
+        NOT_FOUND,
+        /** The line itself was fine but another line failed, so nothing was applied */
+        NOT_APPLIED
+    }
+
+    @Schema(description = "Whether every line was reserved", example = "true")
+    private boolean reserved;
+
+    @Schema(description = "Per-product results, ordered by product ID")
+    private List<LineResult> lines;
+
+    public ReservationResponse() {
+    }
+
+    public ReservationResponse(boolean reserved, List<LineResult> lines) {
+        this.reserved = reserved;
+        this.lines = lines;
+    }
+
+    public boolean isReserved() {
+        return reserved;
+    }
+
+    public void setReserved(boolean reserved) {
+        this.reserved = reserved;
+    }
+
+    public List<LineResult> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<LineResult> lines) {
+        this.lines = lines;
+    }
+
+    @Schema(description = "Result for a single product")
+    public static class LineResult {
+
+        @Schema(description = "Product ID", example = "1002")
+        private Long productId;
+
+        @Schema(description = "Inventory item ID, null if the product is unknown", example = "329299")
+        private Long inventoryId;
+
+        @Schema(description = "Quantity requested (duplicate lines are summed)", example = "2")
+        private int requested;
+
+        @Schema(description = "Stock not under an active hold before the reservation, null if the product is unknown", example = "35")
+        private Integer available;
+
+        @Schema(description = "Line outcome")
+        private LineStatus status;
+
+        public LineResult() {
+        }
+
+        public LineResult(Long productId, Long inventoryId, int requested, Integer available, LineStatus status) {
+            this.productId = productId;
+            this.inventoryId = inventoryId;
+            this.requested = requested;
+            this.available = available;
+            this.status = status;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public Long getInventoryId() {
+            return inventoryId;
+        }
+
+        public void setInventoryId(Long inventoryId) {
+            this.inventoryId = inventoryId;
+        }
+
+        public int getRequested() {
+            return requested;
+        }
+
+        public void setRequested(int requested) {
+            this.requested = requested;
+        }
+
+        public Integer getAvailable() {
+            return available;
+        }
+
+        public void setAvailable(Integer available) {
+            this.available = available;
+        }
+
+        public LineStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(LineStatus status) {
+            this.status = status;
+        }
+    }
+}
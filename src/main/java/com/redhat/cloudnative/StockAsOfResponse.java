@@ -0,0 +1,54 @@
+package com.redhat.cloudnative;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * Stock of an item at a point in time, replayed from the ledger.
+ */
+@Schema(description = "Stock of an inventory item at a point in time")
+public class StockAsOfResponse {
+
+    @Schema(description = "Inventory item ID", example = "329299")
+    private Long itemId;
+
+    @Schema(description = "Point in time the quantity applies to")
+    private Instant asOf;
+
+    @Schema(description = "Quantity after every movement made up to asOf", example = "35")
+    private int quantity;
+
+    public StockAsOfResponse() {
+    }
+
+    public StockAsOfResponse(Long itemId, Instant asOf, int quantity) {
+        this.itemId = itemId;
+        this.asOf = asOf;
+        this.quantity = quantity;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(Instant asOf) {
+        this.asOf = asOf;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
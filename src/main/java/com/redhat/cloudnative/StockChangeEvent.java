@@ -0,0 +1,92 @@
+package com.redhat.cloudnative;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * Body of a stock change event: the item as stored after the change.
+ */
+@Schema(description = "Stock of an inventory item after a change")
+public class StockChangeEvent {
+
+    @Schema(description = "Inventory item ID", example = "329299")
+    private Long itemId;
+
+    @Schema(description = "Product ID of the item", example = "1002")
+    private Long productId;
+
+    @Schema(description = "Quantity after the change; 0 once the item is deleted", example = "35")
+    private int quantity;
+
+    @Schema(description = "Row version after the change; events with a lower version are stale", example = "4")
+    private long version;
+
+    @Schema(description = "Quantity minus active holds; only on the stock stream", example = "30")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer availableToSell;
+
+    @Schema(description = "When the change was made")
+    private Instant occurredAt;
+
+    public StockChangeEvent() {
+    }
+
+    public StockChangeEvent(Long itemId, Long productId, int quantity, long version, Instant occurredAt) {
+        this.itemId = itemId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.version = version;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Integer getAvailableToSell() {
+        return availableToSell;
+    }
+
+    public void setAvailableToSell(Integer availableToSell) {
+        this.availableToSell = availableToSell;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,12 @@
+package com.redhat.cloudnative;
+
+/**
+ * Raised when a stock hold does not exist, was already released or has expired.
+ * Mapped to 404 by {@link InventoryNotFoundExceptionMapper}.
+ */
+public class StockHoldNotFoundException extends InventoryNotFoundException {
+
+    public StockHoldNotFoundException(Long holdId) {
+        super("Stock hold not found or expired with id: ", holdId);
+    }
+}
@@ -0,0 +1,258 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Time-limited stock holds.
+ *
+ * The INVENTORY_HOLD table is the source of truth: a hold only counts against
+ * available-to-sell while {@code expires_at} is in the future, so reads are correct
+ * even before an expired row has been cleaned up. Cleanup (and the cache
+ * invalidation that makes expiry visible) is driven by an in-memory
+ * {@link TimingWheel}, which costs O(1) per tick instead of polling the table.
+ * Every pod reloads the pending holds into its wheel at startup.
+ */
+@ApplicationScoped
+public class StockHoldService {
+
+    private static final Logger LOG = Logger.getLogger(StockHoldService.class);
+
+    private static final int EXPIRY_BATCH_SIZE = 500;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    InventoryStockService stockService;
+
+    @Inject
+    InventoryCacheCoordinator cacheCoordinator;
+
+    @ConfigProperty(name = "inventory.holds.default-ttl", defaultValue = "15m")
+    Duration defaultTtl;
+
+    @ConfigProperty(name = "inventory.holds.tick", defaultValue = "1s")
+    Duration tick;
+
+    @ConfigProperty(name = "inventory.holds.wheel-size", defaultValue = "512")
+    int wheelSize;
+
+    private final Map<Long, TimingWheel.Timeout<Long>> timeouts = new ConcurrentHashMap<>();
+    private TimingWheel<Long> wheel;
+    private ScheduledExecutorService ticker;
+
+    void onStart(@Observes StartupEvent event) {
+        wheel = new TimingWheel<>(tick.toMillis(), wheelSize, System.currentTimeMillis());
+        int pending = QuarkusTransaction.requiringNew().call(this::reload);
+        LOG.infof("Loaded %d pending stock holds into the expiry wheel", pending);
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::advance, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Hold stock for a product if enough of it is available to sell.
+     *
+     * @param ttl how long to hold, or {@code null} for the configured default
+     * @throws InventoryNotFoundException  if the product has no inventory
+     * @throws InsufficientStockException  if available-to-sell is below the requested quantity
+     */
+    @Transactional
+    public InventoryHold place(Long productId, int quantity, Duration ttl) {
+        // The inventory row lock serializes holds on the same product
+        Inventory inventory = Inventory.<Inventory>find("productId", productId)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .firstResult();
+        if (inventory == null) {
+            throw new InventoryNotFoundException(productId);
+        }
+        Instant now = Instant.now();
+        int available = inventory.quantity - InventoryHold.activeQuantity(productId, now);
+        if (available < quantity) {
+            throw new InsufficientStockException("Insufficient stock to hold " + quantity + " of product "
+                    + productId + " (available to sell: " + available + ")", productId, -quantity);
+        }
+        InventoryHold hold = new InventoryHold();
+        hold.productId = productId;
+        hold.quantity = quantity;
+        hold.expiresAt = now.plus(ttl != null ? ttl : defaultTtl);
+        hold.persist();
+        schedule(hold.id, hold.expiresAt);
+        cacheCoordinator.evictAfterCommit(inventory.id, productId);
+        LOG.infof("Placed hold %d on product %d for %d units until %s", hold.id, productId, quantity, hold.expiresAt);
+        return hold;
+    }
+
+    /**
+     * Look up a hold that is still active.
+     *
+     * @throws StockHoldNotFoundException if it does not exist or has expired
+     */
+    public InventoryHold get(Long holdId) {
+        InventoryHold hold = InventoryHold.findById(holdId);
+        if (hold == null || !hold.expiresAt.isAfter(Instant.now())) {
+            throw new StockHoldNotFoundException(holdId);
+        }
+        return hold;
+    }
+
+    /**
+     * Release a hold before it expires, making its stock available again.
+     */
+    @Transactional
+    public void release(Long holdId) {
+        InventoryHold hold = lockActive(holdId);
+        hold.delete();
+        cancel(holdId);
+        Inventory inventory = Inventory.findByProductId(hold.productId);
+        cacheCoordinator.evictAfterCommit(inventory == null ? null : inventory.id, hold.productId);
+        LOG.infof("Released hold %d on product %d", holdId, hold.productId);
+    }
+
+    /**
+     * Turn a hold into a real decrement of the stock, e.g. once payment succeeded.
+     *
+     * @return the inventory after the decrement
+     */
+    @Transactional
+    public Inventory confirm(Long holdId) {
+        InventoryHold hold = lockActive(holdId);
+        // Gone before the decrement, whose guard would otherwise count the hold against itself
+        hold.delete();
+        InventoryHold.flush();
+        Inventory inventory = stockService.adjustByProductId(hold.productId, -hold.quantity);
+        cancel(holdId);
+        cacheCoordinator.evictAfterCommit(inventory.id, hold.productId);
+        LOG.infof("Confirmed hold %d on product %d", holdId, hold.productId);
+        return inventory;
+    }
+
+    /**
+     * Fill in {@link Inventory#availableToSell} for one item.
+     */
+    public Inventory applyAvailability(Inventory inventory) {
+        if (inventory != null) {
+            inventory.availableToSell = inventory.quantity - InventoryHold.activeQuantity(inventory.productId, Instant.now());
+        }
+        return inventory;
+    }
+
+    /**
+     * Fill in {@link Inventory#availableToSell} for a page of items with a single query.
+     */
+    public List<Inventory> applyAvailability(List<Inventory> items) {
+        if (items.isEmpty()) {
+            return items;
+        }
+        List<Long> productIds = items.stream().map(i -> i.productId).collect(Collectors.toList());
+        Map<Long, Integer> held = InventoryHold.activeQuantities(productIds, Instant.now());
+        for (Inventory inventory : items) {
+            inventory.availableToSell = inventory.quantity - held.getOrDefault(inventory.productId, 0);
+        }
+        return items;
+    }
+
+    /**
+     * Number of holds waiting in this pod's expiry wheel.
+     */
+    public int pendingExpiries() {
+        return wheel.size();
+    }
+
+    private InventoryHold lockActive(Long holdId) {
+        InventoryHold hold = InventoryHold.findById(holdId, LockModeType.PESSIMISTIC_WRITE);
+        if (hold == null || !hold.expiresAt.isAfter(Instant.now())) {
+            throw new StockHoldNotFoundException(holdId);
+        }
+        return hold;
+    }
+
+    private int reload() {
+        Instant now = Instant.now();
+        long purged = InventoryHold.delete("expiresAt <= ?1", now);
+        if (purged > 0) {
+            LOG.infof("Purged %d stock holds that expired while no pod was watching", purged);
+        }
+        List<Object[]> rows = entityManager
+                .createQuery("select h.id, h.expiresAt from InventoryHold h", Object[].class)
+                .getResultList();
+        for (Object[] row : rows) {
+            schedule((Long) row[0], (Instant) row[1]);
+        }
+        return rows.size();
+    }
+
+    private void schedule(Long holdId, Instant expiresAt) {
+        TimingWheel.Timeout<Long> timeout = wheel.schedule(holdId, expiresAt.toEpochMilli());
+        if (timeout != null) {
+            timeouts.put(holdId, timeout);
+        }
+    }
+
+    private void cancel(Long holdId) {
+        TimingWheel.Timeout<Long> timeout = timeouts.remove(holdId);
+        if (timeout != null) {
+            wheel.cancel(timeout);
+        }
+    }
+
+    private void advance() {
+        try {
+            List<Long> expired = wheel.advance(System.currentTimeMillis());
+            for (int from = 0; from < expired.size(); from += EXPIRY_BATCH_SIZE) {
+                expire(expired.subList(from, Math.min(from + EXPIRY_BATCH_SIZE, expired.size())));
+            }
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the ticker; the rows are purged again on the next startup
+            LOG.error("Failed to expire stock holds", e);
+        }
+    }
+
+    private void expire(List<Long> holdIds) {
+        holdIds.forEach(timeouts::remove);
+        List<Object[]> affected = QuarkusTransaction.requiringNew().call(() -> {
+            List<Object[]> items = entityManager
+                    .createQuery("select i.id, i.productId from Inventory i where i.productId in"
+                            + " (select h.productId from InventoryHold h where h.id in ?1)", Object[].class)
+                    .setParameter(1, holdIds)
+                    .getResultList();
+            InventoryHold.delete("id in ?1 and expiresAt <= ?2", holdIds, Instant.now());
+            return items;
+        });
+        for (Object[] item : affected) {
+            cacheCoordinator.evict((Long) item[0], (Long) item[1]);
+        }
+        LOG.debugf("Expired %d stock holds", holdIds.size());
+    }
+}
@@ -0,0 +1,298 @@
+package com.redhat.cloudnative;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.helpers.Subscriptions;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes the stock of watched products to stream subscribers on this pod.
+ *
+ * The hub learns about changes from the {@link InventoryCacheCoordinator}: every
+ * eviction, local or received over the {@link InventoryInvalidationBus}, marks the
+ * product dirty if anyone watches it. Writers only add to a set and never wait
+ * for subscribers. Every {@code publish-interval} one thread reads all dirty
+ * products with a single query per chunk and hands the result to the
+ * subscribers of each product, so database load follows the number of changed
+ * products, not the number of connections, and many writes to one product
+ * between two runs become one event.
+ *
+ * Each subscriber holds at most one pending event per product it watches. If
+ * the client is slower than the changes, a newer event replaces the pending
+ * one: the client skips quantities in between but always ends on the latest,
+ * and its buffer never grows beyond its product count.
+ */
+@ApplicationScoped
+public class StockStreamHub {
+
+    private static final Logger LOG = Logger.getLogger(StockStreamHub.class);
+
+    private static final int READ_CHUNK = 1000;
+
+    @Inject
+    StockHoldService holdService;
+
+    @Inject
+    HotStockCounters hotStock;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "inventory.stream.publish-interval", defaultValue = "100ms")
+    Duration publishInterval;
+
+    private final Map<Long, Set<Subscription>> watchers = new ConcurrentHashMap<>();
+    // Last event published per watched product, the first event of a later subscriber
+    private final Map<Long, StockChangeEvent> latest = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private ScheduledExecutorService ticker;
+
+    void onStart(@Observes StartupEvent event) {
+        meterRegistry.gauge("inventory.stream.subscribers", subscribers);
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-stock-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = publishInterval.toMillis();
+        ticker.scheduleWithFixedDelay(this::publishQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        LOG.infof("Stock stream publishing changes every %s", publishInterval);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Stock events of the given products: their current stock first, then one
+     * event per change, conflated per product while the subscriber lags behind.
+     */
+    public Multi<StockChangeEvent> subscribe(Collection<Long> productIds) {
+        Set<Long> watched = Set.copyOf(productIds);
+        return Multi.createFrom().publisher(downstream -> {
+            Subscription subscription = new Subscription(downstream, watched);
+            // Nothing is emitted before the first request, and a cancel in onSubscribe unregisters
+            register(subscription);
+            downstream.onSubscribe(subscription);
+        });
+    }
+
+    /**
+     * A product may have changed. Cheap enough to call on every write.
+     */
+    public void changed(Long productId) {
+        if (productId != null && watchers.containsKey(productId)) {
+            dirty.add(productId);
+        }
+    }
+
+    /**
+     * Any watched product may have changed, e.g. after missed invalidations.
+     */
+    public void changedAll() {
+        dirty.addAll(watchers.keySet());
+    }
+
+    public int subscribers() {
+        return subscribers.get();
+    }
+
+    /**
+     * Read the current stock of every dirty product and push it to its subscribers.
+     *
+     * @return the number of products published
+     */
+    public synchronized int publish() {
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+        List<Long> productIds = new ArrayList<>(dirty);
+        dirty.removeAll(productIds);
+        for (int from = 0; from < productIds.size(); from += READ_CHUNK) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + READ_CHUNK, productIds.size()));
+            Map<Long, Inventory> found = QuarkusTransaction.requiringNew().call(() -> {
+                Map<Long, Inventory> byProduct = new HashMap<>();
+                List<Inventory> items = holdService.applyAvailability(Inventory.<Inventory>list("productId in ?1", chunk));
+                for (Inventory inventory : items) {
+                    byProduct.put(inventory.productId, hotStock.overlay(inventory));
+                }
+                return byProduct;
+            });
+            Instant now = Instant.now();
+            for (Long productId : chunk) {
+                Inventory inventory = found.get(productId);
+                StockChangeEvent event = inventory == null
+                        ? new StockChangeEvent(null, productId, 0, 0, now)
+                        : new StockChangeEvent(inventory.id, productId, inventory.quantity, inventory.version, now);
+                event.setAvailableToSell(inventory == null ? Integer.valueOf(0) : inventory.availableToSell);
+                // Remembered together with the watchers, so an unwatched product leaves nothing behind
+                Set<Subscription> subscriptions = watchers.computeIfPresent(productId, (key, current) -> {
+                    latest.put(key, event);
+                    return current;
+                });
+                if (subscriptions == null) {
+                    continue;
+                }
+                for (Subscription subscription : subscriptions) {
+                    subscription.offer(event);
+                }
+            }
+        }
+        LOG.tracef("Published stock of %d products", productIds.size());
+        return productIds.size();
+    }
+
+    private void register(Subscription subscription) {
+        subscribers.incrementAndGet();
+        for (Long productId : subscription.productIds) {
+            watchers.compute(productId, (key, current) -> {
+                Set<Subscription> subscriptions = current != null ? current : ConcurrentHashMap.newKeySet();
+                subscriptions.add(subscription);
+                return subscriptions;
+            });
+            StockChangeEvent known = latest.get(productId);
+            if (known != null) {
+                subscription.offer(known);
+            } else {
+                // First watcher, or the first publish for this product is still due
+                dirty.add(productId);
+            }
+        }
+    }
+
+    private void unregister(Subscription subscription) {
+        subscribers.decrementAndGet();
+        for (Long productId : subscription.productIds) {
+            watchers.computeIfPresent(productId, (key, current) -> {
+                current.remove(subscription);
+                if (!current.isEmpty()) {
+                    return current;
+                }
+                latest.remove(productId);
+                return null;
+            });
+        }
+    }
+
+    private void publishQuietly() {
+        try {
+            publish();
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the ticker; the products stay dirty for the next run
+            LOG.warn("Stock stream publish failed; retrying on the next run", e);
+        }
+    }
+
+    /**
+     * One subscriber: its pending events, at most one per product, and its demand.
+     */
+    private final class Subscription implements Flow.Subscription {
+
+        final Set<Long> productIds;
+        private final Flow.Subscriber<? super StockChangeEvent> downstream;
+        private final LinkedHashMap<Long, StockChangeEvent> pending = new LinkedHashMap<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        Subscription(Flow.Subscriber<? super StockChangeEvent> downstream, Set<Long> productIds) {
+            this.downstream = downstream;
+            this.productIds = productIds;
+        }
+
+        void offer(StockChangeEvent event) {
+            synchronized (pending) {
+                StockChangeEvent previous = pending.get(event.getProductId());
+                if (previous != null && isNewer(previous, event)) {
+                    return;
+                }
+                if (pending.put(event.getProductId(), event) != null) {
+                    meterRegistry.counter("inventory.stream.conflated").increment();
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.onError(Subscriptions.getInvalidRequestException());
+                return;
+            }
+            Subscriptions.add(requested, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                unregister(this);
+            }
+        }
+
+        /**
+         * Emit pending events while there is demand; one thread at a time, the
+         * others leave their work to it.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!cancelled && requested.get() > 0) {
+                    StockChangeEvent next;
+                    synchronized (pending) {
+                        Iterator<StockChangeEvent> events = pending.values().iterator();
+                        if (!events.hasNext()) {
+                            break;
+                        }
+                        next = events.next();
+                        events.remove();
+                    }
+                    Subscriptions.produced(requested, 1);
+                    downstream.onNext(next);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        // A pending event of the same item with a higher version wins over an older read
+        private boolean isNewer(StockChangeEvent pending, StockChangeEvent offered) {
+            return pending.getItemId() != null && pending.getItemId().equals(offered.getItemId())
+                    && pending.getVersion() > offered.getVersion();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.redhat.cloudnative;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A stock budget split across stripes, so concurrent writers of one item update
+ * different cache lines instead of all contending on one counter or row.
+ *
+ * Unlike a {@code LongAdder} each stripe is a budget of its own: a take succeeds
+ * only if one stripe can cover it, with a single compare-and-set that never
+ * drives the stripe below zero, so the sum can never go negative either. A take
+ * first tries the caller's stripe and then the others, so it only fails if no
+ * single stripe holds enough; {@link #consolidate(int)} then pools the rest.
+ *
+ * {@link #tryTake} and {@link #tryAdd} are lock-free. The other mutators must
+ * not run concurrently with each other (the owner serializes them), but may run
+ * alongside takes and adds. Once {@link #close()}d every take and add fails, so
+ * the amount returned by {@code close} is final.
+ */
+public final class StripedBudget {
+
+    // One stripe per 64-byte cache line
+    private static final int PADDING = 8;
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    public StripedBudget(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be at least 1");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+    }
+
+    /**
+     * The stripe the current thread starts from.
+     */
+    @SuppressWarnings("deprecation")
+    public int stripe() {
+        long id = Thread.currentThread().getId();
+        return (int) Math.floorMod(id ^ (id >>> 16), (long) stripes);
+    }
+
+    public int stripes() {
+        return stripes;
+    }
+
+    /**
+     * Take {@code amount} from one stripe, starting with {@code stripe}.
+     *
+     * @return {@code false} if no single stripe holds enough, or the budget is closed
+     */
+    public boolean tryTake(int stripe, long amount) {
+        for (int i = 0; i < stripes; i++) {
+            int index = ((stripe + i) % stripes) * PADDING;
+            long current = cells.get(index);
+            while (current >= amount) {
+                if (cells.compareAndSet(index, current, current - amount)) {
+                    return true;
+                }
+                current = cells.get(index);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add {@code amount} to {@code stripe}.
+     *
+     * @return {@code false} if the budget is closed
+     */
+    public boolean tryAdd(int stripe, long amount) {
+        int index = stripe * PADDING;
+        long current = cells.get(index);
+        while (current != CLOSED) {
+            if (cells.compareAndSet(index, current, current + amount)) {
+                return true;
+            }
+            current = cells.get(index);
+        }
+        return false;
+    }
+
+    /**
+     * Move the whole budget into {@code stripe}.
+     *
+     * @return the budget now held by {@code stripe}
+     */
+    public long consolidate(int stripe) {
+        long pooled = 0;
+        for (int i = 0; i < stripes; i++) {
+            if (i != stripe) {
+                pooled += Math.max(0, cells.getAndSet(i * PADDING, 0));
+            }
+        }
+        tryAdd(stripe, pooled);
+        return Math.max(0, cells.get(stripe * PADDING));
+    }
+
+    /**
+     * Take up to {@code max} from the budget, across stripes.
+     *
+     * @return what was taken
+     */
+    public long withdraw(long max) {
+        long taken = 0;
+        for (int i = 0; i < stripes && taken < max; i++) {
+            int index = i * PADDING;
+            long current = cells.get(index);
+            while (current > 0) {
+                long part = Math.min(current, max - taken);
+                if (cells.compareAndSet(index, current, current - part)) {
+                    taken += part;
+                    break;
+                }
+                current = cells.get(index);
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Close the budget; every later take or add fails.
+     *
+     * @return the budget it held
+     */
+    public long close() {
+        long remaining = 0;
+        for (int i = 0; i < stripes; i++) {
+            remaining += Math.max(0, cells.getAndSet(i * PADDING, CLOSED));
+        }
+        return remaining;
+    }
+
+    /**
+     * The budget across all stripes. Not a snapshot while takes and adds are running.
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += Math.max(0, cells.get(i * PADDING));
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,169 @@
+package com.redhat.cloudnative;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (Varghese &amp; Lauck) for expiring large numbers of timers.
+ *
+ * Level 0 has {@code wheelSize} slots of one tick each; every level above it has
+ * slots {@code wheelSize} times wider and is cascaded down one slot at a time as
+ * the lower level wraps. Scheduling and cancelling are O(1), and each tick only
+ * touches the slots that are actually due, no matter how many timers are pending.
+ * Levels are added on demand, so there is no upper bound on the delay.
+ *
+ * Cancellation is lazy: a cancelled entry stays in its slot until the slot is
+ * processed and is then dropped.
+ *
+ * @param <T> payload delivered on expiry
+ */
+public final class TimingWheel<T> {
+
+    /**
+     * Handle for a scheduled payload.
+     */
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private boolean cancelled;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<List<ArrayDeque<Timeout<T>>>> levels = new ArrayList<>();
+    private final List<Long> spans = new ArrayList<>();
+    private long currentTick;
+    private int pending;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize at least 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        addLevel();
+    }
+
+    /**
+     * Schedule {@code payload} to expire at {@code expiresAtMillis}. Expiry is never
+     * reported early; it may be reported up to one tick late.
+     *
+     * @return the handle, or {@code null} if the deadline has already passed
+     */
+    public synchronized Timeout<T> schedule(T payload, long expiresAtMillis) {
+        long deadline = Math.floorDiv(expiresAtMillis + tickMillis - 1, tickMillis);
+        if (deadline <= currentTick) {
+            return null;
+        }
+        Timeout<T> timeout = new Timeout<>(payload, deadline);
+        place(timeout);
+        pending++;
+        return timeout;
+    }
+
+    /**
+     * Cancel a scheduled payload.
+     *
+     * @return {@code true} if it was still pending
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.cancelled || timeout.deadlineTick <= currentTick) {
+            return false;
+        }
+        timeout.cancelled = true;
+        pending--;
+        return true;
+    }
+
+    /**
+     * Advance the wheel to {@code nowMillis}.
+     *
+     * @return payloads whose deadline has been reached, in deadline order
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        if (pending == 0) {
+            // Nothing live anywhere: skip the idle ticks and drop cancelled leftovers
+            if (target > currentTick) {
+                currentTick = target;
+                for (List<ArrayDeque<Timeout<T>>> level : levels) {
+                    for (ArrayDeque<Timeout<T>> slot : level) {
+                        slot.clear();
+                    }
+                }
+            }
+            return expired;
+        }
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = levels.size() - 1; level > 0; level--) {
+                long span = spans.get(level);
+                if (currentTick % span == 0) {
+                    cascade(level, (int) ((currentTick / span) % wheelSize));
+                }
+            }
+            ArrayDeque<Timeout<T>> due = levels.get(0).get((int) (currentTick % wheelSize));
+            Timeout<T> timeout;
+            while ((timeout = due.poll()) != null) {
+                if (!timeout.cancelled) {
+                    timeout.cancelled = true;
+                    pending--;
+                    expired.add(timeout.payload);
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Number of scheduled payloads that are neither expired nor cancelled.
+     */
+    public synchronized int size() {
+        return pending;
+    }
+
+    private void cascade(int level, int slotIndex) {
+        ArrayDeque<Timeout<T>> slot = levels.get(level).get(slotIndex);
+        Timeout<T> timeout;
+        while ((timeout = slot.poll()) != null) {
+            if (!timeout.cancelled) {
+                place(timeout);
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long remaining = timeout.deadlineTick - currentTick;
+        int level = 0;
+        // Level i covers deadlines less than span(i) * wheelSize ticks away
+        while (remaining >= spans.get(level) * wheelSize) {
+            level++;
+            if (level == levels.size()) {
+                addLevel();
+            }
+        }
+        long span = spans.get(level);
+        levels.get(level).get((int) ((timeout.deadlineTick / span) % wheelSize)).add(timeout);
+    }
+
+    private void addLevel() {
+        List<ArrayDeque<Timeout<T>>> slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new ArrayDeque<>());
+        }
+        spans.add(spans.isEmpty() ? 1L : Math.multiplyExact(spans.get(spans.size() - 1), (long) wheelSize));
+        levels.add(slots);
+    }
+}
@@ -0,0 +1,26 @@
+package com.redhat.cloudnative;
+
+/**
+ * Raised when an If-Match write finds the item at another version; mapped to 412.
+ * Carries no stack trace, as it reports a lost race rather than a bug.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final Long itemId;
+    private final long currentVersion;
+
+    public VersionConflictException(Long itemId, long expectedVersion, long currentVersion) {
+        super("Inventory item " + itemId + " has been modified: If-Match " + InventoryETag.of(expectedVersion)
+                + " does not match the current ETag " + InventoryETag.of(currentVersion), null, false, false);
+        this.itemId = itemId;
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,27 @@
+package com.redhat.cloudnative;
+
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * The If-Match precondition failed: answer 412 with the current ETag, so the
+ * client can re-read the item and retry.
+ */
+@Provider
+public class VersionConflictExceptionMapper implements ExceptionMapper<VersionConflictException> {
+
+    @Context
+    UriInfo uriInfo;
+
+    @Override
+    public Response toResponse(VersionConflictException exception) {
+        return Response.fromResponse(ErrorResponseTemplate.PRECONDITION_FAILED.toResponse(
+                        exception.getMessage(), uriInfo.getRequestUri().getPath()))
+                .header(HttpHeaders.ETAG, InventoryETag.of(exception.getCurrentVersion()))
+                .build();
+    }
+}
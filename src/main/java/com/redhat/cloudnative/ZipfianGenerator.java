@@ -0,0 +1,106 @@
+package com.redhat.cloudnative;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipfian distribution over ranks {@code 1..n}: rank {@code r} is drawn with
+ * probability proportional to {@code 1 / r^exponent}. An exponent of 0 is
+ * uniform; around 1 is typical of product popularity.
+ *
+ * Sampling uses rejection-inversion (Hormann &amp; Derflinger), which takes
+ * constant time and memory per sample however large {@code n} is, so it can
+ * drive a ten-million-product catalog without a lookup table.
+ */
+public final class ZipfianGenerator {
+
+    // Ranks summed exactly when normalizing; the rest is integrated
+    private static final int EXACT_TERMS = 10_000;
+
+    private final long n;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double s;
+    private final double harmonic;
+
+    public ZipfianGenerator(long n, double exponent) {
+        if (n < 1 || exponent < 0 || Double.isNaN(exponent)) {
+            throw new IllegalArgumentException("Invalid Zipfian distribution: n=" + n + ", exponent=" + exponent);
+        }
+        this.n = n;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1.0;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.s = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2.0));
+        this.harmonic = harmonic();
+    }
+
+    public long size() {
+        return n;
+    }
+
+    /**
+     * A random rank in {@code 1..n}.
+     */
+    public long next(RandomGenerator random) {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            long k = Math.max(1, Math.min(n, (long) (x + 0.5)));
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * Probability of drawing {@code rank}.
+     */
+    public double probability(long rank) {
+        if (rank < 1 || rank > n) {
+            return 0;
+        }
+        return h(rank) / harmonic;
+    }
+
+    /**
+     * Generalized harmonic number {@code sum(1 / r^exponent)} for {@code r = 1..n}: exact for
+     * the first ranks, where the terms differ most, and the midpoint integral for the rest.
+     */
+    private double harmonic() {
+        long exact = Math.min(n, EXACT_TERMS);
+        double sum = 0;
+        for (long rank = exact; rank >= 1; rank--) {
+            sum += h(rank);
+        }
+        if (n > exact) {
+            sum += hIntegral(n + 0.5) - hIntegral(exact + 0.5);
+        }
+        return sum;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    /**
+     * Antiderivative of {@link #h}, written to stay accurate as the exponent approaches 1.
+     */
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1OverX((1.0 - exponent) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = Math.max(-1.0, x * (1.0 - exponent));
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    private static double log1pOverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+    }
+
+    private static double expm1OverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1.0 + x * 0.5 * (1.0 + x * (1.0 / 3.0) * (1.0 + 0.25 * x));
+    }
+}
@@ -0,0 +1,21 @@
+-- Time-limited stock holds (soft reservations)
+-- Available-to-sell = INVENTORY.quantity - SUM(active holds)
+
+-- Matches the Hibernate default sequence for the InventoryHold entity
+CREATE SEQUENCE IF NOT EXISTS InventoryHold_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS INVENTORY_HOLD (
+    id BIGINT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Covers the per-product sum of active holds
+CREATE INDEX IF NOT EXISTS idx_inventory_hold_product_expires ON INVENTORY_HOLD(product_id, expires_at);
+
+-- Used to reload pending holds into the expiry wheel at startup
+CREATE INDEX IF NOT EXISTS idx_inventory_hold_expires ON INVENTORY_HOLD(expires_at);
+
+ALTER TABLE INVENTORY_HOLD ADD CONSTRAINT chk_hold_quantity_positive CHECK (quantity > 0);
@@ -0,0 +1,7 @@
+-- Sequence behind the pooled ID generator of the Inventory entity
+-- (used by ORM inserts and by the bulk upsert endpoint)
+
+CREATE SEQUENCE IF NOT EXISTS Inventory_SEQ START WITH 1 INCREMENT BY 50;
+
+-- Start past the rows created through the BIGSERIAL default
+SELECT setval('Inventory_SEQ', (SELECT COALESCE(MAX(id), 0) + 50 FROM INVENTORY));
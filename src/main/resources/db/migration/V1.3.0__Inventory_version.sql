@@ -0,0 +1,4 @@
+-- Row version for optimistic concurrency control
+-- Exposed as the ETag of an item and checked against If-Match on writes
+
+ALTER TABLE INVENTORY ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+-- Stock leased out of INVENTORY.quantity to the in-memory counters of one pod (hot-item mode)
+-- amount = units the pod held at its last flush; a lease not flushed for a while belongs to a dead pod
+
+CREATE TABLE IF NOT EXISTS INVENTORY_LEASE (
+    item_id BIGINT NOT NULL,
+    owner VARCHAR(64) NOT NULL,
+    amount INTEGER NOT NULL,
+    flushed_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (item_id, owner)
+);
+
+-- Used to find the leases of dead pods
+CREATE INDEX IF NOT EXISTS idx_inventory_lease_flushed ON INVENTORY_LEASE(flushed_at);
+
+ALTER TABLE INVENTORY_LEASE ADD CONSTRAINT chk_lease_amount_non_negative CHECK (amount >= 0);
@@ -0,0 +1,29 @@
+-- Append-only ledger of stock movements, with per-item snapshots of it
+-- Stock of an item as of T = latest snapshot with as_of <= T + its movements after that snapshot up to T
+
+CREATE TABLE IF NOT EXISTS INVENTORY_MOVEMENT (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    item_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    kind VARCHAR(16) NOT NULL,
+    delta INTEGER NOT NULL,
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Tail reads: the movements of one item between two snapshots
+CREATE INDEX IF NOT EXISTS idx_inventory_movement_item ON INVENTORY_MOVEMENT(item_id, id);
+
+CREATE TABLE IF NOT EXISTS INVENTORY_SNAPSHOT (
+    item_id BIGINT NOT NULL,
+    movement_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    as_of TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (item_id, movement_id)
+);
+
+-- Finds the latest snapshot of an item at or before a point in time
+CREATE INDEX IF NOT EXISTS idx_inventory_snapshot_as_of ON INVENTORY_SNAPSHOT(item_id, as_of);
+
+-- Current stock is the first snapshot; history before the ledger is unknown
+INSERT INTO INVENTORY_SNAPSHOT (item_id, movement_id, quantity, as_of)
+SELECT id, 0, quantity, CURRENT_TIMESTAMP FROM INVENTORY;
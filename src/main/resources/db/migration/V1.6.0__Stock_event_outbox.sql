@@ -0,0 +1,17 @@
+-- Transactional outbox of stock change events, written in the transaction of the change
+-- and drained by InventoryOutboxRelay into CloudEvents for the Knative broker
+
+CREATE TABLE IF NOT EXISTS INVENTORY_OUTBOX (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type VARCHAR(16) NOT NULL,
+    item_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    version BIGINT NOT NULL,
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Relays claim the oldest due events with FOR UPDATE SKIP LOCKED
+CREATE INDEX IF NOT EXISTS idx_inventory_outbox_due ON INVENTORY_OUTBOX(next_attempt_at, id);
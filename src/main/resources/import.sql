@@ -6,4 +6,6 @@ INSERT INTO INVENTORY(id, product_id, quantity, created_at, updated_at) VALUES (
 INSERT INTO INVENTORY(id, product_id, quantity, created_at, updated_at) VALUES (165614, 1005, 87, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP());
 INSERT INTO INVENTORY(id, product_id, quantity, created_at, updated_at) VALUES (165954, 1006, 43, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP());
 INSERT INTO INVENTORY(id, product_id, quantity, created_at, updated_at) VALUES (444434, 1007, 32, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP());
-INSERT INTO INVENTORY(id, product_id, quantity, created_at, updated_at) VALUES (444435, 1008, 53, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP());
\ No newline at end of file
+INSERT INTO INVENTORY(id, product_id, quantity, created_at, updated_at) VALUES (444435, 1008, 53, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP());
+INSERT INTO INVENTORY_SNAPSHOT(item_id, movement_id, quantity, as_of) SELECT id, 0, quantity, CURRENT_TIMESTAMP() FROM INVENTORY;
+
@@ -0,0 +1,187 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The statements of {@link PgReactiveInventoryStore} against a real PostgreSQL,
+ * started by Dev Services and migrated by Flyway: {@code ./mvnw -Ppostgres test}
+ * (needs Docker).
+ */
+@QuarkusTest
+@Tag("postgres")
+@TestProfile(PgReactiveInventoryStoreTest.Postgres.class)
+public class PgReactiveInventoryStoreTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Inject
+    PgPool pool;
+
+    private PgReactiveInventoryStore store;
+
+    public static class Postgres implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            Map<String, String> overrides = new HashMap<>();
+            overrides.put("quarkus.datasource.db-kind", "postgresql");
+            // No URL, so Dev Services start a container for both the JDBC and the reactive pool
+            overrides.put("quarkus.datasource.jdbc.url", "");
+            overrides.put("quarkus.hibernate-orm.database.generation", "none");
+            overrides.put("quarkus.hibernate-orm.sql-load-script", "no-file");
+            overrides.put("quarkus.flyway.migrate-at-start", "true");
+            return overrides;
+        }
+    }
+
+    @BeforeEach
+    public void newStore() {
+        store = new PgReactiveInventoryStore(pool);
+    }
+
+    @Test
+    public void testV2UsesTheReactiveStore() {
+        int id = given().contentType(ContentType.JSON)
+                .body("{\"productId\": 8201, \"quantity\": 10}")
+                .when().post("/api/v2/inventory")
+                .then()
+                .statusCode(201)
+                .body("productId", is(8201))
+                .extract().path("id");
+
+        given()
+                .when().get("/api/v2/inventory/product/8201")
+                .then()
+                .statusCode(200)
+                .body("id", is(id))
+                .body("availableToSell", is(10));
+
+        given().when().delete("/api/v2/inventory/" + id).then().statusCode(204);
+    }
+
+    @Test
+    public void testInsertTakesIdsFromTheSequenceInBlocks() {
+        int ormId = given().contentType(ContentType.JSON)
+                .body("{\"productId\": 8202, \"quantity\": 1}")
+                .when().post("/api/v1/inventory")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        Inventory first = await(store.insert(8203L, 5));
+        Inventory second = await(store.insert(8204L, 5));
+        // A block of its own, past the one of the ORM insert
+        assertTrue(first.id > ormId);
+        assertEquals(first.id + 1, second.id.longValue());
+        assertEquals(5, first.quantity);
+        assertEquals(0L, first.version);
+
+        // A second store fetches the next block rather than reusing this one
+        Inventory other = await(new PgReactiveInventoryStore(pool).insert(8205L, 5));
+        assertTrue(other.id > first.id + 49);
+
+        assertThrows(InvalidInventoryException.class, () -> await(store.insert(8203L, 1)));
+
+        for (Long id : List.of((long) ormId, first.id, second.id, other.id)) {
+            await(store.delete(id, null));
+        }
+    }
+
+    @Test
+    public void testSetQuantityIsACompareAndSet() {
+        Inventory created = await(store.insert(8206L, 10));
+
+        Inventory updated = await(store.setQuantity(created.id, 25, created.version));
+        assertEquals(25, updated.quantity);
+        assertEquals(created.version + 1, updated.version);
+
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> await(store.setQuantity(created.id, 30, created.version)));
+        assertEquals(updated.version, conflict.getCurrentVersion());
+        assertEquals(25, await(store.findById(created.id)).quantity);
+
+        Inventory unconditional = await(store.setQuantity(created.id, 12, null));
+        assertEquals(12, unconditional.quantity);
+
+        assertThrows(VersionConflictException.class, () -> await(store.delete(created.id, created.version)));
+        await(store.delete(created.id, unconditional.version));
+        assertThrows(InventoryNotFoundException.class, () -> await(store.setQuantity(created.id, 1, null)));
+        assertThrows(InventoryNotFoundException.class, () -> await(store.setQuantity(created.id, 1, 0L)));
+    }
+
+    @Test
+    public void testAdjustLeavesHeldStock() {
+        Inventory created = await(store.insert(8207L, 10));
+        int holdId = given().contentType(ContentType.JSON)
+                .body("{\"productId\": 8207, \"quantity\": 6}")
+                .when().post("/api/v1/inventory/holds")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        assertEquals(6, await(store.findById(created.id)).availableToSell.intValue());
+        assertThrows(InsufficientStockException.class, () -> await(store.adjust(false, created.id, -5)));
+        assertEquals(6, await(store.adjust(false, created.id, -4)).quantity);
+        assertEquals(8, await(store.adjust(true, 8207L, 2)).quantity);
+        assertThrows(InventoryNotFoundException.class, () -> await(store.adjust(true, 8299L, -1)));
+
+        given().when().delete("/api/v1/inventory/holds/" + holdId).then().statusCode(204);
+        assertEquals(0, await(store.adjust(false, created.id, -8)).quantity);
+        await(store.delete(created.id, null));
+    }
+
+    @Test
+    public void testWritesRecordLedgerAndOutboxInTheSameStatement() {
+        Inventory created = await(store.insert(8208L, 10));
+        Inventory adjusted = await(store.adjust(false, created.id, -3));
+        await(store.setQuantity(created.id, 20, adjusted.version));
+        await(store.delete(created.id, null));
+
+        List<InventoryMovement> movements = QuarkusTransaction.requiringNew().call(() -> InventoryMovement
+                .<InventoryMovement>list("itemId = ?1 order by id", created.id));
+        assertEquals(List.of(InventoryMovement.Kind.CREATE, InventoryMovement.Kind.ADJUST,
+                InventoryMovement.Kind.SET, InventoryMovement.Kind.DELETE),
+                movements.stream().map(movement -> movement.kind).toList());
+        assertEquals(List.of(10, -3, 13, -20), movements.stream().map(movement -> movement.delta).toList());
+
+        List<InventoryOutboxEvent> events = QuarkusTransaction.requiringNew().call(() -> InventoryOutboxEvent
+                .<InventoryOutboxEvent>list("itemId = ?1 order by id", created.id));
+        assertEquals(List.of(InventoryOutboxEvent.Type.CREATED, InventoryOutboxEvent.Type.UPDATED,
+                InventoryOutboxEvent.Type.UPDATED, InventoryOutboxEvent.Type.DELETED),
+                events.stream().map(event -> event.type).toList());
+        assertEquals(List.of(10, 7, 20, 0), events.stream().map(event -> event.quantity).toList());
+        assertNotEquals(events.get(0).version, events.get(1).version);
+
+        given()
+                .when().get("/api/v1/inventory/" + created.id + "/movements")
+                .then()
+                .statusCode(200)
+                .body("size()", is(4));
+    }
+
+    private static <T> T await(Uni<T> uni) {
+        return uni.await().atMost(TIMEOUT);
+    }
+}
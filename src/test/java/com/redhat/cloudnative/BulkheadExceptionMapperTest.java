@@ -0,0 +1,36 @@
+package com.redhat.cloudnative;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BulkheadExceptionMapperTest {
+
+    @Test
+    public void testRejectedRequestGets503WithRetryAfter() throws Exception {
+        BulkheadExceptionMapper mapper = new BulkheadExceptionMapper();
+        mapper.uriInfo = (UriInfo) Proxy.newProxyInstance(UriInfo.class.getClassLoader(),
+                new Class<?>[] { UriInfo.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("getRequestUri")) {
+                        return URI.create("http://localhost/api/v1/inventory/product/1001");
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        var response = mapper.toResponse(new BulkheadException("Bulkhead full"));
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", String.valueOf(response.getHeaders().getFirst("Retry-After")));
+        JsonNode body = new ObjectMapper().readTree((byte[]) response.getEntity());
+        assertEquals(503, body.get("status").asInt());
+        assertEquals("Service Unavailable", body.get("error").asText());
+        assertEquals("/api/v1/inventory/product/1001", body.get("path").asText());
+    }
+}
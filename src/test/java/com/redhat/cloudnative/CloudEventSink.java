@@ -0,0 +1,60 @@
+package com.redhat.cloudnative;
+
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Stands in for the Knative broker in tests: the outbox relay posts to it
+ * through {@code %test.inventory.outbox.sink-url}.
+ */
+@Path("/test/cloudevents")
+public class CloudEventSink {
+
+    record Received(long id, String specVersion, String type, String source, String subject, String productId,
+                    StockChangeEvent body) {
+    }
+
+    static final Queue<Received> RECEIVED = new ConcurrentLinkedQueue<>();
+
+    // Status answered to every event; only 2xx events are recorded
+    static volatile int status = 202;
+
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response receive(@HeaderParam("ce-id") String id,
+                            @HeaderParam("ce-specversion") String specVersion,
+                            @HeaderParam("ce-type") String type,
+                            @HeaderParam("ce-source") String source,
+                            @HeaderParam("ce-subject") String subject,
+                            @HeaderParam("ce-productid") String productId,
+                            StockChangeEvent body) {
+        if (status / 100 == 2) {
+            RECEIVED.add(new Received(Long.parseLong(id), specVersion, type, source, subject, productId, body));
+        }
+        return Response.status(status).build();
+    }
+
+    static void reset() {
+        RECEIVED.clear();
+        status = 202;
+    }
+
+    /**
+     * Events received for an item, in outbox order.
+     */
+    static List<Received> forItem(long itemId) {
+        return RECEIVED.stream()
+                .filter(event -> String.valueOf(itemId).equals(event.subject()))
+                .sorted(Comparator.comparingLong(Received::id))
+                .toList();
+    }
+}
@@ -0,0 +1,65 @@
+package com.redhat.cloudnative;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class EncodedInventoryTest {
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    public void testEncodesLikeJackson() throws Exception {
+        Inventory inventory = inventory();
+        EncodedInventory encoded = EncodedInventory.encode(inventory, mapper);
+
+        assertArrayEquals(mapper.writeValueAsBytes(inventory), encoded.json());
+        assertEquals("\"2.4\"", encoded.etag());
+        assertEquals(inventory.updatedAt, encoded.lastModified());
+        assertEquals("Sun, 01 Feb 2026 12:30:00 GMT", encoded.lastModifiedHeader());
+    }
+
+    @Test
+    public void testGzipIsBuiltOnceAndInflatesToTheJson() throws Exception {
+        EncodedInventory encoded = EncodedInventory.encode(inventory(), mapper);
+
+        byte[] gzip = encoded.gzip();
+        assertSame(gzip, encoded.gzip());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertArrayEquals(encoded.json(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testWithoutUpdatedAt() {
+        Inventory inventory = inventory();
+        inventory.updatedAt = null;
+        EncodedInventory encoded = EncodedInventory.encode(inventory, mapper);
+
+        assertNull(encoded.lastModified());
+        assertNull(encoded.lastModifiedHeader());
+    }
+
+    private static Inventory inventory() {
+        Inventory inventory = new Inventory();
+        inventory.id = 329299L;
+        inventory.productId = 1002L;
+        inventory.quantity = 35;
+        inventory.availableToSell = 31;
+        inventory.version = 2;
+        inventory.createdAt = Instant.parse("2026-01-01T00:00:00Z");
+        inventory.updatedAt = Instant.parse("2026-02-01T12:30:00Z");
+        return inventory;
+    }
+}
@@ -0,0 +1,114 @@
+package com.redhat.cloudnative;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ErrorResponseTemplateTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    public void testRendersErrorResponseShape() throws Exception {
+        JsonNode body = MAPPER.readTree(ErrorResponseTemplate.NOT_FOUND.render(
+                "Inventory item not found with id: 42", "/api/inventory/42"));
+
+        assertEquals(404, body.get("status").asInt());
+        assertEquals("Not Found", body.get("error").asText());
+        assertEquals("Inventory item not found with id: 42", body.get("message").asText());
+        assertEquals("/api/inventory/42", body.get("path").asText());
+        assertNotNull(Instant.parse(body.get("timestamp").asText()));
+    }
+
+    @Test
+    public void testEscapesMessageAndPath() throws Exception {
+        String message = "quote \" backslash \\ newline \n tab \t control \u0001 \u00e9 \u20ac \ud83d\udce6";
+        String path = "/api/inventory/\"weird\"/\u00e9";
+
+        JsonNode body = MAPPER.readTree(ErrorResponseTemplate.CONFLICT.render(message, path));
+
+        assertEquals(409, body.get("status").asInt());
+        assertEquals(message, body.get("message").asText());
+        assertEquals(path, body.get("path").asText());
+    }
+
+    @Test
+    public void testNotFoundExceptionHasNoStackTrace() {
+        InventoryNotFoundException exception = new InventoryNotFoundException(7L);
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals("Inventory item not found with id: 7", exception.getMessage());
+        assertEquals("Stock hold not found or expired with id: 8", new StockHoldNotFoundException(8L).getMessage());
+        assertNull(exception.getCause());
+    }
+
+    /**
+     * Bytes allocated per 404 body: a stack-trace exception plus an {@link ErrorResponse}
+     * serialized by Jackson, against the stackless exception plus the template.
+     */
+    @Test
+    public void testNotFoundAllocatesLessThanJacksonPath() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        LongFunction<byte[]> jackson = id -> {
+            try {
+                throw new RuntimeException("Inventory item not found with id: " + id);
+            } catch (RuntimeException e) {
+                try {
+                    return MAPPER.writeValueAsBytes(ErrorResponse.builder()
+                            .status(404)
+                            .error("Not Found")
+                            .message(e.getMessage())
+                            .path("/api/inventory/" + id)
+                            .build());
+                } catch (Exception serialization) {
+                    throw new IllegalStateException(serialization);
+                }
+            }
+        };
+        LongFunction<byte[]> template = id -> {
+            try {
+                throw new InventoryNotFoundException(id);
+            } catch (InventoryNotFoundException e) {
+                return ErrorResponseTemplate.NOT_FOUND.render(e.getMessage(), "/api/inventory/" + id);
+            }
+        };
+
+        long before = bytesPerResponse(threads, jackson);
+        long after = bytesPerResponse(threads, template);
+
+        assertTrue(after * 2 < before, "bytes per 404: " + before + " before, " + after + " after");
+    }
+
+    private static long bytesPerResponse(com.sun.management.ThreadMXBean threads, LongFunction<byte[]> render) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += render.apply(900_000L + i).length;
+        }
+        long threadId = Thread.currentThread().getId();
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += render.apply(900_000L + i).length;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - start;
+        assertTrue(sink > 0);
+        return allocated / ITERATIONS;
+    }
+}
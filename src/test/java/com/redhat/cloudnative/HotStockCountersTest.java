@@ -0,0 +1,198 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs with hot-item mode enabled, which is off for every other test as in
+ * production. The test profile leases 10 units and has no flush ticker; the
+ * tests promote and flush explicitly.
+ */
+@QuarkusTest
+@TestProfile(HotStockCountersTest.HotItems.class)
+public class HotStockCountersTest {
+
+    public static class HotItems implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("inventory.hot.enabled", "true");
+        }
+    }
+
+    @Inject
+    HotStockCounters hotStock;
+
+    @Test
+    public void testConcurrentAdjustmentsOfAHotItemNeverOversell() throws Exception {
+        int id = create(7601, 100);
+        assertTrue(hotStock.promote((long) id));
+        // One lease has left the row
+        assertEquals(90, rowQuantity(id));
+
+        // More takes than stock: the budget is refilled lease by lease until the row is empty
+        List<Integer> statuses = concurrently(150, () -> given().contentType(ContentType.JSON)
+                .body("{\"delta\": -1}")
+                .when().post("/api/v1/inventory/" + id + "/adjust")
+                .statusCode());
+        assertEquals(100, statuses.stream().filter(status -> status == 200).count());
+        assertEquals(50, statuses.stream().filter(status -> status == 409).count());
+
+        hotStock.flush();
+        assertEquals(0, rowQuantity(id));
+        given().when().get("/api/v1/inventory/" + id).then().statusCode(200).body("quantity", is(0));
+
+        // A restock only reaches the row when the item is released
+        given().contentType(ContentType.JSON)
+                .body("{\"delta\": 5}")
+                .when().post("/api/v1/inventory/" + id + "/adjust")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(5));
+        assertEquals(0, rowQuantity(id));
+        hotStock.release((long) id, null);
+        assertFalse(hotStock.isHot((long) id));
+        assertEquals(5, rowQuantity(id));
+        assertEquals(0L, leases(id));
+
+        given().when().delete("/api/v1/inventory/" + id).then().statusCode(204);
+    }
+
+    @Test
+    public void testSetsApplyToTheWholeStock() {
+        int id = create(7602, 50);
+        assertTrue(hotStock.promote((long) id));
+        assertEquals(40, rowQuantity(id));
+        // Reads on the pod holding the lease include it
+        String etag = given().when().get("/api/v1/inventory/" + id)
+                .then()
+                .statusCode(200)
+                .body("quantity", is(50))
+                .extract().header("ETag");
+
+        // Returning the budget first does not invalidate the tag the client holds
+        given().contentType(ContentType.JSON)
+                .header("If-Match", etag)
+                .body("{\"quantity\": 7}")
+                .when().patch("/api/v1/inventory/" + id + "/quantity")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(7));
+        assertFalse(hotStock.isHot((long) id));
+        assertEquals(7, rowQuantity(id));
+        assertEquals(0L, leases(id));
+
+        given().when().delete("/api/v1/inventory/" + id).then().statusCode(204);
+    }
+
+    @Test
+    public void testHotAdjustmentsShowRightAwayByItemOrProduct() {
+        int id = create(7604, 50);
+        assertTrue(hotStock.promote((long) id));
+        String etag = given().when().get("/api/v1/inventory/" + id)
+                .then()
+                .statusCode(200)
+                .body("quantity", is(50))
+                .extract().header("ETag");
+        given().when().get("/api/v1/inventory/product/7604").then().statusCode(200).body("quantity", is(50));
+
+        // Served from the budget like an adjustment by item ID
+        given().contentType(ContentType.JSON)
+                .body("{\"delta\": -3}")
+                .when().post("/api/v1/inventory/product/7604/adjust")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(47));
+        assertEquals(40, rowQuantity(id));
+
+        // Cached reads follow without waiting for a flush
+        given().when().get("/api/v1/inventory/" + id)
+                .then()
+                .statusCode(200)
+                .body("quantity", is(47))
+                .header("ETag", not(is(etag)));
+        given().when().get("/api/v1/inventory/product/7604").then().statusCode(200).body("quantity", is(47));
+
+        hotStock.release((long) id, null);
+        assertEquals(47, rowQuantity(id));
+        given().when().delete("/api/v1/inventory/" + id).then().statusCode(204);
+    }
+
+    @Test
+    public void testAbandonedLeasesAreWrittenOff() {
+        int id = create(7603, 20);
+        QuarkusTransaction.requiringNew().run(() -> {
+            InventoryLease lease = new InventoryLease();
+            lease.itemId = (long) id;
+            lease.owner = "crashed-pod";
+            lease.amount = 5;
+            lease.flushedAt = Instant.now().minus(1, ChronoUnit.HOURS);
+            lease.persist();
+        });
+
+        assertEquals(1, hotStock.reclaimAbandoned());
+        assertEquals(0L, leases(id));
+        // Some of the leased units may have been sold before the crash, so none come back
+        assertEquals(20, rowQuantity(id));
+        assertEquals(0, hotStock.reclaimAbandoned());
+
+        given().when().delete("/api/v1/inventory/" + id).then().statusCode(204);
+    }
+
+    private static int create(long productId, int quantity) {
+        return given().contentType(ContentType.JSON)
+                .body("{\"productId\": " + productId + ", \"quantity\": " + quantity + "}")
+                .when().post("/api/v1/inventory").then().statusCode(201).extract().path("id");
+    }
+
+    private static int rowQuantity(long id) {
+        return QuarkusTransaction.requiringNew().call(() -> Inventory.<Inventory>findById(id).quantity);
+    }
+
+    private static long leases(long id) {
+        return QuarkusTransaction.requiringNew().call(() -> InventoryLease.count("itemId", id));
+    }
+
+    private static List<Integer> concurrently(int callers, Callable<Integer> request) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return request.call();
+                }));
+            }
+            start.countDown();
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                statuses.add(future.get());
+            }
+            return statuses;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+
+@QuarkusTest
+public class InventoryBulkUpsertTest {
+
+    private static final long FIRST_PRODUCT = 1_000_000L;
+
+    @AfterEach
+    public void removeBulkRows() {
+        QuarkusTransaction.requiringNew().run(() -> Inventory.delete("productId >= ?1", FIRST_PRODUCT));
+    }
+
+    @Test
+    public void testBulkUpsertJsonArray() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("[{\"productId\": 1000001, \"quantity\": 5}, {\"productId\": 1000002, \"quantity\": 6}]")
+                .when().post("/api/v1/inventory/bulk")
+                .then()
+                .statusCode(200)
+                .body("received", is(2))
+                .body("upserted", is(2))
+                .body("batches", is(1));
+
+        given()
+                .when().get("/api/v1/inventory/product/1000002")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(6));
+    }
+
+    @Test
+    public void testBulkUpsertUpdatesExistingRowsAndCache() {
+        given()
+                .contentType("application/x-ndjson")
+                .body("{\"productId\": 1000010, \"quantity\": 1}\n")
+                .when().post("/api/v1/inventory/bulk")
+                .then()
+                .statusCode(200);
+        int id = given()
+                .when().get("/api/v1/inventory/product/1000010")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(1))
+                .extract().path("id");
+
+        given()
+                .contentType("application/x-ndjson")
+                .body("{\"productId\": 1000010, \"quantity\": 2}\n{\"productId\": 1000010, \"quantity\": 9}\n")
+                .when().post("/api/v1/inventory/bulk")
+                .then()
+                .statusCode(200)
+                .body("received", is(2))
+                .body("upserted", is(1));
+
+        given()
+                .when().get("/api/v1/inventory/product/1000010")
+                .then()
+                .statusCode(200)
+                .body("id", is(id))
+                .body("quantity", is(9));
+        given()
+                .when().get("/api/v1/inventory/" + id)
+                .then()
+                .statusCode(200)
+                .body("quantity", is(9));
+    }
+
+    @Test
+    public void testBulkUpsertRejectsInvalidRow() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("[{\"productId\": 1000020, \"quantity\": 5}, {\"quantity\": 6}]")
+                .when().post("/api/v1/inventory/bulk")
+                .then()
+                .statusCode(400)
+                .body("message", containsString("Row 1"));
+    }
+
+    @Test
+    public void testBulkUpsertRejectsRowWithoutQuantity() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("[{\"productId\": 1000030, \"quantity\": 5}, {\"productId\": 1000031}]")
+                .when().post("/api/v1/inventory/bulk")
+                .then()
+                .statusCode(400)
+                .body("message", containsString("Row 1: Quantity is required"));
+
+        // Not imported as zero
+        given().when().get("/api/v1/inventory/product/1000031").then().statusCode(404);
+    }
+}
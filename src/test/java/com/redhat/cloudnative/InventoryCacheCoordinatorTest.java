@@ -0,0 +1,158 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class InventoryCacheCoordinatorTest {
+
+    private static final long WRITTEN_PRODUCT = 2_000_001L;
+    private static final long UNRELATED_PRODUCT = 2_000_002L;
+
+    @Inject
+    @CacheName("inventory-cache")
+    Cache inventoryCache;
+
+    @Inject
+    @CacheName("inventory-product-cache")
+    Cache inventoryProductCache;
+
+    private long writtenId;
+    private long unrelatedId;
+
+    @BeforeEach
+    public void createAndCacheItems() {
+        writtenId = create(WRITTEN_PRODUCT);
+        unrelatedId = create(UNRELATED_PRODUCT);
+        warm(writtenId, WRITTEN_PRODUCT);
+        warm(unrelatedId, UNRELATED_PRODUCT);
+    }
+
+    @AfterEach
+    public void removeItems() {
+        QuarkusTransaction.requiringNew().run(() ->
+                Inventory.delete("productId in ?1", List.of(WRITTEN_PRODUCT, UNRELATED_PRODUCT)));
+        inventoryCache.invalidateAll().await().indefinitely();
+        inventoryProductCache.invalidateAll().await().indefinitely();
+    }
+
+    @Test
+    public void testQuantityUpdateKeepsUnrelatedEntries() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"quantity\": 42}")
+                .when().patch("/api/v1/inventory/" + writtenId + "/quantity")
+                .then()
+                .statusCode(200);
+
+        assertEvictedOnlyWrittenItem();
+        given()
+                .when().get("/api/v1/inventory/product/" + WRITTEN_PRODUCT)
+                .then()
+                .statusCode(200)
+                .body("quantity", is(42));
+    }
+
+    @Test
+    public void testUpdateKeepsUnrelatedEntries() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": " + WRITTEN_PRODUCT + ", \"quantity\": 7}")
+                .when().put("/api/inventory/" + writtenId)
+                .then()
+                .statusCode(200);
+
+        assertEvictedOnlyWrittenItem();
+        given()
+                .when().get("/api/inventory/" + writtenId)
+                .then()
+                .statusCode(200)
+                .body("quantity", is(7));
+    }
+
+    @Test
+    public void testAdjustKeepsUnrelatedEntries() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": -3}")
+                .when().post("/api/v1/inventory/product/" + WRITTEN_PRODUCT + "/adjust")
+                .then()
+                .statusCode(200);
+
+        assertEvictedOnlyWrittenItem();
+    }
+
+    @Test
+    public void testDeleteKeepsUnrelatedEntries() {
+        given()
+                .when().delete("/api/v1/inventory/" + writtenId)
+                .then()
+                .statusCode(204);
+
+        assertEvictedOnlyWrittenItem();
+        given()
+                .when().get("/api/v1/inventory/product/" + WRITTEN_PRODUCT)
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    public void testFailedWriteEvictsNothing() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": -1000}")
+                .when().post("/api/v1/inventory/product/" + WRITTEN_PRODUCT + "/adjust")
+                .then()
+                .statusCode(409);
+
+        assertTrue(itemKeys().contains(writtenId));
+        assertTrue(productKeys().contains(WRITTEN_PRODUCT));
+    }
+
+    private void assertEvictedOnlyWrittenItem() {
+        assertFalse(itemKeys().contains(writtenId), "written item must be evicted by ID");
+        assertFalse(productKeys().contains(WRITTEN_PRODUCT), "written item must be evicted by product ID");
+        assertTrue(itemKeys().contains(unrelatedId), "unrelated item must stay cached by ID");
+        assertTrue(productKeys().contains(UNRELATED_PRODUCT), "unrelated item must stay cached by product ID");
+    }
+
+    private Set<Object> itemKeys() {
+        return inventoryCache.as(CaffeineCache.class).keySet();
+    }
+
+    private Set<Object> productKeys() {
+        return inventoryProductCache.as(CaffeineCache.class).keySet();
+    }
+
+    private static long create(long productId) {
+        int id = given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": " + productId + ", \"quantity\": 10}")
+                .when().post("/api/v1/inventory")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+        return id;
+    }
+
+    private static void warm(long itemId, long productId) {
+        given().when().get("/api/v1/inventory/" + itemId).then().statusCode(200);
+        given().when().get("/api/v1/inventory/product/" + productId).then().statusCode(200);
+    }
+}
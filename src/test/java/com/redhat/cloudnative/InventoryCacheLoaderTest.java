@@ -0,0 +1,133 @@
+package com.redhat.cloudnative;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class InventoryCacheLoaderTest {
+
+    private static final String PRODUCT_CACHE = "inventory-product-cache";
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    InventoryCacheCoordinator cacheCoordinator;
+
+    @Test
+    public void testConcurrentMissesRunOneLoad() throws Exception {
+        cacheCoordinator.evict(165614L, 1005L);
+        double loads = count("inventory.cache.loads");
+
+        int callers = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> responses = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                responses.add(pool.submit(() -> {
+                    start.await();
+                    return given().when().get("/api/v1/inventory/product/1005").statusCode();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> response : responses) {
+                assertEquals(200, response.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(loads + 1, count("inventory.cache.loads"));
+    }
+
+    @Test
+    public void testEntryPastSoftTtlIsServedWhileOneRefreshRuns() throws Exception {
+        cacheCoordinator.evict(165954L, 1006L);
+        given().when().get("/api/v1/inventory/product/1006").then().statusCode(200);
+        // Soft TTL is 1s in the test profile
+        Thread.sleep(1200);
+
+        double loads = count("inventory.cache.loads");
+        double stale = count("inventory.cache.stale.served");
+        double refreshes = count("inventory.cache.refreshes");
+        for (int i = 0; i < 5; i++) {
+            given()
+                    .when().get("/api/v1/inventory/product/1006")
+                    .then()
+                    .statusCode(200)
+                    .body("productId", is(1006));
+        }
+
+        assertEquals(loads, count("inventory.cache.loads"), "stale entries must not block callers on a load");
+        assertTrue(count("inventory.cache.stale.served") > stale);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (count("inventory.cache.refreshes") == refreshes && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(refreshes + 1, count("inventory.cache.refreshes"));
+    }
+
+    @Test
+    public void testCacheHitsServeTheEncodedJson() {
+        cacheCoordinator.evict(329299L, 1002L);
+        String loaded = given().when().get("/api/v1/inventory/product/1002").then().statusCode(200).extract().asString();
+        double loads = count("inventory.cache.loads");
+
+        // Same bytes from the cached encoding, on every API version
+        given().when().get("/api/inventory/product/1002").then().statusCode(200).body(is(loaded));
+        given().when().get("/api/v2/inventory/product/1002").then().statusCode(200).body(is(loaded));
+        assertEquals(loads, count("inventory.cache.loads"));
+        given().when().get("/api/v1/inventory/329299").then().statusCode(200).body(is(loaded));
+
+        // gzip-min-bytes is lowered in the test profile, so items are served gzipped on request
+        String gzipTag = given()
+                .header("Accept-Encoding", "gzip")
+                .when().get("/api/v1/inventory/329299")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", is("gzip"))
+                .header("Vary", containsString("Accept-Encoding"))
+                .header("ETag", endsWith("-gzip\""))
+                .body("productId", is(1002))
+                .extract().header("ETag");
+
+        // The identity body has its own tag, and varies on the encoding too
+        String identityTag = given()
+                .header("Accept-Encoding", "identity")
+                .when().get("/api/v1/inventory/329299")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .header("Vary", containsString("Accept-Encoding"))
+                .body(is(loaded))
+                .extract().header("ETag");
+        assertEquals(identityTag, gzipTag.replace("-gzip", ""));
+
+        given()
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", gzipTag)
+                .when().get("/api/v1/inventory/329299")
+                .then()
+                .statusCode(304)
+                .header("ETag", is(gzipTag));
+    }
+
+    private double count(String name) {
+        return meterRegistry.counter(name, "cache", PRODUCT_CACHE).count();
+    }
+}
@@ -0,0 +1,111 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class InventoryDatasetGeneratorTest {
+
+    private static final long FIRST_PRODUCT = 8_000_000L;
+    private static final int ROWS = 2_000;
+
+    @AfterEach
+    public void removeDataset() {
+        QuarkusTransaction.requiringNew().run(() -> Inventory.delete("productId >= ?1", FIRST_PRODUCT));
+    }
+
+    @Test
+    public void testGeneratesSkewedDataset() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"rows\": " + ROWS + ", \"firstProductId\": " + FIRST_PRODUCT + ", \"outOfStockRatio\": 0.1}")
+                .when().post("/api/v1/inventory/dataset")
+                .then()
+                .statusCode(200)
+                .body("rows", is(ROWS))
+                .body("firstProductId", is((int) FIRST_PRODUCT))
+                .body("lastProductId", is((int) FIRST_PRODUCT + ROWS - 1));
+
+        List<Integer> quantities = QuarkusTransaction.requiringNew().call(() -> Inventory
+                .<Inventory>list("productId >= ?1", FIRST_PRODUCT).stream()
+                .map(inventory -> inventory.quantity)
+                .toList());
+        assertEquals(ROWS, quantities.size());
+        long outOfStock = quantities.stream().filter(quantity -> quantity == 0).count();
+        assertTrue(outOfStock > ROWS * 0.05 && outOfStock < ROWS * 0.2, "out of stock: " + outOfStock);
+
+        // The most popular product carries far more stock than the median product
+        ProductPopularity popularity = new ProductPopularity(FIRST_PRODUCT, ROWS, 0.99);
+        int hottest = given()
+                .when().get("/api/v1/inventory/product/" + popularity.productId(1))
+                .then()
+                .statusCode(200)
+                .extract().path("quantity");
+        int median = quantities.stream().sorted().toList().get(ROWS / 2);
+        assertTrue(hottest == 0 || hottest > median * 10, "hottest " + hottest + ", median " + median);
+
+        // Items can still be created through the ORM after the generated IDs
+        int id = given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": " + (FIRST_PRODUCT + ROWS) + ", \"quantity\": 1}")
+                .when().post("/api/v1/inventory")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+        assertTrue(id > 0);
+    }
+
+    @Test
+    public void testSameSeedGeneratesSameRows() {
+        String body = "{\"rows\": 100, \"firstProductId\": " + FIRST_PRODUCT + ", \"seed\": 7}";
+        given().contentType(ContentType.JSON).body(body).when().post("/api/v1/inventory/dataset").then().statusCode(200);
+        List<Integer> first = quantities();
+
+        given()
+                .when().delete("/api/v1/inventory/dataset?firstProductId=" + FIRST_PRODUCT + "&rows=100")
+                .then()
+                .statusCode(200)
+                .body("rows", is(100));
+        given().contentType(ContentType.JSON).body(body).when().post("/api/v1/inventory/dataset").then().statusCode(200);
+
+        assertEquals(first, quantities());
+    }
+
+    @Test
+    public void testRejectsRangeThatHoldsInventory() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"rows\": 10, \"firstProductId\": 1001}")
+                .when().post("/api/v1/inventory/dataset")
+                .then()
+                .statusCode(400)
+                .body("status", is(400));
+    }
+
+    @Test
+    public void testRejectsInvalidRequest() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"rows\": 0, \"popularityExponent\": -1}")
+                .when().post("/api/v1/inventory/dataset")
+                .then()
+                .statusCode(400);
+    }
+
+    private static List<Integer> quantities() {
+        return QuarkusTransaction.requiringNew().call(() -> Inventory
+                .<Inventory>list("productId >= ?1 order by productId", FIRST_PRODUCT).stream()
+                .map(inventory -> inventory.quantity)
+                .toList());
+    }
+}
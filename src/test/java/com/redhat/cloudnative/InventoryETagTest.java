@@ -0,0 +1,112 @@
+package com.redhat.cloudnative;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InventoryETagTest {
+
+    @Test
+    public void testTagRoundTrip() {
+        assertEquals("\"7\"", InventoryETag.of(7));
+        assertEquals(Long.valueOf(7), InventoryETag.expectedVersion(InventoryETag.of(7)));
+        assertEquals(Long.valueOf(7), InventoryETag.expectedVersion("  \"7\" "));
+    }
+
+    @Test
+    public void testAbsentOrWildcardMeansUnconditional() {
+        assertNull(InventoryETag.expectedVersion(null));
+        assertNull(InventoryETag.expectedVersion(""));
+        assertNull(InventoryETag.expectedVersion("*"));
+    }
+
+    @Test
+    public void testWeakOrForeignTagsNeverMatch() {
+        assertEquals(Long.valueOf(-1), InventoryETag.expectedVersion("W/\"7\""));
+        assertEquals(Long.valueOf(-1), InventoryETag.expectedVersion("\"abc\""));
+        assertEquals(Long.valueOf(-1), InventoryETag.expectedVersion("\"-3\""));
+    }
+
+    @Test
+    public void testRejectsMalformedHeaders() {
+        assertThrows(InvalidInventoryException.class, () -> InventoryETag.expectedVersion("7"));
+        assertThrows(InvalidInventoryException.class, () -> InventoryETag.expectedVersion("\"1\", \"2\""));
+        assertThrows(InvalidInventoryException.class, () -> InventoryETag.expectedVersion("\"\""));
+    }
+
+    @Test
+    public void testItemTagCoversHeldStock() {
+        Inventory inventory = new Inventory();
+        inventory.version = 3;
+        inventory.quantity = 10;
+        assertEquals("\"3\"", InventoryETag.of(inventory));
+        inventory.availableToSell = 10;
+        assertEquals("\"3\"", InventoryETag.of(inventory));
+        inventory.availableToSell = 6;
+        assertEquals("\"3.4\"", InventoryETag.of(inventory));
+        // A hot item's budget moves the quantity without a new version
+        inventory.budget = 40;
+        assertEquals("\"3.4.40\"", InventoryETag.of(inventory));
+        inventory.availableToSell = null;
+        assertEquals("\"3.0.40\"", InventoryETag.of(inventory));
+        // Writes are conditional on the row version only
+        assertEquals(Long.valueOf(3), InventoryETag.expectedVersion("\"3.4\""));
+        assertEquals(Long.valueOf(3), InventoryETag.expectedVersion("\"3.4.40\""));
+    }
+
+    @Test
+    public void testGzipTagIsDistinctButMatchesTheSameVersion() {
+        assertEquals("\"3-gzip\"", InventoryETag.gzip("\"3\""));
+        assertEquals("\"3.4-gzip\"", InventoryETag.gzip("\"3.4\""));
+        assertEquals(Long.valueOf(3), InventoryETag.expectedVersion("\"3-gzip\""));
+        assertEquals(Long.valueOf(3), InventoryETag.expectedVersion("\"3.4-gzip\""));
+        assertTrue(InventoryETag.notModified("\"3-gzip\"", null, "\"3\"", null));
+        assertTrue(InventoryETag.notModified("\"3\"", null, "\"3-gzip\"", null));
+        assertFalse(InventoryETag.notModified("\"4-gzip\"", null, "\"3-gzip\"", null));
+    }
+
+    @Test
+    public void testPageTagFollowsRows() {
+        String tag = InventoryETag.ofPage(List.of(item(1, 3, 10), item(2, 1, 5)), 8L);
+        assertEquals(tag, InventoryETag.ofPage(List.of(item(1, 3, 10), item(2, 1, 5)), 8L));
+        assertNotEquals(tag, InventoryETag.ofPage(List.of(item(1, 4, 10), item(2, 1, 5)), 8L));
+        // A hold changes availability without a new version
+        assertNotEquals(tag, InventoryETag.ofPage(List.of(item(1, 3, 9), item(2, 1, 5)), 8L));
+        assertNotEquals(tag, InventoryETag.ofPage(List.of(item(1, 3, 10), item(3, 1, 5)), 8L));
+        assertNotEquals(tag, InventoryETag.ofPage(List.of(item(1, 3, 10)), 8L));
+        assertNotEquals(tag, InventoryETag.ofPage(List.of(item(1, 3, 10), item(2, 1, 5)), 9L));
+        assertNotEquals(tag, InventoryETag.ofPage(List.of(item(1, 3, 10), item(2, 1, 5)), null));
+    }
+
+    @Test
+    public void testNotModified() {
+        Instant modified = Instant.parse("2026-02-09T10:15:30.250Z");
+        assertTrue(InventoryETag.notModified("\"3\"", null, "\"3\"", modified));
+        assertTrue(InventoryETag.notModified("\"1\", W/\"3\"", null, "\"3\"", modified));
+        assertTrue(InventoryETag.notModified("*", null, "\"3\"", modified));
+        assertFalse(InventoryETag.notModified("\"2\"", null, "\"3\"", modified));
+        assertTrue(InventoryETag.notModified(null, "Mon, 09 Feb 2026 10:15:30 GMT", "\"3\"", modified));
+        assertFalse(InventoryETag.notModified(null, "Mon, 09 Feb 2026 10:15:29 GMT", "\"3\"", modified));
+        // If-None-Match takes precedence over If-Modified-Since
+        assertFalse(InventoryETag.notModified("\"2\"", "Mon, 09 Feb 2026 10:15:30 GMT", "\"3\"", modified));
+        assertFalse(InventoryETag.notModified(null, "yesterday", "\"3\"", modified));
+        assertFalse(InventoryETag.notModified(null, null, "\"3\"", modified));
+    }
+
+    private static Inventory item(long id, long version, int availableToSell) {
+        Inventory inventory = new Inventory();
+        inventory.id = id;
+        inventory.version = version;
+        inventory.quantity = 10;
+        inventory.availableToSell = availableToSell;
+        return inventory;
+    }
+}
@@ -0,0 +1,119 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class InventoryInvalidationBusTest {
+
+    @Inject
+    InventoryInvalidationBus invalidationBus;
+
+    @Inject
+    @CacheName("inventory-cache")
+    Cache inventoryCache;
+
+    @Inject
+    @CacheName("inventory-product-cache")
+    Cache inventoryProductCache;
+
+    // Plays the part of another replica listening on the channel
+    private final InMemoryInvalidationTransport otherReplica = new InMemoryInvalidationTransport();
+    private final List<String> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void listen() {
+        invalidationBus.flush();
+        otherReplica.start(received::add, () -> {
+        });
+    }
+
+    @AfterEach
+    public void stopListening() {
+        otherReplica.stop();
+    }
+
+    @Test
+    public void testWritesToOneItemAreCoalescedIntoOneMessage() {
+        adjust(1003, 1);
+        adjust(1003, 1);
+        adjust(1003, -2);
+
+        assertEquals(1, invalidationBus.flush());
+        assertEquals(1, received.size());
+        String payload = received.get(0);
+        assertEquals(1, payload.split("329199:1003", -1).length - 1, payload);
+    }
+
+    @Test
+    public void testManyItemsAreSplitIntoPayloadSizedMessages() {
+        for (long i = 0; i < 1000; i++) {
+            invalidationBus.publish(10_000_000L + i, 20_000_000L + i);
+        }
+
+        assertEquals(3, invalidationBus.flush());
+        for (String payload : received) {
+            assertTrue(payload.length() < 8000, "NOTIFY payloads must stay below 8000 bytes");
+        }
+    }
+
+    @Test
+    public void testRemoteInvalidationEvictsOnlyNamedItem() {
+        warm(329199, 1003);
+        warm(165613, 1004);
+
+        otherReplica.send("another-pod 329199:1003");
+
+        assertFalse(itemCache().keySet().contains(329199L));
+        assertFalse(productCache().keySet().contains(1003L));
+        assertTrue(itemCache().keySet().contains(165613L));
+        assertTrue(productCache().keySet().contains(1004L));
+    }
+
+    @Test
+    public void testRemoteClearEvictsEverything() {
+        warm(165613, 1004);
+
+        otherReplica.send("another-pod *");
+
+        assertTrue(itemCache().keySet().isEmpty());
+        assertTrue(productCache().keySet().isEmpty());
+    }
+
+    private static void adjust(long productId, int delta) {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": " + delta + "}")
+                .when().post("/api/v1/inventory/product/" + productId + "/adjust")
+                .then()
+                .statusCode(200);
+    }
+
+    private static void warm(long itemId, long productId) {
+        given().when().get("/api/v1/inventory/" + itemId).then().statusCode(200);
+        given().when().get("/api/v1/inventory/product/" + productId).then().statusCode(200);
+    }
+
+    private CaffeineCache itemCache() {
+        return inventoryCache.as(CaffeineCache.class);
+    }
+
+    private CaffeineCache productCache() {
+        return inventoryProductCache.as(CaffeineCache.class);
+    }
+}
@@ -0,0 +1,151 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The test profile snapshots items after 5 movements, with no lag and no
+ * ticker; the tests snapshot explicitly.
+ */
+@QuarkusTest
+public class InventoryLedgerTest {
+
+    @Inject
+    InventoryLedger ledger;
+
+    @Test
+    public void testEveryWriteIsRecorded() {
+        int id = create(7701, 10);
+        adjust(id, -3);
+        given().contentType(ContentType.JSON)
+                .body("{\"quantity\": 20}")
+                .when().patch("/api/v1/inventory/" + id + "/quantity")
+                .then()
+                .statusCode(200);
+        given().when().delete("/api/v1/inventory/" + id).then().statusCode(204);
+
+        // The ledger outlives the item
+        given()
+                .when().get("/api/v1/inventory/" + id + "/movements")
+                .then()
+                .statusCode(200)
+                .body("size()", is(4))
+                .body("kind", hasItems("DELETE", "SET", "ADJUST", "CREATE"))
+                .body("[0].kind", is("DELETE"))
+                .body("delta", hasItems(-20, 13, -3, 10));
+        given()
+                .when().get("/api/v1/inventory/" + id + "/movements?limit=2")
+                .then()
+                .statusCode(200)
+                .body("size()", is(2))
+                .body("[1].kind", is("SET"));
+    }
+
+    @Test
+    public void testStockAsOfAcrossSnapshots() throws InterruptedException {
+        Instant beforeCreate = tick();
+        int id = create(7702, 10);
+        Instant created = tick();
+        adjust(id, 5);
+        Instant restocked = tick();
+        for (int i = 0; i < 6; i++) {
+            adjust(id, -1);
+        }
+        Instant sold = tick();
+
+        assertTrue(ledger.snapshot() >= 1);
+        assertEquals(9, latestSnapshot(id).quantity);
+        // Nothing new to snapshot
+        assertEquals(0, ledger.snapshot());
+        adjust(id, 2);
+
+        assertEquals(10, stockAsOf(id, created));
+        assertEquals(15, stockAsOf(id, restocked));
+        assertEquals(9, stockAsOf(id, sold));
+        given().when().get("/api/v1/inventory/" + id + "/stock")
+                .then()
+                .statusCode(200)
+                .body("itemId", is(id))
+                .body("quantity", is(11));
+        given().when().get("/api/v1/inventory/" + id + "/stock?asOf=" + beforeCreate).then().statusCode(404);
+        given().when().get("/api/v1/inventory/" + id + "/stock?asOf=yesterday").then().statusCode(400);
+
+        given().when().delete("/api/v1/inventory/" + id).then().statusCode(204);
+    }
+
+    @Test
+    public void testBatchWritesRecordOneMovementPerItem() {
+        int first = create(7703, 10);
+        int second = create(7704, 10);
+        given().contentType(ContentType.JSON)
+                .body("{\"lines\": [{\"productId\": 7703, \"quantity\": 2}, {\"productId\": 7704, \"quantity\": 3}]}")
+                .when().post("/api/v1/inventory/reservations")
+                .then()
+                .statusCode(200)
+                .body("reserved", is(true));
+        // An unchanged row is not a movement
+        given().contentType(ContentType.JSON)
+                .body("[{\"productId\": 7703, \"quantity\": 8}, {\"productId\": 7704, \"quantity\": 1}]")
+                .when().post("/api/v1/inventory/bulk")
+                .then()
+                .statusCode(200);
+
+        given().when().get("/api/v1/inventory/" + first + "/movements")
+                .then()
+                .statusCode(200)
+                .body("kind", is(List.of("RESERVE", "CREATE")));
+        given().when().get("/api/v1/inventory/" + second + "/movements")
+                .then()
+                .statusCode(200)
+                .body("kind", is(List.of("BULK", "RESERVE", "CREATE")))
+                .body("[0].delta", is(-6));
+
+        given().when().delete("/api/v1/inventory/" + first).then().statusCode(204);
+        given().when().delete("/api/v1/inventory/" + second).then().statusCode(204);
+    }
+
+    private static int create(long productId, int quantity) {
+        return given().contentType(ContentType.JSON)
+                .body("{\"productId\": " + productId + ", \"quantity\": " + quantity + "}")
+                .when().post("/api/v1/inventory").then().statusCode(201).extract().path("id");
+    }
+
+    private static void adjust(int id, int delta) {
+        given().contentType(ContentType.JSON)
+                .body("{\"delta\": " + delta + "}")
+                .when().post("/api/v1/inventory/" + id + "/adjust")
+                .then()
+                .statusCode(200);
+    }
+
+    private static int stockAsOf(int id, Instant asOf) {
+        return given().when().get("/api/v1/inventory/" + id + "/stock?asOf=" + asOf)
+                .then().statusCode(200).extract().path("quantity");
+    }
+
+    private static InventorySnapshot latestSnapshot(long id) {
+        return QuarkusTransaction.requiringNew().call(() -> InventorySnapshot
+                .<InventorySnapshot>find("itemId = ?1 order by movementId desc", id).firstResult());
+    }
+
+    /**
+     * A point in time strictly between the writes before and after it.
+     */
+    private static Instant tick() throws InterruptedException {
+        Thread.sleep(5);
+        Instant now = Instant.now();
+        Thread.sleep(5);
+        return now;
+    }
+}
@@ -0,0 +1,118 @@
+package com.redhat.cloudnative;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class InventoryNegativeCacheTest {
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    ProductIdFilter productFilter;
+
+    @BeforeEach
+    public void awaitFilter() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!productFilter.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(productFilter.isReady(), "product filter must be built at startup");
+    }
+
+    @Test
+    public void testUnknownItemIsLoadedOnceThenServedFromNegativeCache() {
+        double loads = count("inventory.cache.loads", "inventory-cache");
+        double negativeHits = count("inventory.cache.negative.hits", "inventory-cache");
+
+        for (int i = 0; i < 3; i++) {
+            given()
+                    .when().get("/api/v1/inventory/987654321")
+                    .then()
+                    .statusCode(404)
+                    .body("status", is(404));
+        }
+
+        assertEquals(loads + 1, count("inventory.cache.loads", "inventory-cache"));
+        assertEquals(negativeHits + 2, count("inventory.cache.negative.hits", "inventory-cache"));
+    }
+
+    @Test
+    public void testExistingProductsPassTheFilter() {
+        for (long productId = 1001; productId <= 1008; productId++) {
+            assertTrue(productFilter.mightContain(productId));
+        }
+    }
+
+    @Test
+    public void testDefinitelyUnknownProductSkipsCacheAndDatabase() {
+        long productId = unknownToFilter(6_000_000L);
+        double loads = count("inventory.cache.loads", "inventory-product-cache");
+        double rejected = count("inventory.cache.filter.rejected", "inventory-product-cache");
+
+        given()
+                .when().get("/api/inventory/product/" + productId)
+                .then()
+                .statusCode(404);
+
+        assertEquals(loads, count("inventory.cache.loads", "inventory-product-cache"));
+        assertEquals(rejected + 1, count("inventory.cache.filter.rejected", "inventory-product-cache"));
+    }
+
+    @Test
+    public void testCreatedProductIsVisibleDespiteEarlierMiss() {
+        long productId = unknownToFilter(6_100_000L);
+        given()
+                .when().get("/api/v1/inventory/product/" + productId)
+                .then()
+                .statusCode(404);
+
+        int createdId = given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": " + productId + ", \"quantity\": 4}")
+                .when().post("/api/v1/inventory")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        assertTrue(productFilter.mightContain(productId));
+        given()
+                .when().get("/api/v1/inventory/product/" + productId)
+                .then()
+                .statusCode(200)
+                .body("quantity", is(4));
+
+        given().when().delete("/api/v1/inventory/" + createdId).then().statusCode(204);
+        given()
+                .when().get("/api/v1/inventory/product/" + productId)
+                .then()
+                .statusCode(404);
+    }
+
+    /**
+     * First product ID from {@code start} on that the filter rules out (about 99% of them).
+     */
+    private long unknownToFilter(long start) {
+        long productId = start;
+        while (productFilter.mightContain(productId)) {
+            productId++;
+        }
+        assertFalse(productFilter.mightContain(productId));
+        return productId;
+    }
+
+    private double count(String name, String cache) {
+        return meterRegistry.counter(name, "cache", cache).count();
+    }
+}
@@ -0,0 +1,124 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The relay posts to {@link CloudEventSink} and has no ticker in the test
+ * profile; the tests drain explicitly.
+ */
+@QuarkusTest
+public class InventoryOutboxRelayTest {
+
+    @Inject
+    InventoryOutboxRelay relay;
+
+    @BeforeEach
+    public void drainEarlierEvents() {
+        relay.drain();
+        CloudEventSink.reset();
+    }
+
+    @Test
+    public void testWritesArePublishedAsCloudEvents() {
+        int id = create(7801, 10);
+        given().contentType(ContentType.JSON)
+                .body("{\"delta\": -4}")
+                .when().post("/api/v1/inventory/" + id + "/adjust")
+                .then()
+                .statusCode(200);
+        given().when().delete("/api/v1/inventory/" + id).then().statusCode(204);
+
+        assertTrue(relay.drain() >= 3);
+        List<CloudEventSink.Received> events = CloudEventSink.forItem(id);
+        assertEquals(List.of("com.redhat.cloudnative.inventory.created", "com.redhat.cloudnative.inventory.updated",
+                "com.redhat.cloudnative.inventory.deleted"), events.stream().map(CloudEventSink.Received::type).toList());
+        assertEquals(List.of(10, 6, 0), events.stream().map(event -> event.body().getQuantity()).toList());
+        assertTrue(events.get(1).body().getVersion() > events.get(0).body().getVersion());
+        for (CloudEventSink.Received event : events) {
+            assertEquals("1.0", event.specVersion());
+            assertEquals("/coolstore/inventory", event.source());
+            assertEquals("7801", event.productId());
+        }
+        assertEquals(0L, pending(id));
+    }
+
+    @Test
+    public void testFailedDeliveriesAreRetriedWithBackoff() {
+        int id = create(7802, 5);
+        CloudEventSink.status = 503;
+        assertEquals(0, relay.drain());
+        InventoryOutboxEvent event = QuarkusTransaction.requiringNew()
+                .call(() -> InventoryOutboxEvent.<InventoryOutboxEvent>find("itemId", (long) id).singleResult());
+        assertEquals(1, event.attempts);
+        assertTrue(event.nextAttemptAt.isAfter(Instant.now()));
+
+        CloudEventSink.status = 202;
+        // Not due yet
+        assertEquals(0, relay.drain());
+        QuarkusTransaction.requiringNew().run(() -> InventoryOutboxEvent.update("nextAttemptAt = ?1 where itemId = ?2",
+                Instant.now().minusSeconds(1), (long) id));
+        assertEquals(1, relay.drain());
+        assertEquals(1, CloudEventSink.forItem(id).size());
+
+        given().when().delete("/api/v1/inventory/" + id).then().statusCode(204);
+    }
+
+    @Test
+    public void testClaimedEventsAreSkippedByOtherRelays() throws Exception {
+        int locked = create(7803, 1);
+        int free = create(7804, 1);
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Another replica holding the first event
+        CompletableFuture<Void> replica = CompletableFuture.runAsync(() -> QuarkusTransaction.requiringNew().run(() -> {
+            InventoryOutboxEvent.getEntityManager()
+                    .createNativeQuery("SELECT id FROM INVENTORY_OUTBOX WHERE item_id = ?1 FOR UPDATE")
+                    .setParameter(1, (long) locked)
+                    .getResultList();
+            claimed.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(claimed.await(10, TimeUnit.SECONDS));
+
+        assertEquals(1, relay.drain());
+        assertEquals(0, CloudEventSink.forItem(locked).size());
+        assertEquals(1, CloudEventSink.forItem(free).size());
+
+        release.countDown();
+        replica.get(10, TimeUnit.SECONDS);
+        assertEquals(1, relay.drain());
+        assertEquals(1, CloudEventSink.forItem(locked).size());
+
+        given().when().delete("/api/v1/inventory/" + locked).then().statusCode(204);
+        given().when().delete("/api/v1/inventory/" + free).then().statusCode(204);
+    }
+
+    private static int create(long productId, int quantity) {
+        return given().contentType(ContentType.JSON)
+                .body("{\"productId\": " + productId + ", \"quantity\": " + quantity + "}")
+                .when().post("/api/v1/inventory").then().statusCode(201).extract().path("id");
+    }
+
+    private static long pending(long itemId) {
+        return QuarkusTransaction.requiringNew().call(() -> InventoryOutboxEvent.count("itemId", itemId));
+    }
+}
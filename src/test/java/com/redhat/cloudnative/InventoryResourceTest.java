@@ -2,10 +2,15 @@ package com.redhat.cloudnative;
 
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
 import org.junit.jupiter.api.Test;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 public class InventoryResourceTest {
@@ -79,6 +84,73 @@ public class InventoryResourceTest {
                                 .body("size", is(100)); // Should be limited to 100
         }
 
+        @Test
+        public void testListInventoryWithCursor() {
+                JsonPath first = given()
+                                .queryParam("size", 3)
+                                .when().get("/api/inventory")
+                                .then()
+                                .statusCode(200)
+                                .body("data.size()", is(3))
+                                .body("nextCursor", notNullValue())
+                                .extract().jsonPath();
+                int lastId = first.getInt("data[2].id");
+
+                int nextId = given()
+                                .queryParam("size", 3)
+                                .queryParam("cursor", first.getString("nextCursor"))
+                                .when().get("/api/inventory")
+                                .then()
+                                .statusCode(200)
+                                .body("data.size()", is(3))
+                                .body("hasPrevious", is(true))
+                                .body("total", nullValue())
+                                .extract().path("data[0].id");
+                assertTrue(nextId > lastId);
+        }
+
+        @Test
+        public void testListInventoryByProductIdCursorWithTotal() {
+                String cursor = given()
+                                .queryParam("size", 2)
+                                .queryParam("sort", "productId")
+                                .when().get("/api/inventory")
+                                .then()
+                                .statusCode(200)
+                                .body("data[1].productId", is(1002))
+                                .extract().path("nextCursor");
+
+                given()
+                                .queryParam("size", 2)
+                                .queryParam("cursor", cursor)
+                                .queryParam("includeTotal", true)
+                                .when().get("/api/inventory")
+                                .then()
+                                .statusCode(200)
+                                .body("data[0].productId", is(1003))
+                                .body("total", notNullValue());
+        }
+
+        @Test
+        public void testListInventoryWithoutTotal() {
+                given()
+                                .queryParam("includeTotal", false)
+                                .when().get("/api/inventory")
+                                .then()
+                                .statusCode(200)
+                                .body("total", nullValue())
+                                .body("totalPages", nullValue());
+        }
+
+        @Test
+        public void testListInventoryWithInvalidCursor() {
+                given()
+                                .queryParam("cursor", "not-a-cursor")
+                                .when().get("/api/inventory")
+                                .then()
+                                .statusCode(400);
+        }
+
         // ==================== GET /api/inventory/all Tests (No Pagination)
         // ====================
 
@@ -90,6 +162,31 @@ public class InventoryResourceTest {
                                 .statusCode(200);
         }
 
+        @Test
+        public void testStreamAllAsNdjson() {
+                String body = given()
+                                .accept("application/x-ndjson")
+                                .when().get("/api/inventory/all/stream")
+                                .then()
+                                .statusCode(200)
+                                .contentType(containsString("application/x-ndjson"))
+                                .extract().asString();
+                long count = given().when().get("/api/inventory/count").then().extract().as(Long.class);
+                assertEquals(count, body.lines().count());
+        }
+
+        @Test
+        public void testStreamAllAsJsonArray() {
+                given()
+                                .accept(ContentType.JSON)
+                                .when().get("/api/inventory/all/stream")
+                                .then()
+                                .statusCode(200)
+                                .contentType(ContentType.JSON)
+                                .body("size()", greaterThanOrEqualTo(8))
+                                .body("productId", hasItem(1002));
+        }
+
         // ==================== GET /api/inventory/count Tests ====================
 
         @Test
@@ -315,6 +412,48 @@ public class InventoryResourceTest {
                                 .body("error", is("Not Found"));
         }
 
+        // ==================== GET/POST /api/inventory/batch Tests
+        // ====================
+
+        @Test
+        public void testGetBatchByProductIds() {
+                // Warm the cache for one of the products so the batch mixes hits and misses
+                given().when().get("/api/inventory/product/1003").then().statusCode(200);
+
+                given()
+                                .queryParam("productIds", "1002,1003")
+                                .queryParam("productIds", "999999")
+                                .when().get("/api/inventory/batch")
+                                .then()
+                                .statusCode(200)
+                                .body("items.'1002'.productId", is(1002))
+                                .body("items.'1003'.productId", is(1003))
+                                .body("items", hasKey("999999"))
+                                .body("items.'999999'", nullValue())
+                                .body("notFound", hasItem(999999));
+        }
+
+        @Test
+        public void testPostBatchByProductIds() {
+                given()
+                                .contentType(ContentType.JSON)
+                                .body("{\"productIds\": [1004, 1005]}")
+                                .when().post("/api/inventory/batch")
+                                .then()
+                                .statusCode(200)
+                                .body("items.'1004'.productId", is(1004))
+                                .body("items.'1005'.productId", is(1005))
+                                .body("notFound.size()", is(0));
+        }
+
+        @Test
+        public void testGetBatchWithoutProductIds() {
+                given()
+                                .when().get("/api/inventory/batch")
+                                .then()
+                                .statusCode(400);
+        }
+
         @Test
         public void testDeleteInventoryNotFound() {
                 given()
@@ -2,14 +2,27 @@ package com.redhat.cloudnative;
 
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.*;
 
 @QuarkusTest
 public class InventoryResourceV1Test {
 
+    // Items created through createInventory, removed after each test so the seed data stays as it was
+    private final List<Integer> created = new ArrayList<>();
+
+    @AfterEach
+    public void deleteCreated() {
+        created.forEach(id -> given().when().delete("/api/v1/inventory/" + id));
+        created.clear();
+    }
+
     // ==================== GET /api/v1/inventory Tests ====================
 
     @Test
@@ -34,6 +47,46 @@ public class InventoryResourceV1Test {
                 .body("page", is(0));
     }
 
+    @Test
+    public void testV1ListInventoryRejectsPagesOutOfRange() {
+        given()
+                .queryParam("page", -1)
+                .when().get("/api/v1/inventory")
+                .then()
+                .statusCode(400)
+                .body("status", is(400));
+
+        // 2147483647 * 20 used to wrap around to a negative offset
+        given()
+                .queryParam("page", Integer.MAX_VALUE)
+                .queryParam("size", 20)
+                .when().get("/api/v1/inventory")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void testV1ListInventoryWithCursor() {
+        String cursor = given()
+                .queryParam("size", 4)
+                .queryParam("sort", "productId")
+                .when().get("/api/v1/inventory")
+                .then()
+                .statusCode(200)
+                .body("data[3].productId", is(1004))
+                .body("nextCursor", notNullValue())
+                .extract().path("nextCursor");
+
+        given()
+                .queryParam("size", 4)
+                .queryParam("cursor", cursor)
+                .when().get("/api/v1/inventory")
+                .then()
+                .statusCode(200)
+                .body("data[0].productId", is(1005))
+                .body("hasPrevious", is(true));
+    }
+
     @Test
     public void testV1ListAllWithoutPagination() {
         given()
@@ -42,6 +95,17 @@ public class InventoryResourceV1Test {
                 .statusCode(200);
     }
 
+    @Test
+    public void testV1StreamAll() {
+        given()
+                .accept("application/x-ndjson")
+                .when().get("/api/v1/inventory/all/stream")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("application/x-ndjson"))
+                .body(containsString("\"productId\":1002"));
+    }
+
     @Test
     public void testV1CountInventory() {
         given()
@@ -177,6 +241,332 @@ public class InventoryResourceV1Test {
                 .statusCode(400);
     }
 
+    @Test
+    public void testV1GetBatchByProductIds() {
+        given()
+                .queryParam("productIds", "1002,1006,888888")
+                .when().get("/api/v1/inventory/batch")
+                .then()
+                .statusCode(200)
+                .body("items.'1002'.quantity", is(35))
+                .body("items.'1006'.productId", is(1006))
+                .body("notFound", hasItem(888888));
+    }
+
+    // ==================== POST /api/v1/inventory/{id}/adjust Tests
+    // ====================
+
+    @Test
+    public void testV1AdjustQuantity() {
+        int createdId = createInventory(7001, 10);
+
+        // Populate the caches so the adjustment has something to invalidate
+        given().when().get("/api/v1/inventory/product/7001").then().statusCode(200);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": -4}")
+                .when().post("/api/v1/inventory/" + createdId + "/adjust")
+                .then()
+                .statusCode(200)
+                .body("id", is(createdId))
+                .body("quantity", is(6));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": 2}")
+                .when().post("/api/v1/inventory/product/7001/adjust")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(8));
+
+        given()
+                .when().get("/api/v1/inventory/product/7001")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(8));
+    }
+
+    @Test
+    public void testV1AdjustQuantityInsufficientStock() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": -100000}")
+                .when().post("/api/v1/inventory/100000/adjust")
+                .then()
+                .statusCode(409)
+                .body("status", is(409));
+    }
+
+    @Test
+    public void testV1AdjustQuantityAtTheIntegerLimit() {
+        int createdId = createInventory(7002, 2147483000);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": 647}")
+                .when().post("/api/v1/inventory/" + createdId + "/adjust")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(Integer.MAX_VALUE));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": 1}")
+                .when().post("/api/v1/inventory/" + createdId + "/adjust")
+                .then()
+                .statusCode(409)
+                .body("status", is(409));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": 1000000000}")
+                .when().post("/api/v1/inventory/product/7002/adjust")
+                .then()
+                .statusCode(409);
+
+        // The rejected adjustments left the row at the limit, and it still comes down
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": -1000000000}")
+                .when().post("/api/v1/inventory/" + createdId + "/adjust")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(1147483647));
+    }
+
+    @Test
+    public void testV1AdjustQuantityNotFound() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": 1}")
+                .when().post("/api/v1/inventory/999999/adjust")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    public void testV1AdjustQuantityMissingDelta() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{}")
+                .when().post("/api/v1/inventory/product/1002/adjust")
+                .then()
+                .statusCode(400);
+    }
+
+    // ==================== POST /api/v1/inventory/reservations Tests
+    // ====================
+
+    @Test
+    public void testV1ReserveAllLines() {
+        createInventory(7101, 5);
+        createInventory(7102, 5);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"lines\": [{\"productId\": 7102, \"quantity\": 1}, {\"productId\": 7101, \"quantity\": 2},"
+                        + " {\"productId\": 7102, \"quantity\": 1}]}")
+                .when().post("/api/v1/inventory/reservations")
+                .then()
+                .statusCode(200)
+                .body("reserved", is(true))
+                .body("lines.size()", is(2))
+                .body("lines[0].productId", is(7101))
+                .body("lines[1].requested", is(2))
+                .body("lines[1].status", is("RESERVED"));
+
+        given()
+                .when().get("/api/v1/inventory/product/7102")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(3));
+    }
+
+    @Test
+    public void testV1ReserveIsAllOrNothing() {
+        createInventory(7201, 5);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"lines\": [{\"productId\": 7201, \"quantity\": 1}, {\"productId\": 1001, \"quantity\": 1},"
+                        + " {\"productId\": 7999, \"quantity\": 1}]}")
+                .when().post("/api/v1/inventory/reservations")
+                .then()
+                .statusCode(409)
+                .body("reserved", is(false))
+                .body("lines[0].status", is("INSUFFICIENT_STOCK"))
+                .body("lines[1].status", is("NOT_APPLIED"))
+                .body("lines[2].status", is("NOT_FOUND"));
+
+        given()
+                .when().get("/api/v1/inventory/product/7201")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(5));
+    }
+
+    @Test
+    public void testV1ReserveEmptyRequest() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"lines\": []}")
+                .when().post("/api/v1/inventory/reservations")
+                .then()
+                .statusCode(400);
+    }
+
+    // ==================== /api/v1/inventory/holds Tests ====================
+
+    @Test
+    public void testV1HoldReducesAvailableToSellAndConfirms() {
+        createInventory(7301, 10);
+
+        int holdId = given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 7301, \"quantity\": 4}")
+                .when().post("/api/v1/inventory/holds")
+                .then()
+                .statusCode(201)
+                .header("Location", containsString("/api/v1/inventory/holds/"))
+                .body("quantity", is(4))
+                .extract().path("id");
+
+        given()
+                .when().get("/api/v1/inventory/product/7301")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(10))
+                .body("availableToSell", is(6));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 7301, \"quantity\": 7}")
+                .when().post("/api/v1/inventory/holds")
+                .then()
+                .statusCode(409);
+
+        given()
+                .when().post("/api/v1/inventory/holds/" + holdId + "/confirm")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(6));
+
+        given()
+                .when().get("/api/v1/inventory/holds/" + holdId)
+                .then()
+                .statusCode(404);
+
+        given()
+                .when().get("/api/v1/inventory/product/7301")
+                .then()
+                .statusCode(200)
+                .body("availableToSell", is(6));
+    }
+
+    @Test
+    public void testV1HeldStockCannotBeReservedOrAdjustedAway() {
+        int createdId = createInventory(7303, 10);
+        int holdId = given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 7303, \"quantity\": 6}")
+                .when().post("/api/v1/inventory/holds")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"lines\": [{\"productId\": 7303, \"quantity\": 5}]}")
+                .when().post("/api/v1/inventory/reservations")
+                .then()
+                .statusCode(409)
+                .body("lines[0].status", is("INSUFFICIENT_STOCK"))
+                .body("lines[0].available", is(4));
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": -5}")
+                .when().post("/api/v1/inventory/" + createdId + "/adjust")
+                .then()
+                .statusCode(409);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"lines\": [{\"productId\": 7303, \"quantity\": 4}]}")
+                .when().post("/api/v1/inventory/reservations")
+                .then()
+                .statusCode(200)
+                .body("reserved", is(true));
+
+        // The hold still gets its units
+        given()
+                .when().post("/api/v1/inventory/holds/" + holdId + "/confirm")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(0));
+    }
+
+    @Test
+    public void testV1HoldRelease() {
+        int holdId = given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 1008, \"quantity\": 1}")
+                .when().post("/api/v1/inventory/holds")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        given()
+                .when().delete("/api/v1/inventory/holds/" + holdId)
+                .then()
+                .statusCode(204);
+
+        given()
+                .when().delete("/api/v1/inventory/holds/" + holdId)
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    public void testV1HoldExpires() throws InterruptedException {
+        createInventory(7302, 3);
+
+        int holdId = given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 7302, \"quantity\": 3, \"ttlSeconds\": 1}")
+                .when().post("/api/v1/inventory/holds")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        given()
+                .when().get("/api/v1/inventory/product/7302")
+                .then()
+                .body("availableToSell", is(0));
+
+        Thread.sleep(1500);
+
+        given()
+                .when().get("/api/v1/inventory/holds/" + holdId)
+                .then()
+                .statusCode(404);
+        given()
+                .when().get("/api/v1/inventory/product/7302")
+                .then()
+                .statusCode(200)
+                .body("availableToSell", is(3));
+    }
+
+    @Test
+    public void testV1HoldUnknownProduct() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 7999, \"quantity\": 1}")
+                .when().post("/api/v1/inventory/holds")
+                .then()
+                .statusCode(404);
+    }
+
     // ==================== DELETE /api/v1/inventory/{id} Tests ====================
 
     @Test
@@ -234,6 +624,163 @@ public class InventoryResourceV1Test {
                 .body(containsString("inventory"));
     }
 
+    // ==================== Optimistic Concurrency Tests ====================
+
+    @Test
+    public void testV1IfMatchUpdate() {
+        int createdId = given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 7401, \"quantity\": 10}")
+                .when().post("/api/v1/inventory")
+                .then()
+                .statusCode(201)
+                .header("ETag", is("\"0\""))
+                .extract().path("id");
+
+        String etag = given()
+                .when().get("/api/v1/inventory/" + createdId)
+                .then()
+                .statusCode(200)
+                .body("version", is(0))
+                .extract().header("ETag");
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", etag)
+                .body("{\"quantity\": 20}")
+                .when().patch("/api/v1/inventory/" + createdId + "/quantity")
+                .then()
+                .statusCode(200)
+                .header("ETag", is("\"1\""))
+                .body("quantity", is(20))
+                .body("version", is(1));
+
+        // A second writer still holding the old ETag loses
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", etag)
+                .body("{\"productId\": 7401, \"quantity\": 5}")
+                .when().put("/api/v1/inventory/" + createdId)
+                .then()
+                .statusCode(412)
+                .header("ETag", is("\"1\""))
+                .body("status", is(412));
+
+        given()
+                .when().get("/api/v1/inventory/" + createdId)
+                .then()
+                .statusCode(200)
+                .body("quantity", is(20));
+
+        // Adjustments move the version too
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": -1}")
+                .when().post("/api/v1/inventory/" + createdId + "/adjust")
+                .then()
+                .statusCode(200)
+                .header("ETag", is("\"2\""));
+
+        given().header("If-Match", "\"1\"").when().delete("/api/v1/inventory/" + createdId).then().statusCode(412);
+        given().header("If-Match", "\"2\"").when().delete("/api/v1/inventory/" + createdId).then().statusCode(204);
+    }
+
+    @Test
+    public void testV1IfMatchOnMissingItem() {
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", "\"0\"")
+                .body("{\"quantity\": 1}")
+                .when().patch("/api/v1/inventory/999999/quantity")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    public void testV1IfMatchMalformed() {
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", "\"0\", \"1\"")
+                .body("{\"quantity\": 1}")
+                .when().patch("/api/v1/inventory/329299/quantity")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void testV1ConditionalGet() {
+        int createdId = given().contentType(ContentType.JSON).body("{\"productId\": 7402, \"quantity\": 10}")
+                .when().post("/api/v1/inventory").then().statusCode(201).extract().path("id");
+
+        String lastModified = given()
+                .when().get("/api/v1/inventory/" + createdId)
+                .then()
+                .statusCode(200)
+                .header("ETag", is("\"0\""))
+                .header("Last-Modified", notNullValue())
+                .extract().header("Last-Modified");
+
+        given()
+                .header("If-None-Match", "\"0\"")
+                .when().get("/api/v1/inventory/" + createdId)
+                .then()
+                .statusCode(304)
+                .header("ETag", is("\"0\""))
+                .body(is(""));
+
+        given()
+                .header("If-Modified-Since", lastModified)
+                .when().get("/api/v1/inventory/product/7402")
+                .then()
+                .statusCode(304);
+
+        // A hold changes availableToSell without touching the row, and with it the tag
+        int holdId = given().contentType(ContentType.JSON).body("{\"productId\": 7402, \"quantity\": 4}")
+                .when().post("/api/v1/inventory/holds").then().statusCode(201).extract().path("id");
+
+        given()
+                .header("If-None-Match", "\"0\"")
+                .when().get("/api/v1/inventory/" + createdId)
+                .then()
+                .statusCode(200)
+                .header("ETag", is("\"0.4\""))
+                .body("availableToSell", is(6));
+
+        given().when().delete("/api/v1/inventory/holds/" + holdId).then().statusCode(204);
+        given().when().delete("/api/v1/inventory/" + createdId).then().statusCode(204);
+    }
+
+    @Test
+    public void testV1ConditionalListing() {
+        String etag = given()
+                .queryParam("size", 5)
+                .when().get("/api/v1/inventory")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+
+        given()
+                .queryParam("size", 5)
+                .header("If-None-Match", etag)
+                .when().get("/api/v1/inventory")
+                .then()
+                .statusCode(304);
+
+        int createdId = given().contentType(ContentType.JSON).body("{\"productId\": 7403, \"quantity\": 1}")
+                .when().post("/api/v1/inventory").then().statusCode(201).extract().path("id");
+
+        given()
+                .queryParam("size", 5)
+                .header("If-None-Match", etag)
+                .when().get("/api/v1/inventory")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(is(etag)));
+
+        given().when().delete("/api/v1/inventory/" + createdId).then().statusCode(204);
+    }
+
     // ==================== Content-Type Tests ====================
 
     @Test
@@ -254,4 +801,12 @@ public class InventoryResourceV1Test {
                 .then()
                 .statusCode(200);
     }
-}
\ No newline at end of file
+
+    private int createInventory(long productId, int quantity) {
+        int id = given().contentType(ContentType.JSON)
+                .body("{\"productId\": " + productId + ", \"quantity\": " + quantity + "}")
+                .when().post("/api/v1/inventory").then().statusCode(201).extract().path("id");
+        created.add(id);
+        return id;
+    }
+}
@@ -0,0 +1,293 @@
+package com.redhat.cloudnative;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+
+@QuarkusTest
+public class InventoryResourceV2Test {
+
+    // ==================== GET /api/v2/inventory Tests ====================
+
+    @Test
+    public void testV2ListInventoryWithCursor() {
+        String cursor = given()
+                .queryParam("size", 4)
+                .queryParam("sort", "productId")
+                .when().get("/api/v2/inventory")
+                .then()
+                .statusCode(200)
+                .body("data[3].productId", is(1004))
+                .body("data[0].availableToSell", notNullValue())
+                .body("total", notNullValue())
+                .body("nextCursor", notNullValue())
+                .extract().path("nextCursor");
+
+        given()
+                .queryParam("size", 4)
+                .queryParam("cursor", cursor)
+                .when().get("/api/v2/inventory")
+                .then()
+                .statusCode(200)
+                .body("data[0].productId", is(1005))
+                .body("hasPrevious", is(true));
+    }
+
+    @Test
+    public void testV2ListRejectsPagesOutOfRange() {
+        given()
+                .queryParam("page", -1)
+                .when().get("/api/v2/inventory")
+                .then()
+                .statusCode(400)
+                .body("status", is(400));
+
+        given()
+                .queryParam("page", Integer.MAX_VALUE)
+                .when().get("/api/v2/inventory")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void testV2ConditionalListing() {
+        String etag = given()
+                .queryParam("size", 5)
+                .when().get("/api/v2/inventory")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+
+        given()
+                .queryParam("size", 5)
+                .header("If-None-Match", etag)
+                .when().get("/api/v2/inventory")
+                .then()
+                .statusCode(304);
+
+        int createdId = given().contentType(ContentType.JSON).body("{\"productId\": 8104, \"quantity\": 1}")
+                .when().post("/api/v2/inventory").then().statusCode(201).extract().path("id");
+
+        given()
+                .queryParam("size", 5)
+                .header("If-None-Match", etag)
+                .when().get("/api/v2/inventory")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(is(etag)));
+
+        given().when().delete("/api/v2/inventory/" + createdId).then().statusCode(204);
+    }
+
+    @Test
+    public void testV2ListAllAndStream() {
+        given()
+                .when().get("/api/v2/inventory/all")
+                .then()
+                .statusCode(200)
+                .body("productId", hasItems(1001, 1008));
+
+        given()
+                .accept("application/x-ndjson")
+                .when().get("/api/v2/inventory/all/stream")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("application/x-ndjson"))
+                .body(containsString("\"productId\":1002"));
+    }
+
+    @Test
+    public void testV2CountInventory() {
+        given()
+                .when().get("/api/v2/inventory/count")
+                .then()
+                .statusCode(200)
+                .body(notNullValue());
+    }
+
+    @Test
+    public void testV2GetByIdAndProductId() {
+        int id = given()
+                .when().get("/api/v2/inventory/product/1003")
+                .then()
+                .statusCode(200)
+                .body("productId", is(1003))
+                .body("availableToSell", notNullValue())
+                .extract().path("id");
+
+        given()
+                .when().get("/api/v2/inventory/" + id)
+                .then()
+                .statusCode(200)
+                .body("productId", is(1003));
+    }
+
+    @Test
+    public void testV2GetNotFound() {
+        given()
+                .when().get("/api/v2/inventory/999999")
+                .then()
+                .statusCode(404)
+                .body("status", is(404))
+                .body("path", is("/api/v2/inventory/999999"));
+
+        given()
+                .when().get("/api/v2/inventory/product/999999")
+                .then()
+                .statusCode(404);
+    }
+
+    // ==================== Write Tests ====================
+
+    @Test
+    public void testV2CreateUpdateAndDelete() {
+        int id = given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 8101, \"quantity\": 10}")
+                .when().post("/api/v2/inventory")
+                .then()
+                .statusCode(201)
+                .header("Location", containsString("/api/v2/inventory/"))
+                .body("productId", is(8101))
+                .body("quantity", is(10))
+                .extract().path("id");
+
+        // Created items are visible to v1 immediately
+        given()
+                .when().get("/api/v1/inventory/product/8101")
+                .then()
+                .statusCode(200)
+                .body("id", is(id));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 8101, \"quantity\": 25}")
+                .when().put("/api/v2/inventory/" + id)
+                .then()
+                .statusCode(200)
+                .body("quantity", is(25));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"quantity\": 30}")
+                .when().patch("/api/v2/inventory/" + id + "/quantity")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(30));
+
+        // The write evicted the cached entry
+        given()
+                .when().get("/api/v2/inventory/" + id)
+                .then()
+                .statusCode(200)
+                .body("quantity", is(30));
+
+        given().when().delete("/api/v2/inventory/" + id).then().statusCode(204);
+        given().when().get("/api/v2/inventory/" + id).then().statusCode(404);
+        given().when().delete("/api/v2/inventory/" + id).then().statusCode(404);
+    }
+
+    @Test
+    public void testV2IfMatchUpdate() {
+        int id = given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 8103, \"quantity\": 10}")
+                .when().post("/api/v2/inventory")
+                .then()
+                .statusCode(201)
+                .header("ETag", is("\"0\""))
+                .extract().path("id");
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", "\"0\"")
+                .body("{\"quantity\": 12}")
+                .when().patch("/api/v2/inventory/" + id + "/quantity")
+                .then()
+                .statusCode(200)
+                .header("ETag", is("\"1\""))
+                .body("version", is(1));
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", "\"0\"")
+                .body("{\"quantity\": 15}")
+                .when().patch("/api/v2/inventory/" + id + "/quantity")
+                .then()
+                .statusCode(412)
+                .header("ETag", is("\"1\""))
+                .body("status", is(412));
+
+        given().header("If-Match", "\"0\"").when().delete("/api/v2/inventory/" + id).then().statusCode(412);
+        given().header("If-Match", "\"1\"").when().delete("/api/v2/inventory/" + id).then().statusCode(204);
+    }
+
+    @Test
+    public void testV2CreateDuplicateProduct() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 1001, \"quantity\": 5}")
+                .when().post("/api/v2/inventory")
+                .then()
+                .statusCode(400)
+                .body("status", is(400));
+    }
+
+    @Test
+    public void testV2CreateInvalid() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"quantity\": -5}")
+                .when().post("/api/v2/inventory")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void testV2AdjustByProductId() {
+        int id = given()
+                .contentType(ContentType.JSON)
+                .body("{\"productId\": 8102, \"quantity\": 5}")
+                .when().post("/api/v2/inventory")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": -3}")
+                .when().post("/api/v2/inventory/product/8102/adjust")
+                .then()
+                .statusCode(200)
+                .body("quantity", is(2));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": -3}")
+                .when().post("/api/v2/inventory/" + id + "/adjust")
+                .then()
+                .statusCode(409);
+
+        given()
+                .when().get("/api/v1/inventory/" + id)
+                .then()
+                .statusCode(200)
+                .body("quantity", is(2));
+
+        given().when().delete("/api/v2/inventory/" + id).then().statusCode(204);
+    }
+
+    @Test
+    public void testV2AdjustNotFound() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"delta\": 1}")
+                .when().post("/api/v2/inventory/999999/adjust")
+                .then()
+                .statusCode(404);
+    }
+}
@@ -0,0 +1,176 @@
+package com.redhat.cloudnative;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The hub has no ticker in the test profile and streams are limited to 3
+ * products; the tests publish explicitly.
+ */
+@QuarkusTest
+public class InventoryStreamTest {
+
+    @Inject
+    StockStreamHub hub;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @TestHTTPResource("/api/v1/inventory/stream")
+    URI streamUri;
+
+    @Test
+    public void testStreamPushesStockChanges() throws Exception {
+        int id = create(7901, 10);
+        int subscribers = hub.subscribers();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(streamUri + "?productIds=7901"))
+                .header("Accept", "text/event-stream")
+                .build();
+        CompletableFuture<HttpResponse<Stream<String>>> response = HttpClient.newHttpClient()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+        awaitSubscribers(subscribers + 1);
+        BlockingQueue<String> data = new LinkedBlockingQueue<>();
+        response.thenAccept(lines -> CompletableFuture.runAsync(() -> lines.body()
+                .filter(line -> line.startsWith("data:"))
+                .forEach(line -> data.add(line.substring("data:".length())))));
+        try {
+            // The current stock comes first
+            hub.publish();
+            StockChangeEvent first = next(data);
+            assertEquals(Long.valueOf(id), first.getItemId());
+            assertEquals(10, first.getQuantity());
+            assertEquals(Integer.valueOf(10), first.getAvailableToSell());
+
+            adjust(id, -3);
+            assertTrue(hub.publish() >= 1);
+            StockChangeEvent adjusted = next(data);
+            assertEquals(7, adjusted.getQuantity());
+            assertTrue(adjusted.getVersion() > first.getVersion());
+
+            given().when().delete("/api/v1/inventory/" + id).then().statusCode(204);
+            hub.publish();
+            StockChangeEvent deleted = next(data);
+            assertNull(deleted.getItemId());
+            assertEquals(7901L, deleted.getProductId());
+            assertEquals(0, deleted.getQuantity());
+        } finally {
+            response.cancel(true);
+            response.thenAccept(lines -> lines.body().close());
+        }
+    }
+
+    @Test
+    public void testSlowSubscribersOnlySeeTheLatestQuantity() {
+        int first = create(7902, 10);
+        int second = create(7903, 5);
+        int subscribers = hub.subscribers();
+        AssertSubscriber<StockChangeEvent> slow = hub.subscribe(List.of(7902L, 7903L))
+                .subscribe().withSubscriber(AssertSubscriber.create(0));
+        assertEquals(subscribers + 1, hub.subscribers());
+
+        hub.publish();
+        for (int i = 0; i < 5; i++) {
+            adjust(first, -1);
+            hub.publish();
+        }
+        assertTrue(slow.getItems().isEmpty());
+
+        // One pending event per product, with the latest quantity
+        slow.request(10);
+        Map<Long, StockChangeEvent> received = slow.getItems().stream()
+                .collect(Collectors.toMap(StockChangeEvent::getProductId, Function.identity()));
+        assertEquals(2, slow.getItems().size());
+        assertEquals(5, received.get(7902L).getQuantity());
+        assertEquals(5, received.get(7903L).getQuantity());
+
+        // With demand left, changes flow through as they are published
+        adjust(second, 1);
+        hub.publish();
+        assertEquals(3, slow.getItems().size());
+        assertEquals(6, slow.getItems().get(2).getQuantity());
+
+        // A later subscriber starts from the last published stock, without waiting for a change
+        AssertSubscriber<StockChangeEvent> late = hub.subscribe(List.of(7902L))
+                .subscribe().withSubscriber(AssertSubscriber.create(10));
+        assertEquals(1, late.getItems().size());
+        assertEquals(5, late.getItems().get(0).getQuantity());
+
+        late.cancel();
+        slow.cancel();
+        assertEquals(subscribers, hub.subscribers());
+
+        given().when().delete("/api/v1/inventory/" + first).then().statusCode(204);
+        given().when().delete("/api/v1/inventory/" + second).then().statusCode(204);
+    }
+
+    @Test
+    public void testInvalidStreamsAreRejected() {
+        given().when().get("/api/v1/inventory/stream")
+                .then()
+                .statusCode(400)
+                .contentType(ContentType.JSON)
+                .body("message", containsString("At least one product ID"));
+        given().when().get("/api/v1/inventory/stream?productIds=7904,abc")
+                .then()
+                .statusCode(400)
+                .body("message", containsString("abc"));
+        given().when().get("/api/v1/inventory/stream?productIds=7904,7905&productIds=7906,7907")
+                .then()
+                .statusCode(400)
+                .body("message", containsString("At most 3"));
+    }
+
+    private static int create(long productId, int quantity) {
+        return given().contentType(ContentType.JSON)
+                .body("{\"productId\": " + productId + ", \"quantity\": " + quantity + "}")
+                .when().post("/api/v1/inventory").then().statusCode(201).extract().path("id");
+    }
+
+    private static void adjust(int id, int delta) {
+        given().contentType(ContentType.JSON)
+                .body("{\"delta\": " + delta + "}")
+                .when().post("/api/v1/inventory/" + id + "/adjust")
+                .then()
+                .statusCode(200);
+    }
+
+    private void awaitSubscribers(int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && hub.subscribers() < expected; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, hub.subscribers());
+    }
+
+    private StockChangeEvent next(BlockingQueue<String> data) throws Exception {
+        String json = data.poll(5, TimeUnit.SECONDS);
+        assertNotNull(json, "No stock event within 5s");
+        return objectMapper.readValue(json.trim(), StockChangeEvent.class);
+    }
+}
@@ -0,0 +1,120 @@
+package com.redhat.cloudnative;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs with write coalescing enabled; it is off for every other test, as in production.
+ */
+@QuarkusTest
+@TestProfile(InventoryWriteCoalescerTest.Coalescing.class)
+public class InventoryWriteCoalescerTest {
+
+    public static class Coalescing implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("inventory.write-coalescing.enabled", "true");
+        }
+    }
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void testConcurrentAdjustmentsAreAppliedOneByOne() throws Exception {
+        int id = given().contentType(ContentType.JSON).body("{\"productId\": 7501, \"quantity\": 0}")
+                .when().post("/api/v1/inventory").then().statusCode(201).extract().path("id");
+        double batches = meterRegistry.counter("inventory.write.batches").count();
+
+        List<Integer> statuses = concurrently(32, () -> given().contentType(ContentType.JSON)
+                .body("{\"delta\": 1}")
+                .when().post("/api/v1/inventory/" + id + "/adjust")
+                .statusCode());
+        assertEquals(32, statuses.stream().filter(status -> status == 200).count());
+
+        // Every write still gets its own version, however the writes were batched
+        given()
+                .when().get("/api/v1/inventory/" + id)
+                .then()
+                .statusCode(200)
+                .body("quantity", is(32))
+                .body("version", is(32));
+        assertTrue(meterRegistry.counter("inventory.write.batches").count() > batches);
+
+        // The stock guard holds per write inside a batch
+        statuses = concurrently(40, () -> given().contentType(ContentType.JSON)
+                .body("{\"delta\": -1}")
+                .when().post("/api/v1/inventory/" + id + "/adjust")
+                .statusCode());
+        assertEquals(32, statuses.stream().filter(status -> status == 200).count());
+        assertEquals(8, statuses.stream().filter(status -> status == 409).count());
+
+        given().when().get("/api/v1/inventory/" + id).then().statusCode(200).body("quantity", is(0));
+        given().when().delete("/api/v1/inventory/" + id).then().statusCode(204);
+    }
+
+    @Test
+    public void testQueuedSetsCheckTheirOwnIfMatch() throws Exception {
+        int id = given().contentType(ContentType.JSON).body("{\"productId\": 7502, \"quantity\": 5}")
+                .when().post("/api/v1/inventory").then().statusCode(201).extract().path("id");
+
+        // All writers hold the same ETag; exactly one of them can win
+        List<Integer> statuses = concurrently(8, () -> given().contentType(ContentType.JSON)
+                .header("If-Match", "\"0\"")
+                .body("{\"quantity\": 9}")
+                .when().patch("/api/v1/inventory/" + id + "/quantity")
+                .statusCode());
+        assertEquals(1, statuses.stream().filter(status -> status == 200).count());
+        assertEquals(7, statuses.stream().filter(status -> status == 412).count());
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"quantity\": 3}")
+                .when().patch("/api/v1/inventory/999999/quantity")
+                .then()
+                .statusCode(404);
+
+        given().when().delete("/api/v1/inventory/" + id).then().statusCode(204);
+    }
+
+    private static List<Integer> concurrently(int callers, Callable<Integer> request) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return request.call();
+                }));
+            }
+            start.countDown();
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                statuses.add(future.get());
+            }
+            return statuses;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
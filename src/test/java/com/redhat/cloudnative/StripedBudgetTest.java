@@ -0,0 +1,140 @@
+package com.redhat.cloudnative;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StripedBudgetTest {
+
+    @Test
+    public void testConcurrentTakesNeverExceedTheBudget() throws Exception {
+        StripedBudget budget = new StripedBudget(4);
+        for (int i = 0; i < 4; i++) {
+            budget.tryAdd(i, 2500);
+        }
+        // Takes that find no single stripe with enough pool the stripes, as the counters do
+        List<Long> taken = concurrently(16, () -> {
+            long count = 0;
+            while (true) {
+                int stripe = budget.stripe();
+                if (budget.tryTake(stripe, 1)) {
+                    count++;
+                } else {
+                    synchronized (budget) {
+                        if (budget.consolidate(stripe) == 0) {
+                            return count;
+                        }
+                    }
+                }
+            }
+        });
+        assertEquals(10_000, taken.stream().mapToLong(Long::longValue).sum());
+        assertEquals(0, budget.sum());
+    }
+
+    @Test
+    public void testConcurrentAddsAndTakesBalance() throws Exception {
+        StripedBudget budget = new StripedBudget(8);
+        budget.tryAdd(0, 100);
+        List<Long> results = concurrently(8, () -> {
+            long net = 0;
+            for (int i = 0; i < 10_000; i++) {
+                if (i % 2 == 0) {
+                    budget.tryAdd(budget.stripe(), 3);
+                    net += 3;
+                } else if (budget.tryTake(budget.stripe(), 2)) {
+                    net -= 2;
+                }
+            }
+            return net;
+        });
+        assertEquals(100 + results.stream().mapToLong(Long::longValue).sum(), budget.sum());
+    }
+
+    @Test
+    public void testCloseSettlesTheBudget() throws Exception {
+        StripedBudget budget = new StripedBudget(4);
+        for (int i = 0; i < 4; i++) {
+            budget.tryAdd(i, 50_000);
+        }
+        CountDownLatch running = new CountDownLatch(4);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<Long>> takers = new ArrayList<>();
+        try {
+            for (int t = 0; t < 4; t++) {
+                takers.add(pool.submit(() -> {
+                    long count = 0;
+                    running.countDown();
+                    while (budget.tryTake(budget.stripe(), 1)) {
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+            running.await();
+            long closed = budget.close();
+            long taken = 0;
+            for (Future<Long> taker : takers) {
+                taken += taker.get();
+            }
+            // Every unit was either taken before the close or handed back by it
+            assertEquals(200_000, taken + closed);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertFalse(budget.tryTake(0, 1));
+        assertFalse(budget.tryAdd(0, 1));
+        assertEquals(0, budget.sum());
+        assertEquals(0, budget.close());
+    }
+
+    @Test
+    public void testConsolidateAndWithdraw() {
+        StripedBudget budget = new StripedBudget(4);
+        for (int i = 0; i < 4; i++) {
+            budget.tryAdd(i, 3);
+        }
+        // No single stripe holds 5 ...
+        assertFalse(budget.tryTake(1, 5));
+        // ... until the stripes are pooled
+        assertEquals(12, budget.consolidate(1));
+        assertTrue(budget.tryTake(1, 5));
+        assertEquals(7, budget.sum());
+
+        assertEquals(4, budget.withdraw(4));
+        assertEquals(3, budget.withdraw(10));
+        assertEquals(0, budget.sum());
+    }
+
+    private static List<Long> concurrently(int threads, Callable<Long> work) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return work.call();
+                }));
+            }
+            start.countDown();
+            List<Long> results = new ArrayList<>();
+            for (Future<Long> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
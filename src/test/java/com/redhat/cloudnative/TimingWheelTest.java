@@ -0,0 +1,75 @@
+package com.redhat.cloudnative;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testExpiresAtDeadlineNotBefore() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        wheel.schedule("a", 35);
+
+        assertTrue(wheel.advance(30).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(40));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testPastDeadlineIsRejected() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 1000);
+        assertNull(wheel.schedule("late", 1000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCascadesThroughOverflowLevels() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 4, 0);
+        // 4 slots per level: deadlines up to 1000 ticks need several overflow levels
+        for (int deadline = 1; deadline <= 1000; deadline++) {
+            wheel.schedule(deadline, deadline);
+        }
+        List<Integer> expired = new ArrayList<>();
+        for (long now = 1; now <= 1000; now++) {
+            List<Integer> due = wheel.advance(now);
+            assertEquals(List.of((int) now), due, "at tick " + now);
+            expired.addAll(due);
+        }
+        assertEquals(1000, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCancelledTimeoutDoesNotExpire() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        TimingWheel.Timeout<String> keep = wheel.schedule("keep", 500);
+        TimingWheel.Timeout<String> drop = wheel.schedule("drop", 500);
+
+        assertTrue(wheel.cancel(drop));
+        assertFalse(wheel.cancel(drop));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("keep"), wheel.advance(1000));
+        assertFalse(wheel.cancel(keep));
+    }
+
+    @Test
+    public void testLargeJumpExpiresEverythingDue() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(100, 16, 0);
+        for (int i = 0; i < 100_000; i++) {
+            wheel.schedule(i, 100 + (i % 3600) * 1000L);
+        }
+        assertEquals(100_000, wheel.size());
+        int first = wheel.advance(100).size();
+        int rest = wheel.advance(3_600_000).size();
+        assertEquals(100_000 / 3600 + 1, first);
+        assertEquals(100_000, first + rest);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,87 @@
+package com.redhat.cloudnative;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ZipfianGeneratorTest {
+
+    @Test
+    public void testRanksStayInRange() {
+        ZipfianGenerator zipf = new ZipfianGenerator(100, 1.2);
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 100_000; i++) {
+            long rank = zipf.next(random);
+            assertTrue(rank >= 1 && rank <= 100, "rank " + rank);
+        }
+    }
+
+    @Test
+    public void testFrequenciesMatchProbabilities() {
+        ZipfianGenerator zipf = new ZipfianGenerator(1_000, 0.99);
+        SplittableRandom random = new SplittableRandom(7);
+        int samples = 500_000;
+        int[] counts = new int[4];
+        for (int i = 0; i < samples; i++) {
+            long rank = zipf.next(random);
+            if (rank <= 3) {
+                counts[(int) rank]++;
+            }
+        }
+        for (int rank = 1; rank <= 3; rank++) {
+            double expected = zipf.probability(rank);
+            double observed = (double) counts[rank] / samples;
+            assertEquals(expected, observed, expected * 0.05, "rank " + rank);
+        }
+        assertTrue(zipf.probability(1) > zipf.probability(2));
+    }
+
+    @Test
+    public void testProbabilitiesSumToOne() {
+        for (long n : new long[] { 1, 10, 50_000 }) {
+            ZipfianGenerator zipf = new ZipfianGenerator(n, 0.99);
+            double sum = 0;
+            for (long rank = 1; rank <= n; rank++) {
+                sum += zipf.probability(rank);
+            }
+            assertEquals(1.0, sum, 1e-6, "n=" + n);
+        }
+        assertEquals(0.0, new ZipfianGenerator(10, 1).probability(11));
+    }
+
+    @Test
+    public void testZeroExponentIsUniform() {
+        ZipfianGenerator zipf = new ZipfianGenerator(4, 0);
+        for (long rank = 1; rank <= 4; rank++) {
+            assertEquals(0.25, zipf.probability(rank), 1e-12);
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(10, -0.5));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(10, Double.NaN));
+    }
+
+    @Test
+    public void testPopularityIsAPermutationOfTheRange() {
+        ProductPopularity popularity = new ProductPopularity(5_000, 1_000, 0.99);
+        Set<Long> productIds = new HashSet<>();
+        for (long rank = 1; rank <= 1_000; rank++) {
+            long productId = popularity.productId(rank);
+            assertTrue(productId >= 5_000 && productId < 6_000, "product " + productId);
+            assertEquals(rank, popularity.rank(productId));
+            productIds.add(productId);
+        }
+        assertEquals(1_000, productIds.size());
+        // The hottest products are spread out rather than adjacent
+        assertTrue(Math.abs(popularity.productId(2) - popularity.productId(1)) > 1);
+    }
+}